@@ -0,0 +1,137 @@
+package workshop.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.bidi.log.ConsoleLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.console.ConsoleArchive;
+import workshop.console.ConsoleArchiveReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeping every console entry: {@link ConsoleArchive} vs plain SLF4J text logging to a file, the way
+ * ConsoleEventsSubscription / ReactiveFormValidation print entries today.
+ *
+ * One invocation writes every entry of the recorded log.entryAdded fixture. Output goes to a fresh
+ * directory per iteration; the bytes written per entry by each format are printed at the end of the run.
+ * {@code scanArchive} measures a filtered read (level + text prefix) over the archive written during setup.
+ *
+ * How to run:
+ *   mvn -Pbenchmarks compile exec:exec@jmh -Djmh.args="ConsoleArchive"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dorg.slf4j.simpleLogger.logFile=target/jmh-console-archive/slf4j.log",
+        "-Dorg.slf4j.simpleLogger.showDateTime=true"})
+public class ConsoleArchiveBenchmark {
+    private static final Path WORK_DIR = Path.of("target/jmh-console-archive");
+    private static final Path TEXT_LOG = WORK_DIR.resolve("slf4j.log");
+
+    // Looked up in setUp: slf4j-simple opens its log file on first use, and WORK_DIR must exist by then.
+    private Logger textLog;
+
+    private ConsoleLogEntry[] entries;
+    private ConsoleArchive archive;
+    private Path archiveDir;
+    private Path scanDir;
+    private ConsoleArchiveReader.Query errorsQuery;
+
+    private long entriesLogged;
+    private long textBytesBefore;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<ConsoleLogEntry> recorded = Fixtures.consoleEntries();
+        entries = recorded.toArray(new ConsoleLogEntry[0]);
+        Files.createDirectories(WORK_DIR);
+        textLog = LoggerFactory.getLogger("workshop.ConsoleEventsSubscription");
+
+        scanDir = Files.createTempDirectory(WORK_DIR, "scan-");
+        try (ConsoleArchive a = new ConsoleArchive(scanDir)) {
+            for (int i = 0; i < 1000; i++) {
+                for (ConsoleLogEntry entry : entries) a.accept(entry);
+            }
+        }
+        errorsQuery = ConsoleArchiveReader.query().levels("error").textPrefix("VALIDATION_");
+    }
+
+    @Setup(Level.Iteration)
+    public void openArchive() throws IOException {
+        archiveDir = Files.createTempDirectory(WORK_DIR, "archive-");
+        archive = new ConsoleArchive(archiveDir);
+        entriesLogged = 0;
+        textBytesBefore = Files.size(TEXT_LOG);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeArchive() throws IOException {
+        if (entriesLogged > 0) {
+            System.out.printf("%n  slf4j text: %.1f bytes/entry over %d entries%n",
+                    (double) (Files.size(TEXT_LOG) - textBytesBefore) / entriesLogged, entriesLogged);
+        }
+        archive.close();
+        if (archive.entryCount() > 0) {
+            System.out.printf("%n  archive: %.1f bytes/entry over %d entries%n",
+                    (double) archive.bytesWritten() / archive.entryCount(), archive.entryCount());
+        }
+        delete(archiveDir);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        delete(scanDir);
+        Files.deleteIfExists(TEXT_LOG);
+    }
+
+    @Benchmark
+    public void archive() {
+        for (ConsoleLogEntry entry : entries) {
+            archive.accept(entry);
+        }
+    }
+
+    /** What the workshop listeners do, but to a file instead of stderr. */
+    @Benchmark
+    public void slf4jText() {
+        for (ConsoleLogEntry entry : entries) {
+            textLog.info("Console [{}] {}: {}", entry.getLevel(), entry.getMethod(), entry.getText());
+        }
+        entriesLogged += entries.length;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long scanArchive() {
+        return ConsoleArchiveReader.count(scanDir, errorsQuery);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
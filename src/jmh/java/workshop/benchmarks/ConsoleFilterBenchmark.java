@@ -0,0 +1,106 @@
+package workshop.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.bidi.log.ConsoleLogEntry;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Console-entry filtering and counting as done by the ReactiveFormValidation listener
+ * ({@code VALIDATION_*} / {@code FORM_*} into an {@code AtomicInteger formEvents}).
+ *
+ * One invocation runs the listener body over every entry in the recorded log.entryAdded fixture.
+ * The {@code contended*} variants run on 4 threads against one shared counter, which is what happens
+ * when several contexts report into the same collector.
+ *
+ * How to run:
+ *   mvn -Pbenchmarks compile exec:exec@jmh -Djmh.args="ConsoleFilter"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsoleFilterBenchmark {
+
+    private static final Pattern FORM_EVENT = Pattern.compile("^(?:VALIDATION_|FORM_)", Pattern.CASE_INSENSITIVE);
+
+    private ConsoleLogEntry[] entries;
+
+    private final AtomicInteger formEvents = new AtomicInteger();
+    private final LongAdder formEventsAdder = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        List<ConsoleLogEntry> recorded = Fixtures.consoleEntries();
+        entries = recorded.toArray(new ConsoleLogEntry[0]);
+    }
+
+    /** The workshop solution: upper-case copy of every text, then two prefix checks. */
+    @Benchmark
+    public int workshopListener() {
+        for (ConsoleLogEntry entry : entries) {
+            String text = entry.getText() == null ? "" : entry.getText();
+            String t = text.toUpperCase(Locale.ROOT);
+            if (t.startsWith("VALIDATION_") || t.startsWith("FORM_")) formEvents.incrementAndGet();
+        }
+        return formEvents.get();
+    }
+
+    /** Same predicate without the per-entry copy. */
+    @Benchmark
+    public int regionMatches() {
+        for (ConsoleLogEntry entry : entries) {
+            if (isFormEvent(entry.getText())) formEvents.incrementAndGet();
+        }
+        return formEvents.get();
+    }
+
+    @Benchmark
+    public int precompiledPattern() {
+        for (ConsoleLogEntry entry : entries) {
+            String text = entry.getText();
+            if (text != null && FORM_EVENT.matcher(text).lookingAt()) formEvents.incrementAndGet();
+        }
+        return formEvents.get();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int contendedAtomicInteger() {
+        for (ConsoleLogEntry entry : entries) {
+            if (isFormEvent(entry.getText())) formEvents.incrementAndGet();
+        }
+        return formEvents.get();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void contendedLongAdder() {
+        for (ConsoleLogEntry entry : entries) {
+            if (isFormEvent(entry.getText())) formEventsAdder.increment();
+        }
+    }
+
+    private static boolean isFormEvent(String text) {
+        return text != null
+                && (text.regionMatches(true, 0, "VALIDATION_", 0, 11)
+                    || text.regionMatches(true, 0, "FORM_", 0, 5));
+    }
+}
@@ -0,0 +1,70 @@
+package workshop.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.bidi.log.Log;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+import org.openqa.selenium.json.Json;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON deserialisation of recorded {@code network.responseCompleted} and {@code log.entryAdded} frames,
+ * following the same steps as Selenium's BiDi Connection: text frame -> Map -> event mapper.
+ *
+ * Scores are per frame.
+ *
+ * How to run:
+ *   mvn -Pbenchmarks compile exec:exec@jmh -Djmh.args="EventDeserialization"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDeserializationBenchmark {
+
+    private final Json json = new Json();
+
+    private String[] responseFrames;
+    private String[] logFrames;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        responseFrames = Fixtures.rawFrames(Fixtures.RESPONSE_COMPLETED).toArray(new String[0]);
+        logFrames = Fixtures.rawFrames(Fixtures.LOG_ENTRY_ADDED).toArray(new String[0]);
+    }
+
+    @Benchmark
+    public ResponseDetails responseCompleted() {
+        String frame = responseFrames[next++ % responseFrames.length];
+        Map<String, Object> raw = json.toType(frame, Json.MAP_TYPE);
+        return ResponseDetails.fromJsonMap(Fixtures.params(raw));
+    }
+
+    @Benchmark
+    public void logEntryAdded(Blackhole bh) {
+        String frame = logFrames[next++ % logFrames.length];
+        Map<String, Object> raw = json.toType(frame, Json.MAP_TYPE);
+        bh.consume(Log.entryAdded().getMapper().apply(Fixtures.params(raw)));
+    }
+
+    /** Parsing only, to separate the JSON tokenizer cost from Selenium's object mapping. */
+    @Benchmark
+    public Map<String, Object> responseCompletedToMapOnly() {
+        String frame = responseFrames[next++ % responseFrames.length];
+        return json.toType(frame, Json.MAP_TYPE);
+    }
+}
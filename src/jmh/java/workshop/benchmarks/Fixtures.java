@@ -0,0 +1,62 @@
+package workshop.benchmarks;
+
+import org.openqa.selenium.bidi.log.ConsoleLogEntry;
+import org.openqa.selenium.bidi.log.Log;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+import org.openqa.selenium.json.Json;
+import workshop.offline.RecordedEvents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorded BiDi event frames used as benchmark input, so nothing needs a browser or the network.
+ *
+ * The fixtures are the recordings shipped for the offline BiDi endpoint; see
+ * {@link RecordedEvents} for the format.
+ */
+final class Fixtures {
+    static final String RESPONSE_COMPLETED = RecordedEvents.RESPONSE_COMPLETED;
+    static final String LOG_ENTRY_ADDED = RecordedEvents.LOG_ENTRY_ADDED;
+
+    private static final Json JSON = new Json();
+
+    private Fixtures() {
+    }
+
+    /** The recorded frames, parsed into maps. */
+    static List<Map<String, Object>> frames(String resource) {
+        return RecordedEvents.load(resource);
+    }
+
+    /** Each recorded frame re-serialised on its own, i.e. one WebSocket text message per element. */
+    static List<String> rawFrames(String resource) {
+        List<String> raw = new ArrayList<>();
+        for (Map<String, Object> frame : frames(resource)) {
+            raw.add(JSON.toJson(frame));
+        }
+        return raw;
+    }
+
+    static List<ResponseDetails> responses() {
+        List<ResponseDetails> out = new ArrayList<>();
+        for (Map<String, Object> frame : frames(RESPONSE_COMPLETED)) {
+            out.add(ResponseDetails.fromJsonMap(params(frame)));
+        }
+        return out;
+    }
+
+    static List<ConsoleLogEntry> consoleEntries() {
+        List<ConsoleLogEntry> out = new ArrayList<>();
+        for (Map<String, Object> frame : frames(LOG_ENTRY_ADDED)) {
+            Log.entryAdded().getMapper().apply(params(frame)).getConsoleLogEntry().ifPresent(out::add);
+        }
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> params(Map<String, Object> frame) {
+        return (Map<String, Object>) frame.get("params");
+    }
+}
@@ -0,0 +1,86 @@
+package workshop.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.bidi.network.Header;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+import workshop.network.HeaderValues;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Header decoding: the original reflective NetworkEvents.decodeHeaderValue versus
+ * the ClassValue/MethodHandle resolver in {@link HeaderValues}.
+ *
+ * One invocation decodes every response header in the recorded network.responseCompleted fixture.
+ *
+ * How to run:
+ *   mvn -Pbenchmarks compile exec:exec@jmh -Djmh.args="HeaderDecoding"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderDecodingBenchmark {
+
+    private List<Header> headers;
+
+    @Setup
+    public void setUp() {
+        headers = new ArrayList<>();
+        for (ResponseDetails details : Fixtures.responses()) {
+            headers.addAll(details.getResponseData().getHeaders());
+        }
+    }
+
+    @Benchmark
+    public void reflective(Blackhole bh) {
+        for (Header h : headers) {
+            bh.consume(reflectiveDecode(h.getValue()));
+        }
+    }
+
+    @Benchmark
+    public void cachedMethodHandle(Blackhole bh) {
+        for (Header h : headers) {
+            bh.consume(HeaderValues.decode(h.getValue()));
+        }
+    }
+
+    /** Verbatim copy of the original NetworkEvents.decodeHeaderValue, kept as the baseline. */
+    static String reflectiveDecode(Object value) {
+        if (value == null) return "";
+        String[] methods = { "getValue", "asString", "toStringValue" };
+        for (String m : methods) {
+            try {
+                Object v = value.getClass().getMethod(m).invoke(value);
+                if (v != null) return v.toString();
+            } catch (Exception ignored) {}
+        }
+        try {
+            Object opt = value.getClass().getMethod("getValue").invoke(value);
+            if (opt instanceof java.util.Optional) {
+                java.util.Optional<?> o = (java.util.Optional<?>) opt;
+                if (o.isPresent()) return String.valueOf(o.get());
+            }
+        } catch (Exception ignored) {}
+        try {
+            Object bytes = value.getClass().getMethod("getBytes").invoke(value);
+            if (bytes instanceof byte[]) return new String((byte[]) bytes);
+        } catch (Exception ignored) {}
+        return value.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package workshop;
+
+/**
+ * Asserting on JSON API responses: bodies captured off-heap with BiDi network data collection (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.network.BodyCapture: network.addDataCollector, then network.getData for every response
+ *    whose URL and MIME type match, run as the sink of a NetworkCapture
+ *  - workshop.network.BodyStore: small bodies in pooled direct buffers, large ones in memory-mapped temp
+ *    files, under one byte budget with least-recently-used eviction
+ *  - Every captured body parsed and checked against the item id in its URL
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.ApiBodyCapture" -Dexec.args="1000 64"
+ *
+ * Notes:
+ *  - Arguments: API requests made by the page (default 1000), body budget in MB (default 64).
+ *  - Items come from the fixture server's /api/items/<id>, from a few dozen bytes to about 200 KB; those
+ *    over 64 KB are spilled to target/body-spill.
+ *  - Needs a browser that implements network.addDataCollector (a recent Chrome or Firefox).
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.BodyCapture;
+import workshop.network.BodyStore;
+import workshop.network.NetworkCapture;
+import workshop.offline.FixtureServer;
+import workshop.session.DriverFactory;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+
+public class ApiBodyCapture {
+    private static final Logger logger = LoggerFactory.getLogger(ApiBodyCapture.class);
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long budgetMegabytes = args.length > 1 ? Long.parseLong(args[1]) : 64;
+
+        WebDriver driver = null;
+        try (FixtureServer fixtures = new FixtureServer();
+             DriverFactory factory = new DriverFactory(DriverFactory.Browser.CHROME);
+             BodyStore store = new BodyStore(budgetMegabytes << 20, 64 << 10, Paths.get("target/body-spill"))) {
+            driver = factory.newDriver();
+            BodyCapture bodies = new BodyCapture(driver, store, url -> url.contains("/api/items/"),
+                    BodyCapture.JSON_MIME, 1 << 20);
+
+            String page = fixtures.publish("<!doctype html><title>API client</title><script>\n"
+                    + "(async () => {\n"
+                    + "  for (let i = 0; i < " + requests + "; i += 20) {\n"
+                    + "    await Promise.all(Array.from({length: 20}, (_, k) => fetch('/api/items/' + (i + k)).then(r => r.text())));\n"
+                    + "  }\n"
+                    + "})();\n"
+                    + "</script>");
+
+            long start = System.nanoTime();
+            try (NetworkCapture capture = new NetworkCapture(driver, bodies)) {
+                new BrowsingContext(driver, driver.getWindowHandle()).navigate(page, ReadinessState.COMPLETE);
+                long deadline = System.currentTimeMillis() + 120_000;
+                while (bodies.matchedCount() < requests && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(100);
+                }
+                bodies.awaitIdle(Duration.ofSeconds(30));
+                if (capture.droppedCount() > 0) {
+                    logger.warn("{} network events dropped by the capture queue; their bodies are missing",
+                            capture.droppedCount());
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            int checked = 0;
+            int mismatched = 0;
+            for (BodyCapture.Captured item : bodies.captured()) {
+                Object json = bodies.json(item.getRequestId()).orElse(null);
+                if (json == null) continue; // evicted to stay within the budget
+                checked++;
+                String id = item.getUrl().substring(item.getUrl().lastIndexOf('/') + 1);
+                if (!(json instanceof Map) || !String.valueOf(((Map<?, ?>) json).get("id")).equals(id)) {
+                    mismatched++;
+                    logger.warn("Unexpected body for {}", item);
+                }
+            }
+            logger.info("{} responses in {} ms; {} bodies checked, {} mismatched", requests, millis, checked, mismatched);
+            logger.info("{}", bodies.summary());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("API body capture failed", e);
+        } finally {
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package workshop;
+
+/**
+ * Measuring the driver's BiDi connection: command RTT, event rate, payload sizes (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.diagnostics.BiDiInstrumentation.enable(): Selenium's webdriver.http.factory hook selects
+ *    workshop.diagnostics.MeteredHttpClientFactory, so the driver opens its one BiDi WebSocket metered
+ *  - Round-trip time per command method, commands in flight, inbound events per type and bytes each way,
+ *    logged every 10 seconds and once when the connection closes
+ *  - BiDiInstrumentation.timed(...) around the console handler, so log.entryAdded also shows listener time
+ *  - The same numbers in JConsole/VisualVM under workshop:type=BiDiConnection, and as workshop.bidi.Command
+ *    and workshop.bidi.Statistics events in a JFR recording
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.BiDiConnectionMetrics" -Dexec.args="20"
+ *
+ * Notes:
+ *  - Argument: page loads (default 20). Each page logs a few console messages, so log.entryAdded events
+ *    show up next to the browsingContext.navigate round trips.
+ *  - enable() must run before the driver is created; modules created at any time afterwards are measured.
+ *  - Only wrapped handlers are timed; Selenium calls listeners on its own executor, out of the socket's sight.
+ *  - Add -XX:StartFlightRecording to the JVM options to get the JFR events (workshop.bidi.Listener for slow handlers).
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.module.LogInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.diagnostics.BiDiInstrumentation;
+import workshop.diagnostics.BiDiMetrics;
+import workshop.offline.FixtureServer;
+import workshop.session.DriverFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BiDiConnectionMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(BiDiConnectionMetrics.class);
+
+    public static void main(String[] args) {
+        int loads = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        BiDiInstrumentation.enable();
+        WebDriver driver = null;
+        BiDiMetrics metrics = null;
+        try (FixtureServer fixtures = new FixtureServer();
+             DriverFactory factory = new DriverFactory(DriverFactory.Browser.CHROME)) {
+            driver = factory.newDriver();
+            metrics = BiDiInstrumentation.metrics(driver);
+            metrics.startReporting(Duration.ofSeconds(10));
+
+            AtomicInteger entries = new AtomicInteger();
+            try (LogInspector logs = new LogInspector(driver)) {
+                logs.onConsoleEntry(BiDiInstrumentation.timed(metrics, "log.entryAdded", entry -> entries.incrementAndGet()));
+                String page = fixtures.publish("<!doctype html><title>Metered</title><script>\n"
+                        + "for (let i = 0; i < 5; i++) console.log('message ' + i);\n"
+                        + "</script>");
+                BrowsingContext context = new BrowsingContext(driver, driver.getWindowHandle());
+                for (int i = 0; i < loads; i++) {
+                    context.navigate(page, ReadinessState.COMPLETE);
+                }
+            }
+            logger.info("{} page loads, {} console entries received", loads, entries.get());
+        } catch (Exception e) {
+            logger.error("Connection metrics demo failed", e);
+        } finally {
+            if (metrics != null) {
+                metrics.close(); // logs the final summary
+            }
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package workshop;
+
+/**
+ * Repeatable page loads: static assets served from a local disk cache via request interception (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.network.AssetCache: content-addressed bodies on disk, LRU eviction by total size, an
+ *    index that survives between runs
+ *  - workshop.network.CachingInterceptor: network.addIntercept + network.provideResponse answering JS,
+ *    CSS and images from that cache; misses are fetched once from the origin and stored
+ *  - Load times of the same page, cold then warm, with origin latency injected on every asset
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.CachedAssetLoads" -Dexec.args="40 5 150"
+ *
+ * Notes:
+ *  - Arguments: subresources on the synthetic page (default 40), loads (default 5), injected asset
+ *    latency in ms (default 150), cache size limit in MB (default 64).
+ *  - The cache lives in target/asset-cache; run again and even the first load is warm. Delete the
+ *    directory for a cold start.
+ *  - Documents and fetch() calls for JSON are not cached, so the page itself still comes from the origin.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.AssetCache;
+import workshop.network.CachingInterceptor;
+import workshop.offline.FixtureServer;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+public class CachedAssetLoads {
+    private static final Logger logger = LoggerFactory.getLogger(CachedAssetLoads.class);
+
+    public static void main(String[] args) {
+        int subresources = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int loads = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 150;
+        long maxMegabytes = args.length > 3 ? Long.parseLong(args[3]) : 64;
+
+        WebDriver driver = null;
+        try (FixtureServer fixtures = new FixtureServer();
+             AssetCache cache = new AssetCache(Paths.get("target/asset-cache"), maxMegabytes << 20)) {
+            fixtures.faults("/bytes/").latency(Duration.ofMillis(latencyMillis));
+
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+            driver = new ChromeDriver(options);
+            BrowsingContext tab = new BrowsingContext(driver, driver.getWindowHandle());
+
+            try (CachingInterceptor interceptor = new CachingInterceptor(driver, cache)) {
+                for (int i = 1; i <= loads; i++) {
+                    long hitsBefore = interceptor.hitCount();
+                    long missesBefore = interceptor.missCount();
+                    long start = System.nanoTime();
+                    tab.navigate(fixtures.syntheticPage(subresources), ReadinessState.COMPLETE);
+                    long millis = (System.nanoTime() - start) / 1_000_000;
+                    logger.info("Load {}: {} ms, {} hits, {} misses", i, millis,
+                            interceptor.hitCount() - hitsBefore, interceptor.missCount() - missesBefore);
+                }
+                logger.info("Hit ratio over {} loads: {}", loads, String.format("%.1f%%", interceptor.hitRatio() * 100));
+            }
+        } catch (Exception e) {
+            logger.error("Cached asset run failed", e);
+        } finally {
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package workshop;
+
+/**
+ * Archiving console entries in a compact binary format (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.console.ConsoleArchive as a LogInspector listener, keeping every ConsoleLogEntry
+ *  - Interned level/method/source strings and varint timestamps in memory-mapped, append-only segments
+ *  - workshop.console.ConsoleArchiveReader scanning the archive back, filtered by level and text prefix
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.ConsoleArchiving" -Dexec.args="target/console-archive"
+ *
+ * Notes:
+ *  - Entries take roughly a quarter of the bytes of the equivalent SLF4J text line;
+ *    see ConsoleArchiveBenchmark in the benchmarks profile.
+ *  - Re-running with the same directory appends new segments after the existing ones.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.module.LogInspector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.console.ConsoleArchive;
+import workshop.console.ConsoleArchiveReader;
+import workshop.offline.FixtureServer;
+
+import java.nio.file.Path;
+
+public class ConsoleArchiving {
+    private static final Logger logger = LoggerFactory.getLogger(ConsoleArchiving.class);
+
+    private static final int CLICKS = 20;
+
+    public static void main(String[] args) {
+        Path archiveDir = Path.of(args.length > 0 ? args[0] : "target/console-archive");
+
+        WebDriver driver = null;
+        LogInspector logs = null;
+        ConsoleArchive archive = new ConsoleArchive(archiveDir);
+        FixtureServer fixtures = new FixtureServer();
+        try {
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+            driver = new ChromeDriver(options);
+
+            logs = new LogInspector(driver);
+            logs.onConsoleEntry(archive);
+
+            BrowsingContext context = new BrowsingContext(driver, driver.getWindowHandle());
+            context.navigate(fixtures.url("bidi/logEntryAdded.html"), ReadinessState.COMPLETE);
+            for (int i = 0; i < CLICKS; i++) {
+                driver.findElement(By.id(i % 2 == 0 ? "consoleLog" : "consoleError")).click();
+            }
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (archive.entryCount() < CLICKS && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        } catch (Exception e) {
+            logger.error("Console archiving failed", e);
+        } finally {
+            if (logs != null) {
+                try { logs.close(); } catch (Exception ignored) {}
+            }
+            archive.close();
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+            fixtures.close();
+        }
+
+        long errors = ConsoleArchiveReader.scan(archiveDir, ConsoleArchiveReader.query().levels("error"),
+                entry -> logger.info("  {}", entry));
+        logger.info("Archived error entries: {}", errors);
+    }
+}
@@ -12,6 +12,7 @@ import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import workshop.offline.FixtureServer;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -33,6 +34,7 @@ import java.util.concurrent.TimeoutException;
  * Notes:
  *  - Requires Selenium 4.12+ (this project uses ${selenium.version} in pom).
  *  - If running in CI/headless environments, add: options.addArguments("--headless=new")
+ *  - The demo page is served locally by workshop.offline.FixtureServer (no network access needed).
  */
 
 public class ConsoleEventsSubscription {
@@ -42,6 +44,7 @@ public class ConsoleEventsSubscription {
         WebDriver driver = null;
         LogInspector logInspector = null; // <-- explicit variable as requested
         BrowsingContext context = null;
+        FixtureServer fixtures = new FixtureServer();
 
         try {
             // 1) Enable BiDi bridge
@@ -64,7 +67,7 @@ public class ConsoleEventsSubscription {
             //  - Call logInspector.onConsoleEntry(...) and complete the future on the first entry.
 
             // 4) Navigate via BiDi
-            String url = "https://www.selenium.dev/selenium/web/bidi/logEntryAdded.html";
+            String url = fixtures.url("bidi/logEntryAdded.html"); // local copy of selenium.dev's test page
             logger.info("Navigating via BiDi to: {}", url);
             NavigationResult nav = context.navigate(url, ReadinessState.COMPLETE);
             logger.info("Navigation done. URL reported: {}, navigationId: {}", nav.getUrl(), nav.getNavigationId());
@@ -97,6 +100,7 @@ public class ConsoleEventsSubscription {
                     logger.error("Error closing WebDriver session", e);
                 }
             }
+            fixtures.close();
         }
     }
 }
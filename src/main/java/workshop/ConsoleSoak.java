@@ -0,0 +1,89 @@
+package workshop;
+
+/**
+ * Console analytics during a soak run: rolling counts, windowed error rate, top message templates (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.console.ConsoleAnalytics as a LogInspector listener, counting every console entry per level
+ *    and browsing context with LongAdders
+ *  - Per-level counts and the error rate over a sliding window, logged as a warning when errors spike
+ *  - Messages grouped into templates ("request # failed with #") and the most frequent recent ones
+ *    reported (counts halve every window), in bounded memory however long the run
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.ConsoleSoak" -Dexec.args="60 3"
+ *
+ * Notes:
+ *  - Arguments: run time in seconds (default 60), tabs (default 3), error rate that triggers a warning in
+ *    errors per second (default 5).
+ *  - Each tab runs a generated page that logs steadily and has a burst of errors between seconds 20 and 30.
+ *  - Summaries are logged every 5 seconds over a 10-second window.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.module.LogInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.console.ConsoleAnalytics;
+import workshop.offline.FixtureServer;
+import workshop.session.DriverFactory;
+
+import java.time.Duration;
+
+public class ConsoleSoak {
+    private static final Logger logger = LoggerFactory.getLogger(ConsoleSoak.class);
+
+    private static final String NOISY_PAGE = "<!doctype html><title>Noisy page</title><script>\n"
+            + "const started = Date.now();\n"
+            + "let n = 0;\n"
+            + "setInterval(() => {\n"
+            + "  n++;\n"
+            + "  console.log('tick ' + n);\n"
+            + "  if (n % 5 === 0) console.info('cart ' + crypto.randomUUID() + ' updated, ' + (n % 7) + ' items');\n"
+            + "  if (n % 50 === 0) console.warn('slow frame: ' + (16 + n % 40) + 'ms');\n"
+            + "  const s = (Date.now() - started) / 1000;\n"
+            + "  if (s >= 20 && s < 30) console.error('request ' + n + ' failed with 503');\n"
+            + "}, 50);\n"
+            + "</script>";
+
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int tabs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        double alertAbove = args.length > 2 ? Double.parseDouble(args[2]) : 5;
+
+        WebDriver driver = null;
+        LogInspector logs = null;
+        ConsoleAnalytics analytics = new ConsoleAnalytics(Duration.ofSeconds(10), 1_000, 200).alertAbove(alertAbove);
+        try (FixtureServer fixtures = new FixtureServer();
+             DriverFactory factory = new DriverFactory(DriverFactory.Browser.CHROME)) {
+            driver = factory.newDriver();
+            logs = new LogInspector(driver);
+            logs.onConsoleEntry(analytics);
+            analytics.startReporting(Duration.ofSeconds(5), 5, null);
+
+            String url = fixtures.publish(NOISY_PAGE);
+            for (int i = 0; i < tabs; i++) {
+                BrowsingContext tab = i == 0
+                        ? new BrowsingContext(driver, driver.getWindowHandle())
+                        : new BrowsingContext(driver, WindowType.TAB);
+                tab.navigate(url, ReadinessState.COMPLETE);
+            }
+            Thread.sleep(seconds * 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Console soak failed", e);
+        } finally {
+            if (logs != null) {
+                try { logs.close(); } catch (Exception ignored) {}
+            }
+            analytics.close();
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package workshop;
+
+/**
+ * Fan-out navigation: many URLs, one browsing context each, navigated concurrently (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.session.FanOutNavigator: browsingContext.create + browsingContext.navigate sent without
+ *    blocking, one CompletableFuture<NavigationResult> per URL, at most N navigations in flight
+ *  - wait=interactive vs wait=complete: finishing at DOMContentLoaded instead of load
+ *  - A smoke check (document.title via script.evaluate) run in each context before it is closed
+ *  - The same URL list navigated one at a time first, for comparison
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.FanOutNavigation" -Dexec.args="24 8 interactive"
+ *
+ * Notes:
+ *  - Arguments: number of pages (default 24), maximum navigations in flight (default 8), readiness
+ *    complete or interactive (default complete), injected asset latency in ms (default 100).
+ *  - Pages come from the local fixture server; their images are delayed, so complete waits for them and
+ *    interactive does not.
+ *  - One navigator per browser: the cap protects that browser, so several browsers need several navigators.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.NavigationResult;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.module.Script;
+import org.openqa.selenium.bidi.script.EvaluateResult;
+import org.openqa.selenium.bidi.script.EvaluateResultSuccess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.offline.FixtureServer;
+import workshop.session.DriverFactory;
+import workshop.session.FanOutNavigator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+public class FanOutNavigation {
+    private static final Logger logger = LoggerFactory.getLogger(FanOutNavigation.class);
+
+    public static void main(String[] args) {
+        int pages = args.length > 0 ? Integer.parseInt(args[0]) : 24;
+        int maxConcurrent = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        ReadinessState readiness = ReadinessState.valueOf(
+                (args.length > 2 ? args[2] : "complete").toUpperCase(Locale.ROOT));
+        long latencyMillis = args.length > 3 ? Long.parseLong(args[3]) : 100;
+
+        WebDriver driver = null;
+        try (FixtureServer fixtures = new FixtureServer();
+             DriverFactory factory = new DriverFactory(DriverFactory.Browser.CHROME)) {
+            fixtures.faults("/bytes/").latency(Duration.ofMillis(latencyMillis));
+            List<String> urls = new ArrayList<>();
+            for (int i = 0; i < pages; i++) urls.add(fixtures.syntheticPage(5 + i % 10));
+
+            driver = factory.newDriver();
+            Script script = new Script(driver);
+            LongAdder untitled = new LongAdder();
+
+            BiConsumer<String, NavigationResult> smokeCheck = (context, nav) -> {
+                EvaluateResult title = script.evaluateFunctionInBrowsingContext(
+                        context, "document.title", false, Optional.empty());
+                if (!(title instanceof EvaluateResultSuccess)) untitled.increment();
+            };
+
+            double sequential = run(driver, urls, 1, readiness, smokeCheck);
+            double fanOut = run(driver, urls, maxConcurrent, readiness, smokeCheck);
+            logger.info("{} pages, wait={}: {} pages/s one at a time, {} pages/s with {} in flight ({} failed smoke checks)",
+                    pages, readiness, String.format("%.1f", sequential), String.format("%.1f", fanOut),
+                    maxConcurrent, untitled.sum());
+        } catch (Exception e) {
+            logger.error("Fan-out navigation failed", e);
+        } finally {
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+
+    /** Navigate every URL with the given cap and return pages per second. */
+    private static double run(WebDriver driver, List<String> urls, int maxConcurrent, ReadinessState readiness,
+                              BiConsumer<String, NavigationResult> smokeCheck) {
+        try (FanOutNavigator navigator = new FanOutNavigator(driver)
+                .readiness(readiness)
+                .maxConcurrent(maxConcurrent)
+                .onLoaded(smokeCheck)) {
+            long start = System.nanoTime();
+            List<CompletableFuture<NavigationResult>> results = navigator.navigateAll(urls);
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                    .exceptionally(failure -> null)
+                    .join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("max {} in flight: {}", maxConcurrent, navigator.summary());
+            return navigator.succeededCount() / seconds;
+        }
+    }
+}
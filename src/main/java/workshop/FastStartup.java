@@ -0,0 +1,58 @@
+package workshop;
+
+/**
+ * Browser start-up: default vs headless, quiet and pre-seeded profiles, launched in parallel (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.session.DriverFactory: BiDi-ready ChromeOptions/FirefoxOptions with headless mode,
+ *    background services switched off and profiles copied from a seeded template
+ *  - Several sessions launched at once, each timed until its first browsing context completes a BiDi
+ *    navigation (time to first usable context)
+ *  - The same launch done the default way first, for comparison
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.FastStartup" -Dexec.args="chrome 4"
+ *
+ * Notes:
+ *  - Arguments: chrome or firefox (default chrome), number of parallel sessions (default 4).
+ *  - The profile template is kept in target/profile-template-<browser>; the first run seeds it, later
+ *    runs reuse it. Delete the directory after a browser upgrade.
+ *  - Use the factory for pools too: new SessionPool(n, factory::newDriver).
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.session.DriverFactory;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+public class FastStartup {
+    private static final Logger logger = LoggerFactory.getLogger(FastStartup.class);
+
+    public static void main(String[] args) {
+        DriverFactory.Browser browser = DriverFactory.Browser.valueOf(
+                (args.length > 0 ? args[0] : "chrome").toUpperCase(Locale.ROOT));
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        try (DriverFactory plain = new DriverFactory(browser).headless(false).quiet(false);
+             DriverFactory tuned = new DriverFactory(browser).profileTemplate(
+                     Paths.get("target/profile-template-" + browser.name().toLowerCase(Locale.ROOT)))) {
+            tuned.seedTemplate();
+
+            List<DriverFactory.Launched> defaults = plain.launchAll(count);
+            long defaultWorst = defaults.stream().mapToLong(DriverFactory.Launched::getMillisToFirstContext).max().orElse(0);
+            defaults.forEach(DriverFactory.Launched::close);
+
+            List<DriverFactory.Launched> fast = tuned.launchAll(count);
+            long fastWorst = fast.stream().mapToLong(DriverFactory.Launched::getMillisToFirstContext).max().orElse(0);
+            fast.forEach(DriverFactory.Launched::close);
+
+            logger.info("{} x {}: slowest time to first context {} ms default, {} ms tuned", count, browser,
+                    defaultWorst, fastWorst);
+        } catch (Exception e) {
+            logger.error("Start-up comparison failed", e);
+        }
+    }
+}
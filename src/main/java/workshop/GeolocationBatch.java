@@ -0,0 +1,90 @@
+package workshop;
+
+/**
+ * Geolocation and permission emulation across many tabs at once (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.emulation.EmulationPlan: target coordinates per context, permission per origin
+ *  - workshop.emulation.EmulationScheduler: one setGeolocationOverride per distinct location with a
+ *    multi-context list, commands pipelined, unchanged state skipped
+ *  - Origins for all tabs from a single browsingContext.getTree instead of executeScript per tab
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.GeolocationBatch" -Dexec.args="24"
+ *
+ * Notes:
+ *  - Tabs load the local fixture site (http://127.0.0.1 is a secure context, so geolocation works).
+ *  - The second apply of the same plan sends nothing; moving a few tabs sends one command per new city.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.CreateContextParameters;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.emulation.GeolocationCoordinates;
+import org.openqa.selenium.bidi.permissions.PermissionState;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.emulation.EmulationPlan;
+import workshop.emulation.EmulationScheduler;
+import workshop.offline.FixtureServer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+public class GeolocationBatch {
+    private static final Logger logger = LoggerFactory.getLogger(GeolocationBatch.class);
+
+    private static final GeolocationCoordinates[] CITIES = {
+            new GeolocationCoordinates(37.7749, -122.4194), // San Francisco
+            new GeolocationCoordinates(51.5074, -0.1278),   // London
+            new GeolocationCoordinates(35.6762, 139.6503),  // Tokyo
+            new GeolocationCoordinates(-33.8688, 151.2093), // Sydney
+            new GeolocationCoordinates(19.0760, 72.8777),   // Mumbai
+            new GeolocationCoordinates(-23.5505, -46.6333), // São Paulo
+    };
+
+    public static void main(String[] args) {
+        int tabs = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+
+        WebDriver driver = null;
+        try (FixtureServer fixtures = new FixtureServer()) {
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+            driver = new ChromeDriver(options);
+
+            List<String> contexts = new ArrayList<>();
+            for (int i = 0; i < tabs; i++) {
+                BrowsingContext tab = new BrowsingContext(driver,
+                        new CreateContextParameters(WindowType.TAB).background(true));
+                tab.navigate(fixtures.url("site/"), ReadinessState.INTERACTIVE);
+                contexts.add(tab.getId());
+            }
+
+            try (EmulationScheduler scheduler = new EmulationScheduler(driver)) {
+                EmulationPlan plan = new EmulationPlan();
+                for (String origin : new HashSet<>(scheduler.originsOf(contexts).values())) {
+                    plan.permission(origin, PermissionState.GRANTED);
+                }
+                for (int i = 0; i < contexts.size(); i++) {
+                    plan.locate(contexts.get(i), CITIES[i % CITIES.length]);
+                }
+                logger.info("Initial plan:  {}", scheduler.apply(plan).get());
+                logger.info("Same plan:     {}", scheduler.apply(plan).get());
+
+                plan.locate(contexts.subList(0, Math.min(3, contexts.size())), CITIES[0]);
+                logger.info("Three moved:   {}", scheduler.apply(plan).get());
+            }
+        } catch (Exception e) {
+            logger.error("Geolocation batch failed", e);
+        } finally {
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package workshop;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.NavigationResult;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
 import org.openqa.selenium.bidi.emulation.Emulation;
 import org.openqa.selenium.bidi.emulation.GeolocationCoordinates;
 import org.openqa.selenium.bidi.emulation.SetGeolocationOverrideParameters;
@@ -27,11 +29,11 @@ public class GeolocationEmulationPermission {
             BrowsingContext ctx = new BrowsingContext(driver, driver.getWindowHandle());
 
             // Navigate first so we can grab the exact origin we’re on (must be secure)
-            driver.get("https://browserleaks.com/geo");
+            NavigationResult nav = ctx.navigate("https://browserleaks.com/geo", ReadinessState.COMPLETE);
 
-            // Get the page origin to scope the permission
-            String origin = (String) ((JavascriptExecutor) driver)
-                    .executeScript("return window.location.origin;");
+            // The navigation result already carries the URL, so the origin needs no extra executeScript
+            URI url = URI.create(nav.getUrl());
+            String origin = url.getScheme() + "://" + url.getHost() + (url.getPort() < 0 ? "" : ":" + url.getPort());
 
             // Grant geolocation permission via BiDi Permission module
             Permission permission = new Permission(driver);
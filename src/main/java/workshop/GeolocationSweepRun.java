@@ -0,0 +1,80 @@
+package workshop;
+
+/**
+ * Geolocation sweep: thousands of verified overrides per minute (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.emulation.GeolocationSweep: setGeolocationOverride per point, verified in the page by a
+ *    preload script that reports navigator.geolocation back over a script.message channel
+ *  - No reloads and no human reading a page: each point is a command, a call and one event
+ *  - Several background tabs sweeping in parallel, results streamed to CSV with progress logging
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.GeolocationSweepRun" \
+ *       -Dexec.args="points.csv 8 target/geo-sweep.csv"
+ *
+ * Notes:
+ *  - Input CSV rows are latitude,longitude[,accuracy][,label]; without a file (or with "grid:<n>")
+ *    an evenly spaced grid of n points is generated instead (default 2000).
+ *  - Second argument is the number of tabs (default 4); third is the results file.
+ *  - Tabs load the local fixture site (http://127.0.0.1 is a secure context, so geolocation works).
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.CreateContextParameters;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.emulation.GeolocationSweep;
+import workshop.offline.FixtureServer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class GeolocationSweepRun {
+    private static final Logger logger = LoggerFactory.getLogger(GeolocationSweepRun.class);
+
+    public static void main(String[] args) {
+        String source = args.length > 0 ? args[0] : "grid:2000";
+        int tabs = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Path results = Paths.get(args.length > 2 ? args[2] : "target/geo-sweep.csv");
+
+        WebDriver driver = null;
+        try (FixtureServer fixtures = new FixtureServer()) {
+            Iterator<GeolocationSweep.Point> points = source.startsWith("grid:")
+                    ? GeolocationSweep.grid(Integer.parseInt(source.substring(5)))
+                    : GeolocationSweep.readCsv(Paths.get(source));
+            if (results.getParent() != null) Files.createDirectories(results.getParent());
+
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+            driver = new ChromeDriver(options);
+
+            List<String> contexts = new ArrayList<>();
+            contexts.add(driver.getWindowHandle());
+            for (int i = 1; i < tabs; i++) {
+                contexts.add(new BrowsingContext(driver,
+                        new CreateContextParameters(WindowType.TAB).background(true)).getId());
+            }
+
+            try (GeolocationSweep sweep = new GeolocationSweep(driver, contexts)) {
+                sweep.prepare(fixtures.url("site/"));
+                GeolocationSweep.Summary summary = sweep.run(points, results);
+                logger.info("{} -> {}", summary, results.toAbsolutePath());
+            }
+        } catch (Exception e) {
+            logger.error("Geolocation sweep failed", e);
+        } finally {
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package workshop;
+
+/**
+ * Recording BiDi network traffic to a HAR file (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.network.NetworkCapture feeding workshop.network.HarRecorder
+ *  - beforeRequestSent / responseCompleted / fetchError correlated by request id into HAR 1.2 entries
+ *  - Entries streamed to disk as they complete, so memory stays flat on long runs
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.HarRecording" -Dexec.args="target/selenium-dev.har"
+ *
+ * Notes:
+ *  - Backpressure is BLOCK so no entry is dropped; the recorder runs on the capture's consumer thread.
+ *  - Open the resulting file in Chrome DevTools (Network > Import HAR) or any HAR viewer.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.Backpressure;
+import workshop.network.CaptureOptions;
+import workshop.network.HarRecorder;
+import workshop.network.NetworkCapture;
+
+import java.nio.file.Path;
+
+public class HarRecording {
+    private static final Logger logger = LoggerFactory.getLogger(HarRecording.class);
+
+    public static void main(String[] args) {
+        Path harFile = Path.of(args.length > 0 ? args[0] : "target/network.har");
+
+        WebDriver driver = null;
+        NetworkCapture capture = null;
+        try {
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+            driver = new ChromeDriver(options);
+
+            capture = new NetworkCapture(driver, new HarRecorder(harFile),
+                    new CaptureOptions().backpressure(Backpressure.BLOCK));
+
+            driver.get("https://selenium.dev");
+            Thread.sleep(1500);
+        } catch (Exception e) {
+            logger.error("HAR recording failed", e);
+        } finally {
+            if (capture != null) {
+                capture.close();
+            }
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package workshop;
+
+/**
+ * Network capture pipeline with WebDriver BiDi (Java)
+ *
+ * What this demonstrates:
+ *  - The NetworkEvents subscriptions packaged as a reusable component (workshop.network.NetworkCapture)
+ *  - BiDi listeners that only enqueue raw RequestData/ResponseData into a bounded ring buffer
+ *  - A separate consumer thread that decodes headers, formats and logs the events
+ *  - Configurable backpressure (DROP_OLDEST / BLOCK / SAMPLE) and dropped-event counters
+ *
+ * Why this is useful:
+ *  - Heavy pages (hundreds of subresources) no longer slow down how fast the BiDi socket is drained
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.NetworkCapturePipeline"
+ *
+ * Notes:
+ *  - Pass a policy name as the first argument to try another backpressure mode, e.g. -Dexec.args="SAMPLE"
+ *  - For CI/headless environments, you may add: options.addArguments("--headless=new")
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.Backpressure;
+import workshop.network.CaptureOptions;
+import workshop.network.LoggingNetworkSink;
+import workshop.network.NetworkCapture;
+
+public class NetworkCapturePipeline {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkCapturePipeline.class);
+
+    public static void main(String[] args) {
+        Backpressure policy = args.length > 0 ? Backpressure.valueOf(args[0]) : Backpressure.DROP_OLDEST;
+
+        WebDriver driver = null;
+        NetworkCapture capture = null;
+        try {
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+
+            driver = new ChromeDriver(options);
+
+            capture = new NetworkCapture(driver, new LoggingNetworkSink(),
+                    new CaptureOptions()
+                            .capacity(1024)
+                            .backpressure(policy)
+                            .sampleEvery(4));
+            logger.info("Network capture started with backpressure={}", policy);
+
+            driver.get("https://selenium.dev");
+            Thread.sleep(1500);
+
+            logger.info("Captured so far: offered={}, dropped={}, queued={}",
+                    capture.offeredCount(), capture.droppedCount(), capture.queueDepth());
+        } catch (Exception e) {
+            logger.error("Network capture run failed", e);
+        } finally {
+            if (capture != null) {
+                capture.close();
+            }
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ package workshop;
  * Notes:
  *  - This project uses Selenium ${selenium.version} (see pom.xml).
  *  - For CI/headless environments, you may add: options.addArguments("--headless=new")
+ *  - Pages come from workshop.offline.FixtureServer; use fixtures.faults("/") to add latency or errors.
  */
 
 
@@ -37,12 +38,15 @@ import org.openqa.selenium.bidi.network.RequestData;
 import org.openqa.selenium.bidi.network.ResponseData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import workshop.network.HeaderValues;
+import workshop.offline.FixtureServer;
 
 public class NetworkEvents {
     private static final Logger logger = LoggerFactory.getLogger(NetworkEvents.class);
 
     public static void main(String[] args) {
         WebDriver driver = null;
+        FixtureServer fixtures = new FixtureServer();
         try {
             ChromeOptions options = new ChromeOptions();
             options.setCapability("webSocketUrl", true);
@@ -67,7 +71,8 @@ public class NetworkEvents {
             //
             // Place the above before navigation so events are captured when the page loads.
 
-            driver.get("https://selenium.dev");
+            // Local fixture site: document, stylesheet, script, image and a fetch
+            driver.get(fixtures.url("site/"));
             Thread.sleep(1500);
         } catch (Exception e) {
             logger.error("Network events run failed", e);
@@ -75,6 +80,7 @@ public class NetworkEvents {
             if (driver != null) {
                 try { driver.quit(); } catch (Exception ignored) {}
             }
+            fixtures.close();
         }
     }
 
@@ -83,31 +89,6 @@ public class NetworkEvents {
      * working across Selenium versions without requiring Java 16+ features.
      */
     private static String decodeHeaderValue(Object value) {
-        if (value == null) return "";
-        // Try common methods that return a String
-        String[] methods = { "getValue", "asString", "toStringValue" };
-        for (String m : methods) {
-            try {
-                Object v = value.getClass().getMethod(m).invoke(value);
-                if (v != null) return v.toString();
-            } catch (Exception ignored) {}
-        }
-        // Some versions may expose Optional<String>
-        try {
-            Object opt = value.getClass().getMethod("getValue").invoke(value);
-            if (opt instanceof java.util.Optional) {
-                java.util.Optional<?> o = (java.util.Optional<?>) opt;
-                if (o.isPresent()) return String.valueOf(o.get());
-            }
-        } catch (Exception ignored) {}
-
-        // Some versions might store bytes; handle byte[]
-        try {
-            Object bytes = value.getClass().getMethod("getBytes").invoke(value);
-            if (bytes instanceof byte[]) return new String((byte[]) bytes);
-        } catch (Exception ignored) {}
-
-        // Fallback (may still look like BytesValue@xxxx if nothing else worked)
-        return value.toString();
+        return HeaderValues.decode(value);
     }
 }
@@ -0,0 +1,64 @@
+package workshop;
+
+/**
+ * Latency percentiles from BiDi network events (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.network.NetworkMetrics joining beforeRequestSent with responseCompleted / fetchError
+ *  - p50/p95/p99 per host, MIME type and status class from lock-free latency histograms
+ *  - Periodic JSON-lines export, so runs can be compared for page-load regressions
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.NetworkLatencyReport" -Dexec.args="target/latency.jsonl"
+ *
+ * Notes:
+ *  - Latency is the difference between the two event timestamps, i.e. as seen by the browser, not the test.
+ *  - NetworkEventSink.all(...) lets the same capture also feed a HarRecorder.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.NetworkCapture;
+import workshop.network.NetworkMetrics;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class NetworkLatencyReport {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkLatencyReport.class);
+
+    public static void main(String[] args) {
+        Path exportFile = Path.of(args.length > 0 ? args[0] : "target/network-latency.jsonl");
+
+        WebDriver driver = null;
+        NetworkCapture capture = null;
+        NetworkMetrics metrics = new NetworkMetrics();
+        try {
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+            driver = new ChromeDriver(options);
+
+            metrics.startExport(exportFile, Duration.ofSeconds(1));
+            capture = new NetworkCapture(driver, metrics);
+
+            driver.get("https://selenium.dev");
+            driver.get("https://www.selenium.dev/documentation/");
+            Thread.sleep(1500);
+        } catch (Exception e) {
+            logger.error("Latency report failed", e);
+        } finally {
+            if (capture != null) {
+                capture.close(); // flushes, then closes the metrics sink (logs the summary)
+            }
+            metrics.export(exportFile);
+            metrics.snapshot(NetworkMetrics.Dimension.HOST)
+                    .forEach((host, s) -> logger.info("  host {}: {}", host, s));
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
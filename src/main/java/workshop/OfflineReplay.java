@@ -0,0 +1,88 @@
+package workshop;
+
+/**
+ * Offline, deterministic BiDi runs against a local stand-in endpoint (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.offline.FakeBiDiServer: an in-process WebSocket endpoint speaking enough BiDi for
+ *    BrowsingContext, LogInspector and Network (no browser, no network access)
+ *  - workshop.offline.FakeBiDiDriver: a WebDriver + HasBiDi connected to it
+ *  - Replaying the recorded log.entryAdded stream at a fixed rate to load-test listener code
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.OfflineReplay" -Dexec.args="10000 100000"
+ *   (arguments: events per second, 0 = unthrottled; number of events)
+ *
+ * Notes:
+ *  - Navigations emit navigationStarted, a document beforeRequestSent/responseCompleted pair,
+ *    any frames registered with onNavigate(url, frames), then domContentLoaded and load.
+ *  - The endpoint itself sustains well above 10k events/s; if "received" lags "sent", the limit is
+ *    the client side (Selenium's Connection dispatch plus your listeners), which is what this measures.
+ */
+
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.NavigationResult;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.module.LogInspector;
+import org.openqa.selenium.bidi.module.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.offline.FakeBiDiDriver;
+import workshop.offline.FakeBiDiServer;
+import workshop.offline.RecordedEvents;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class OfflineReplay {
+    private static final Logger logger = LoggerFactory.getLogger(OfflineReplay.class);
+
+    public static void main(String[] args) {
+        double rate = args.length > 0 ? Double.parseDouble(args[0]) : 10_000;
+        long count = args.length > 1 ? Long.parseLong(args[1]) : 50_000;
+
+        List<Map<String, Object>> consoleStream = RecordedEvents.load(RecordedEvents.LOG_ENTRY_ADDED);
+        LongAdder consoleEntries = new LongAdder();
+        LongAdder responses = new LongAdder();
+
+        FakeBiDiDriver driver = null;
+        try (FakeBiDiServer server = new FakeBiDiServer()) {
+            server.onNavigate("https://example.test/form", consoleStream);
+            driver = new FakeBiDiDriver(server);
+
+            LogInspector logs = new LogInspector(driver);
+            logs.onConsoleEntry(entry -> consoleEntries.increment());
+            Network network = new Network(driver);
+            network.onResponseCompleted(response -> responses.increment());
+
+            BrowsingContext context = new BrowsingContext(driver, driver.getWindowHandle());
+            NavigationResult nav = context.navigate("https://example.test/form", ReadinessState.COMPLETE);
+            logger.info("Navigated to {} (navigation {})", nav.getUrl(), nav.getNavigationId());
+
+            long expected = consoleStream.size() + count;
+            long start = System.nanoTime();
+            FakeBiDiServer.ReplayResult sent = server.replay(consoleStream, context.getId(), count, rate)
+                    .get((long) (count / Math.max(rate, 1)) + 60, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (consoleEntries.sum() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            logger.info("Sent:     {}", sent);
+            logger.info("Received: {} console entries in {} s ({} events/s), {} responses",
+                    consoleEntries.sum() - consoleStream.size(), String.format("%.2f", seconds),
+                    String.format("%.0f", (consoleEntries.sum() - consoleStream.size()) / seconds), responses.sum());
+            logs.close();
+            network.close();
+        } catch (Exception e) {
+            logger.error("Offline replay failed", e);
+        } finally {
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package workshop;
+
+/**
+ * Concurrent workshop scenarios over one BiDi session (Java)
+ *
+ * What this demonstrates:
+ *  - The workshop flows as scenarios (workshop.session.WorkshopScenarios)
+ *  - One shared ChromeDriver with BiDi enabled; one background tab per scenario
+ *  - Running many scenarios at once (virtual threads on JDK 21+, pooled threads on JDK 17)
+ *  - Event-driven waits (navigation COMPLETE, console entry, responseCompleted) instead of Thread.sleep
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.ScenarioBatch" -Dexec.args="5"
+ *   (arg: copies of each scenario)
+ *
+ * What to observe in logs:
+ *  - "Ran N scenarios in X ms wall-clock (slowest Y ms, sum Z ms, ...)": X tracks Y, not Z.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.session.ScenarioResult;
+import workshop.session.ScenarioRunner;
+import workshop.session.WorkshopScenarios;
+
+import java.time.Duration;
+import java.util.List;
+
+public class ScenarioBatch {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioBatch.class);
+
+    public static void main(String[] args) {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+
+        WebDriver driver = null;
+        try {
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+            driver = new ChromeDriver(options);
+
+            try (ScenarioRunner runner = new ScenarioRunner(driver)) {
+                List<ScenarioResult> results = runner.runAll(WorkshopScenarios.all(), copies, Duration.ofMinutes(2));
+                results.forEach(r -> logger.info("{}", r));
+            }
+        } catch (Exception e) {
+            logger.error("Scenario batch failed", e);
+        } finally {
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package workshop;
+
+/**
+ * Session pool throughput with WebDriver BiDi (Java)
+ *
+ * What this demonstrates:
+ *  - Why starting a fresh BiDi-enabled ChromeDriver per scenario is the expensive part of a run
+ *  - Running the same workshop scenarios (workshop.session.WorkshopScenarios) two ways:
+ *      • sequential — new ChromeDriver per task, quit in finally (what every example does today)
+ *      • pooled     — N warm drivers from workshop.session.SessionPool, one new context per task
+ *  - Logging wall-clock time and tasks/minute for both runs
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.SessionPoolThroughput" -Dexec.args="16 4"
+ *   (args: number of tasks, pool size)
+ *
+ * Notes:
+ *  - The pooled numbers include pool start-up, so the comparison is fair for a single batch.
+ *  - For CI/headless environments, you may add: options.addArguments("--headless=new") in SessionPool.bidiOptions()
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.session.Isolation;
+import workshop.session.Scenario;
+import workshop.session.SessionLease;
+import workshop.session.SessionPool;
+import workshop.session.WorkshopScenarios;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SessionPoolThroughput {
+    private static final Logger logger = LoggerFactory.getLogger(SessionPoolThroughput.class);
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        List<Map.Entry<String, Scenario>> scenarios = new ArrayList<>(WorkshopScenarios.all().entrySet());
+
+        long sequentialMs = runSequential(scenarios, tasks);
+        long pooledMs = runPooled(scenarios, tasks, poolSize);
+
+        logger.info("Sequential: {} tasks in {} ms ({} tasks/min)", tasks, sequentialMs, perMinute(tasks, sequentialMs));
+        logger.info("Pooled({}): {} tasks in {} ms ({} tasks/min)", poolSize, tasks, pooledMs, perMinute(tasks, pooledMs));
+        logger.info("Speed-up: {}x", String.format("%.2f", (double) sequentialMs / Math.max(1, pooledMs)));
+    }
+
+    private static long runSequential(List<Map.Entry<String, Scenario>> scenarios, int tasks) {
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            Map.Entry<String, Scenario> scenario = scenarios.get(i % scenarios.size());
+            WebDriver driver = null;
+            try {
+                driver = new ChromeDriver(SessionPool.bidiOptions());
+                BrowsingContext context = new BrowsingContext(driver, driver.getWindowHandle());
+                scenario.getValue().run(driver, context);
+            } catch (Exception e) {
+                logger.error("Sequential task {} ({}) failed", i, scenario.getKey(), e);
+            } finally {
+                if (driver != null) {
+                    try { driver.quit(); } catch (Exception ignored) {}
+                }
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static long runPooled(List<Map.Entry<String, Scenario>> scenarios, int tasks, int poolSize)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(poolSize);
+        try (SessionPool pool = new SessionPool(poolSize)) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int task = i;
+                Map.Entry<String, Scenario> scenario = scenarios.get(i % scenarios.size());
+                running.add(workers.submit(() -> {
+                    try (SessionLease lease = pool.lease(Isolation.USER_CONTEXT)) {
+                        scenario.getValue().run(lease.driver(), lease.context());
+                    } catch (Exception e) {
+                        logger.error("Pooled task {} ({}) failed", task, scenario.getKey(), e);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : running) {
+                try {
+                    f.get();
+                } catch (Exception e) {
+                    logger.error("Pooled task did not complete", e);
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static long perMinute(int tasks, long millis) {
+        return Math.round(tasks * 60_000.0 / Math.max(1, millis));
+    }
+}
@@ -0,0 +1,185 @@
+package workshop;
+
+/**
+ * Scoped BiDi subscriptions: what a global subscription costs in a multi-tab run (Java)
+ *
+ * What this demonstrates:
+ *  - workshop.session.ScopedSubscription: one session.subscribe for given events and contexts, torn down
+ *    by subscription id on close
+ *  - The same console traffic measured twice: subscribed globally, then scoped to the one tab under test
+ *  - Events and payload bytes the client had to receive and parse in each case
+ *
+ * How to run (example):
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.SubscriptionScoping" -Dexec.args="8 500"
+ *   mvn -q clean compile exec:java -Dexec.mainClass="workshop.SubscriptionScoping" -Dexec.args="offline 8 500"
+ *
+ * Notes:
+ *  - Arguments: optional "offline", number of tabs (default 6) and console lines each tab logs per phase
+ *    (default 300).
+ *  - Payload bytes are the event params re-serialised as JSON, close to what crossed the WebSocket.
+ *  - "offline" runs against workshop.offline.FakeBiDiServer instead of Chrome: the page script is
+ *    answered with the same console entries a tab would log, and only subscribed connections receive
+ *    them. No browser or network is needed, the counts are exact and repeatable, and the wire bytes
+ *    (FakeBiDiServer.eventBytes()) are logged too.
+ */
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.Event;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.CreateContextParameters;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.log.Log;
+import org.openqa.selenium.bidi.module.Script;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.offline.FakeBiDiDriver;
+import workshop.offline.FakeBiDiServer;
+import workshop.offline.FixtureServer;
+import workshop.session.ScopedSubscription;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class SubscriptionScoping {
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionScoping.class);
+    private static final Json JSON = new Json();
+    private static final String DONE = "SCOPING_DONE";
+
+    public static void main(String[] args) {
+        boolean offline = args.length > 0 && args[0].equals("offline");
+        int first = offline ? 1 : 0;
+        int tabs = args.length > first ? Integer.parseInt(args[first]) : 6;
+        int lines = args.length > first + 1 ? Integer.parseInt(args[first + 1]) : 300;
+
+        WebDriver driver = null;
+        FakeBiDiServer server = null;
+        try (FixtureServer fixtures = new FixtureServer()) {
+            if (offline) {
+                server = new FakeBiDiServer();
+                server.handle("script.evaluate", logLikeAPage(server, lines));
+                driver = new FakeBiDiDriver(server);
+            } else {
+                ChromeOptions options = new ChromeOptions();
+                options.setCapability("webSocketUrl", true);
+                driver = new ChromeDriver(options);
+            }
+
+            List<String> contexts = new ArrayList<>();
+            contexts.add(driver.getWindowHandle());
+            for (int i = 1; i < tabs; i++) {
+                contexts.add(new BrowsingContext(driver,
+                        new CreateContextParameters(WindowType.TAB).background(true)).getId());
+            }
+            for (String context : contexts) {
+                new BrowsingContext(driver, context).navigate(fixtures.url("site/"), ReadinessState.INTERACTIVE);
+            }
+            String underTest = contexts.get(0);
+
+            try (Script script = new Script(driver)) {
+                long wireBefore = server != null ? server.eventBytes() : 0;
+                long[] global = measure(driver, script, contexts, underTest, List.of(), lines);
+                long wireGlobal = server != null ? server.eventBytes() - wireBefore : 0;
+                long[] scoped = measure(driver, script, contexts, underTest, List.of(underTest), lines);
+                long wireScoped = server != null ? server.eventBytes() - wireBefore - wireGlobal : 0;
+                logger.info("Global subscription:      {} events, {} KB", global[0], global[1] / 1024);
+                logger.info("Scoped to 1 of {} tabs:    {} events, {} KB ({}x fewer bytes)",
+                        tabs, scoped[0], scoped[1] / 1024, String.format("%.1f", global[1] / (double) Math.max(1, scoped[1])));
+                if (server != null) {
+                    logger.info("On the wire (fake endpoint): {} bytes global, {} bytes scoped", wireGlobal, wireScoped);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Subscription scoping run failed", e);
+        } finally {
+            if (driver != null) {
+                try { driver.quit(); } catch (Exception ignored) {}
+            }
+            if (server != null) server.close();
+        }
+    }
+
+    /**
+     * script.evaluate for the fake endpoint: emit the log.entryAdded events the evaluated loop would
+     * produce in that context ({@code lines} noise entries, then the marker if the script logs it).
+     */
+    private static Function<Map<String, Object>, Object> logLikeAPage(FakeBiDiServer server, int lines) {
+        return params -> {
+            @SuppressWarnings("unchecked")
+            String context = String.valueOf(((Map<String, Object>) params.get("target")).get("context"));
+            String expression = String.valueOf(params.get("expression"));
+            String realm = "fake-realm-" + context;
+            for (int i = 0; i < lines; i++) server.emit(Log.entryAdded().getMethod(), consoleEntry(realm, context, "noise " + i));
+            if (expression.contains(DONE)) server.emit(Log.entryAdded().getMethod(), consoleEntry(realm, context, DONE));
+            return Map.of("type", "success", "realm", realm, "result", Map.of("type", "undefined"));
+        };
+    }
+
+    /** log.entryAdded params shaped like Chrome's for a console.log of one string. */
+    private static Map<String, Object> consoleEntry(String realm, String context, String text) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("type", "console");
+        params.put("method", "log");
+        params.put("realm", realm);
+        params.put("level", "info");
+        params.put("source", Map.of("realm", realm, "context", context));
+        params.put("text", text);
+        params.put("timestamp", System.currentTimeMillis());
+        params.put("args", List.of(Map.of("type", "string", "value", text)));
+        params.put("stackTrace", Map.of("callFrames", List.of(Map.of("columnNumber", 37, "functionName", "",
+                "lineNumber", 0, "url", ""))));
+        return params;
+    }
+
+    /**
+     * Subscribe to log.entryAdded for {@code scope} (empty = global), make every tab log {@code lines}
+     * entries with the tab under test last, and count what arrives until its marker does.
+     * Returns {events, payload bytes}.
+     */
+    private static long[] measure(WebDriver driver, Script script, List<String> contexts, String underTest,
+                                  Collection<String> scope, int lines) throws Exception {
+        LongAdder events = new LongAdder();
+        LongAdder bytes = new LongAdder();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        try (ScopedSubscription subscription = ScopedSubscription.open(driver, scope, Log.entryAdded().getMethod())) {
+            subscription.on(new Event<Map<String, Object>>(Log.entryAdded().getMethod(), params -> params), params -> {
+                events.increment();
+                bytes.add(JSON.toJson(params).getBytes(StandardCharsets.UTF_8).length);
+                if (DONE.equals(params.get("text")) && underTest.equals(ScopedSubscription.contextOf(params))) {
+                    done.complete(null);
+                }
+            });
+
+            List<String> order = new ArrayList<>(contexts);
+            order.remove(underTest);
+            order.add(underTest);
+            for (String context : order) {
+                String marker = context.equals(underTest) ? "console.log('" + DONE + "');" : "";
+                script.evaluateFunctionInBrowsingContext(context,
+                        "for (let i = 0; i < " + lines + "; i++) console.log('noise ' + i);" + marker,
+                        false, Optional.empty());
+            }
+            done.get(30, TimeUnit.SECONDS);
+            // Selenium dispatches events on a pool, so entries sent before the marker may still be arriving.
+            long seen;
+            do {
+                seen = events.sum();
+                Thread.sleep(100);
+            } while (events.sum() != seen);
+        }
+        return new long[] {events.sum(), bytes.sum()};
+    }
+}
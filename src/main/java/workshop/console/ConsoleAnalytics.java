@@ -0,0 +1,438 @@
+package workshop.console;
+
+import org.openqa.selenium.bidi.log.ConsoleLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Rolling statistics over the console stream, for soak runs where individual entries are too many to
+ * look at: counts per level and per browsing context, counts per level and the error rate over a sliding
+ * window, and the most frequent recent message templates.
+ *
+ * Use it as a LogInspector listener: {@code logs.onConsoleEntry(analytics)}. Counting is done with
+ * {@link LongAdder}s, so BiDi callback threads don't contend on one counter. The window is a ring of
+ * one-second buckets, each counting entries per level. Templates are the message text with every token that contains a digit (numbers,
+ * ids, UUIDs, hashes) replaced by {@code #}, so {@code "order 1234 failed"} and {@code "order 98 failed"}
+ * count as one; they are tracked with the Space-Saving algorithm in at most {@code maxTemplates} slots.
+ * The slots are split over up to {@value #STRIPES} stripes by template hash, each with its own lock and
+ * its slots in a min-heap indexed from a map, so an entry costs one map lookup plus O(log slots) and
+ * callbacks for different templates rarely wait on each other. Each stripe is a Space-Saving summary of
+ * the templates that hash to it: a count may overestimate by the count of the slot it replaced in that
+ * stripe, and a template seen more often than its stripe's entries divided by its slots always has a
+ * slot. Template counts decay: every window length they are halved, so the top templates are the ones
+ * frequent lately rather than since the start, and a template that stops appearing drops out. Per-level
+ * and per-context totals since the start are kept too; per-context counters are capped
+ * at {@code maxContexts}; later contexts are counted under {@code (other)}. Memory therefore stays bounded
+ * however long the run.
+ *
+ * {@link #startReporting} logs a {@link Summary} every period and hands it to an optional listener; when
+ * the windowed error rate goes over {@link #alertAbove} errors per second the summary is logged as a
+ * warning instead.
+ */
+public class ConsoleAnalytics implements Consumer<ConsoleLogEntry>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConsoleAnalytics.class);
+
+    public static final String OTHER = "(other)";
+    static final int MAX_TEMPLATE_LENGTH = 160;
+    static final int STRIPES = 16;
+    /** BiDi console levels counted per second; anything else is counted as {@code other}. */
+    static final List<String> LEVELS = List.of("debug", "info", "warn", "error");
+    private static final int ERROR = LEVELS.indexOf("error");
+
+    private final int windowSeconds;
+    private final int maxContexts;
+    private final Bucket[] buckets;
+    private final TemplateStripe[] templates;
+
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> byLevel = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byContext = new ConcurrentHashMap<>();
+
+    private volatile double alertAbove = Double.POSITIVE_INFINITY;
+    private ScheduledExecutorService reporter;
+
+    public ConsoleAnalytics() {
+        this(Duration.ofSeconds(60), 1_000, 200);
+    }
+
+    /**
+     * @param window       length of the sliding window, in whole seconds
+     * @param maxContexts  browsing contexts counted individually
+     * @param maxTemplates message templates tracked at once
+     */
+    public ConsoleAnalytics(Duration window, int maxContexts, int maxTemplates) {
+        this.windowSeconds = (int) Math.max(1, window.toSeconds());
+        this.maxContexts = maxContexts;
+        this.buckets = new Bucket[windowSeconds];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new Bucket();
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(STRIPES, maxTemplates)));
+        this.templates = new TemplateStripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            templates[i] = new TemplateStripe(maxTemplates / stripes + (i < maxTemplates % stripes ? 1 : 0));
+        }
+    }
+
+    /** Log summaries as warnings when the windowed error rate exceeds {@code errorsPerSecond}. */
+    public ConsoleAnalytics alertAbove(double errorsPerSecond) {
+        this.alertAbove = errorsPerSecond;
+        return this;
+    }
+
+    @Override
+    public void accept(ConsoleLogEntry entry) {
+        String context = entry.getSource() != null ? entry.getSource().getBrowsingContext().orElse(null) : null;
+        record(String.valueOf(entry.getLevel()), context, entry.getText(), System.currentTimeMillis());
+    }
+
+    /** Count one entry received at {@code millis}; {@code level} is the BiDi level ("debug", "info", "warn", "error"). */
+    public void record(String level, String context, String text, long millis) {
+        int levelIndex = LEVELS.indexOf(level);
+        if (levelIndex < 0) levelIndex = LEVELS.size();
+        boolean error = levelIndex == ERROR;
+        total.increment();
+        byLevel.computeIfAbsent(level, k -> new LongAdder()).increment();
+        counter(context == null ? "(none)" : context).increment();
+        long second = millis / 1000;
+        bucket(second).add(levelIndex);
+
+        String template = template(text);
+        int h = template.hashCode();
+        templates[(h ^ (h >>> 16)) & (templates.length - 1)].add(template, error, second / windowSeconds);
+    }
+
+    private LongAdder counter(String context) {
+        LongAdder counter = byContext.get(context);
+        if (counter != null) return counter;
+        if (byContext.size() >= maxContexts) return byContext.computeIfAbsent(OTHER, k -> new LongAdder());
+        return byContext.computeIfAbsent(context, k -> new LongAdder());
+    }
+
+    private Bucket bucket(long second) {
+        Bucket bucket = buckets[(int) Math.floorMod(second, (long) buckets.length)];
+        if (bucket.second != second) {
+            synchronized (bucket) {
+                if (bucket.second < second) {
+                    bucket.total.reset();
+                    for (LongAdder level : bucket.levels) level.reset();
+                    bucket.second = second;
+                }
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * The message with each token that contains a digit replaced by {@code #}, cut to
+     * {@value #MAX_TEMPLATE_LENGTH} characters. Tokens are runs of letters, digits, '_', '-' and '.'.
+     */
+    public static String template(String text) {
+        if (text == null || text.isEmpty()) return "";
+        StringBuilder out = new StringBuilder(Math.min(text.length(), MAX_TEMPLATE_LENGTH));
+        int i = 0;
+        int n = text.length();
+        while (i < n && out.length() < MAX_TEMPLATE_LENGTH) {
+            char c = text.charAt(i);
+            if (!isTokenChar(c)) {
+                out.append(c);
+                i++;
+                continue;
+            }
+            int start = i;
+            boolean digit = false;
+            while (i < n && isTokenChar(text.charAt(i))) {
+                digit |= Character.isDigit(text.charAt(i));
+                i++;
+            }
+            if (digit) {
+                out.append('#');
+            } else {
+                out.append(text, start, Math.min(i, start + MAX_TEMPLATE_LENGTH - out.length()));
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+
+    /** Current totals, the sliding window as of now and the {@code topN} most frequent templates. */
+    public Summary summary(int topN) {
+        long nowSecond = System.currentTimeMillis() / 1000;
+        long windowTotal = 0;
+        long[] windowByLevel = new long[LEVELS.size() + 1];
+        for (Bucket b : buckets) {
+            long second = b.second;
+            // The current, still filling second and the windowSeconds - 1 before it.
+            if (second > nowSecond - windowSeconds && second <= nowSecond) {
+                windowTotal += b.total.sum();
+                for (int i = 0; i < windowByLevel.length; i++) windowByLevel[i] += b.levels[i].sum();
+            }
+        }
+        Map<String, Long> windowLevels = new TreeMap<>();
+        for (int i = 0; i < windowByLevel.length; i++) {
+            if (windowByLevel[i] > 0) windowLevels.put(i < LEVELS.size() ? LEVELS.get(i) : "other", windowByLevel[i]);
+        }
+        Map<String, Long> levels = new TreeMap<>();
+        byLevel.forEach((k, v) -> levels.put(k, v.sum()));
+        Map<String, Long> contexts = new TreeMap<>();
+        byContext.forEach((k, v) -> contexts.put(k, v.sum()));
+
+        List<TemplateCount> top = new ArrayList<>();
+        for (TemplateStripe stripe : templates) stripe.copyTo(top, nowSecond / windowSeconds);
+        top.sort(Comparator.comparingLong(TemplateCount::getCount).reversed());
+        return new Summary(total.sum(), levels, contexts, windowSeconds, windowTotal, windowByLevel[ERROR], windowLevels,
+                List.copyOf(top.subList(0, Math.min(topN, top.size()))));
+    }
+
+    /**
+     * Every {@code period}, log a summary with the {@code topN} templates and pass it to {@code listener}
+     * (may be null), until {@link #close()}.
+     */
+    public synchronized void startReporting(Duration period, int topN, Consumer<Summary> listener) {
+        if (reporter != null) throw new IllegalStateException("Reporting already started");
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "console-analytics");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            try {
+                Summary summary = summary(topN);
+                report(summary);
+                if (listener != null) listener.accept(summary);
+            } catch (RuntimeException e) {
+                logger.warn("Console summary failed", e);
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void report(Summary summary) {
+        if (summary.getWindowErrorsPerSecond() > alertAbove) {
+            logger.warn("Console error spike: {}", summary);
+        } else {
+            logger.info("{}", summary);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+        logger.info("{}", summary(5));
+    }
+
+    private static final class Bucket {
+        volatile long second = Long.MIN_VALUE;
+        final LongAdder total = new LongAdder();
+        /** Per {@link #LEVELS} index, then other levels. */
+        final LongAdder[] levels = new LongAdder[LEVELS.size() + 1];
+
+        Bucket() {
+            for (int i = 0; i < levels.length; i++) levels[i] = new LongAdder();
+        }
+
+        void add(int level) {
+            total.increment();
+            levels[level].increment();
+        }
+    }
+
+    /** One Space-Saving slot: a template and its counts, at {@code index} in its stripe's heap. */
+    private static final class Slot {
+        String template;
+        long count;
+        long errors;
+        int index;
+    }
+
+    /**
+     * The slots of one stripe: a map from template to slot and the slots as a binary min-heap on count,
+     * so the least frequent slot, the one a new template takes over, is always {@code heap[0]}. Counts are
+     * halved once per window ({@code epoch}); halving keeps the heap order.
+     */
+    private static final class TemplateStripe {
+        private final Map<String, Slot> slots;
+        private final Slot[] heap;
+        private int size;
+        private long epoch = Long.MIN_VALUE;
+
+        TemplateStripe(int capacity) {
+            this.slots = new HashMap<>(capacity * 4 / 3 + 1);
+            this.heap = new Slot[capacity];
+        }
+
+        synchronized void add(String template, boolean error, long epoch) {
+            decay(epoch);
+            Slot slot = slots.get(template);
+            if (slot == null) {
+                if (heap.length == 0) return;
+                if (size < heap.length) {
+                    slot = new Slot();
+                    slot.template = template;
+                    slot.count = 1;
+                    slot.errors = error ? 1 : 0;
+                    slot.index = size;
+                    heap[size++] = slot;
+                    slots.put(template, slot);
+                    siftUp(slot.index);
+                    return;
+                }
+                // Space-Saving: the new template takes the least frequent slot and inherits its count.
+                slot = heap[0];
+                slots.remove(slot.template);
+                slot.template = template;
+                slot.errors = 0;
+                slots.put(template, slot);
+            }
+            slot.count++;
+            if (error) slot.errors++;
+            siftDown(slot.index);
+        }
+
+        synchronized void copyTo(List<TemplateCount> out, long epoch) {
+            decay(epoch);
+            for (int i = 0; i < size; i++) {
+                if (heap[i].count > 0) out.add(new TemplateCount(heap[i].template, heap[i].count, heap[i].errors));
+            }
+        }
+
+        private void decay(long now) {
+            if (now <= epoch) return;
+            long shift = epoch == Long.MIN_VALUE ? 0 : Math.min(63, now - epoch);
+            epoch = now;
+            if (shift == 0) return;
+            for (int i = 0; i < size; i++) {
+                heap[i].count >>>= shift;
+                heap[i].errors >>>= shift;
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent].count <= heap[i].count) return;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) return;
+                if (child + 1 < size && heap[child + 1].count < heap[child].count) child++;
+                if (heap[i].count <= heap[child].count) return;
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            Slot s = heap[a];
+            heap[a] = heap[b];
+            heap[b] = s;
+            heap[a].index = a;
+            heap[b].index = b;
+        }
+    }
+
+    /** A message template with its decayed (possibly overestimated) count and how many of those were errors. */
+    public static final class TemplateCount {
+        private final String template;
+        private final long count;
+        private final long errors;
+
+        TemplateCount(String template, long count, long errors) {
+            this.template = template;
+            this.count = count;
+            this.errors = errors;
+        }
+
+        public String getTemplate() { return template; }
+
+        public long getCount() { return count; }
+
+        public long getErrors() { return errors; }
+
+        @Override
+        public String toString() {
+            return count + "x \"" + template + "\"";
+        }
+    }
+
+    /** Point-in-time view of the analytics. */
+    public static final class Summary {
+        private final long total;
+        private final Map<String, Long> levels;
+        private final Map<String, Long> contexts;
+        private final int windowSeconds;
+        private final long windowTotal;
+        private final long windowErrors;
+        private final Map<String, Long> windowLevels;
+        private final List<TemplateCount> topTemplates;
+
+        Summary(long total, Map<String, Long> levels, Map<String, Long> contexts, int windowSeconds,
+                long windowTotal, long windowErrors, Map<String, Long> windowLevels, List<TemplateCount> topTemplates) {
+            this.total = total;
+            this.levels = levels;
+            this.contexts = contexts;
+            this.windowSeconds = windowSeconds;
+            this.windowTotal = windowTotal;
+            this.windowErrors = windowErrors;
+            this.windowLevels = windowLevels;
+            this.topTemplates = topTemplates;
+        }
+
+        public long getTotal() { return total; }
+
+        /** Entries per level since the start, sorted by level. */
+        public Map<String, Long> getLevels() { return levels; }
+
+        /** Entries per browsing context since the start, sorted by context id. */
+        public Map<String, Long> getContexts() { return contexts; }
+
+        public long getWindowTotal() { return windowTotal; }
+
+        public long getWindowErrors() { return windowErrors; }
+
+        /** Entries per level over the sliding window, sorted by level; levels with none are left out. */
+        public Map<String, Long> getWindowLevels() { return windowLevels; }
+
+        /** Errors per second over the sliding window. */
+        public double getWindowErrorsPerSecond() { return (double) windowErrors / windowSeconds; }
+
+        /** Share of the entries in the window that were errors, 0 when the window is empty. */
+        public double getWindowErrorRatio() { return windowTotal == 0 ? 0 : (double) windowErrors / windowTotal; }
+
+        /** The most frequent templates, by counts halved every window length. */
+        public List<TemplateCount> getTopTemplates() { return topTemplates; }
+
+        @Override
+        public String toString() {
+            Map<String, Object> top = new LinkedHashMap<>();
+            for (TemplateCount t : topTemplates) top.put(t.getTemplate(), t.getCount());
+            return String.format("console: %d entries %s across %d contexts; last %d s: %d entries %s, %d errors "
+                            + "(%.2f/s, %.1f%%); top templates %s",
+                    total, levels, contexts.size(), windowSeconds, windowTotal, windowLevels, windowErrors,
+                    getWindowErrorsPerSecond(), getWindowErrorRatio() * 100, top);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package workshop.console;
+
+import org.openqa.selenium.bidi.log.ConsoleLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Append-only binary archive of console entries, for runs where every {@link ConsoleLogEntry}
+ * has to be kept and JSON or text logs grow too large.
+ *
+ * The archive is a directory of fixed-size, memory-mapped segments ({@code console-00000.seg}, ...).
+ * Each segment is self-contained:
+ * <pre>
+ *   segment := MAGIC version record* 0x00
+ *   record  := STRING id:varint len:varint utf8[len]            -- interns a level/method/realm/context
+ *            | ENTRY  level:varint method:varint realm:varint context:varint
+ *                     timestampDelta:zigzag-varint len:varint utf8[len]
+ * </pre>
+ * Level, method, realm and context are interned per segment, so a typical entry costs a few bytes plus
+ * its text. Timestamps are stored as the delta to the previous entry in the same segment. A mapped file
+ * is zero-filled, so a segment that was never closed still ends cleanly at the first 0x00 tag; closed
+ * segments are truncated to their used length where the platform allows it (Windows may not while the
+ * unmapped buffer awaits GC, and then the segment simply stays full size).
+ *
+ * Use it directly as a LogInspector listener: {@code logs.onConsoleEntry(archive)}. Appends are
+ * synchronized because BiDi callbacks arrive on a pool of connection threads. Read it back with
+ * {@link ConsoleArchiveReader}.
+ */
+public class ConsoleArchive implements Consumer<ConsoleLogEntry>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConsoleArchive.class);
+
+    static final byte[] MAGIC = {'B', 'C', 'L', 'A'};
+    static final byte VERSION = 1;
+    static final byte END = 0;
+    static final byte STRING = 1;
+    static final byte ENTRY = 2;
+    static final String SEGMENT_GLOB = "console-*.seg";
+
+    public static final int DEFAULT_SEGMENT_SIZE = 8 << 20;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxTextBytes;
+    private final Map<String, Integer> interned = new HashMap<>();
+
+    private int segmentIndex = -1;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long lastTimestamp;
+    private long entryCount;
+    private long bytesWritten;
+    private boolean closed;
+
+    public ConsoleArchive(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public ConsoleArchive(Path directory, int segmentSize) {
+        if (segmentSize < 4096) throw new IllegalArgumentException("segmentSize must be at least 4096");
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        // Leave room for the interned strings and varints of the entry that carries the text.
+        this.maxTextBytes = segmentSize / 2;
+        try {
+            Files.createDirectories(directory);
+            try (var existing = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+                for (Path p : existing) {
+                    segmentIndex = Math.max(segmentIndex, segmentNumber(p));
+                }
+            }
+            roll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open console archive in " + directory, e);
+        }
+    }
+
+    @Override
+    public void accept(ConsoleLogEntry entry) {
+        append(String.valueOf(entry.getLevel()),
+                entry.getMethod(),
+                entry.getSource() != null ? entry.getSource().getRealm() : null,
+                entry.getSource() != null ? entry.getSource().getBrowsingContext().orElse(null) : null,
+                entry.getTimestamp(),
+                entry.getText());
+    }
+
+    public synchronized void append(String level, String method, String realm, String context,
+                                    long timestamp, String text) {
+        if (closed) return;
+        byte[] utf8 = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        int textLength = Math.min(utf8.length, maxTextBytes);
+        if (textLength < utf8.length) {
+            // Cut at a character boundary: back off over continuation bytes (10xxxxxx) to the lead byte.
+            while (textLength > 0 && (utf8[textLength] & 0xC0) == 0x80) textLength--;
+        }
+        try {
+            // Worst case: four new strings and the entry itself; roll before writing anything so a
+            // segment never holds an entry whose strings were interned in the previous one.
+            int worstCase = 1 + 4 * (1 + 5 + 5) + 4 * 5 + 10 + 5 + textLength
+                    + utf8Length(level) + utf8Length(method) + utf8Length(realm) + utf8Length(context);
+            if (buffer.remaining() < worstCase + 1) {
+                roll();
+            }
+            int start = buffer.position();
+            int levelId = intern(level);
+            int methodId = intern(method);
+            int realmId = intern(realm);
+            int contextId = intern(context);
+            buffer.put(ENTRY);
+            putVarint(levelId);
+            putVarint(methodId);
+            putVarint(realmId);
+            putVarint(contextId);
+            putVarlong(zigzag(timestamp - lastTimestamp));
+            putVarint(textLength);
+            buffer.put(utf8, 0, textLength);
+            lastTimestamp = timestamp;
+            entryCount++;
+            bytesWritten += buffer.position() - start;
+        } catch (IOException e) {
+            logger.warn("Console archive write failed, closing {}", directory, e);
+            closeQuietly();
+        }
+    }
+
+    /** Id 0 is reserved for null; strings get ids from 1 in order of first use within the segment. */
+    private int intern(String value) {
+        if (value == null) return 0;
+        Integer id = interned.get(value);
+        if (id != null) return id;
+        int next = interned.size() + 1;
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        buffer.put(STRING);
+        putVarint(next);
+        putVarint(utf8.length);
+        buffer.put(utf8);
+        interned.put(value, next);
+        return next;
+    }
+
+    private void roll() throws IOException {
+        finishSegment();
+        segmentIndex++;
+        Path file = directory.resolve(String.format("console-%05d.seg", segmentIndex));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.put(MAGIC).put(VERSION);
+        interned.clear();
+        lastTimestamp = 0;
+    }
+
+    private void finishSegment() throws IOException {
+        if (channel == null) return;
+        int used = buffer.position();
+        buffer.force();
+        // Drop the mapping and the channel before shrinking the file: Windows refuses to truncate a file
+        // with a live mapped section.
+        buffer = null;
+        channel.close();
+        channel = null;
+        Path file = directory.resolve(String.format("console-%05d.seg", segmentIndex));
+        try (FileChannel shrink = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // The END tag is the zero byte that follows the data; keep it in the truncated file.
+            shrink.truncate(Math.min(segmentSize, used + 1));
+        } catch (IOException e) {
+            // The mapping is only released at GC; until then the segment stays full size, which readers
+            // handle since it still ends at the first 0x00 tag.
+            logger.debug("Could not truncate {}, leaving it at {} bytes", file, segmentSize, e);
+        }
+    }
+
+    private void putVarint(int v) {
+        while ((v & ~0x7F) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    private void putVarlong(long v) {
+        while ((v & ~0x7FL) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static int utf8Length(String s) {
+        return s == null ? 0 : s.length() * 3;
+    }
+
+    static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring("console-".length(), name.length() - ".seg".length()));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    public Path directory() { return directory; }
+
+    public synchronized long entryCount() { return entryCount; }
+
+    /** Encoded bytes of all entries and interned strings, excluding segment headers and mapped slack. */
+    public synchronized long bytesWritten() { return bytesWritten; }
+
+    private void closeQuietly() {
+        closed = true;
+        try {
+            finishSegment();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            finishSegment();
+        } catch (IOException e) {
+            logger.warn("Could not finish console archive segment in {}", directory, e);
+        }
+        logger.info("Console archive {}: {} entries, {} bytes", directory, entryCount, bytesWritten);
+    }
+}
@@ -0,0 +1,209 @@
+package workshop.console;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Scans a {@link ConsoleArchive} directory.
+ *
+ * Segments are memory-mapped read-only and decoded in place. Filtering is done on the encoded form:
+ * the level is compared by interned id and the text prefix byte-by-byte against its UTF-8 encoding, so
+ * only matching entries are ever turned into Strings.
+ *
+ * Example:
+ * <pre>
+ *   ConsoleArchiveReader.scan(dir, ConsoleArchiveReader.query().levels("error").textPrefix("VALIDATION_"),
+ *           e -> System.out.println(e.getText()));
+ * </pre>
+ */
+public final class ConsoleArchiveReader {
+
+    private ConsoleArchiveReader() {
+    }
+
+    public static Query query() {
+        return new Query();
+    }
+
+    /** Levels (as written, e.g. "info", "error"; case-insensitive) and/or a case-sensitive text prefix. */
+    public static final class Query {
+        private Set<String> levels;
+        private byte[] prefix;
+
+        public Query levels(String... levels) {
+            this.levels = Arrays.stream(levels).map(l -> l.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            return this;
+        }
+
+        public Query textPrefix(String prefix) {
+            this.prefix = prefix == null ? null : prefix.getBytes(StandardCharsets.UTF_8);
+            return this;
+        }
+    }
+
+    /** One decoded entry. Realm and context are null if the browser did not report them. */
+    public static final class Entry {
+        private final String level;
+        private final String method;
+        private final String realm;
+        private final String context;
+        private final long timestamp;
+        private final String text;
+
+        Entry(String level, String method, String realm, String context, long timestamp, String text) {
+            this.level = level;
+            this.method = method;
+            this.realm = realm;
+            this.context = context;
+            this.timestamp = timestamp;
+            this.text = text;
+        }
+
+        public String getLevel() { return level; }
+        public String getMethod() { return method; }
+        public String getRealm() { return realm; }
+        public String getContext() { return context; }
+        public long getTimestamp() { return timestamp; }
+        public String getText() { return text; }
+
+        @Override
+        public String toString() {
+            return timestamp + " [" + level + "] " + method + ": " + text;
+        }
+    }
+
+    /** Every entry in the archive, in write order. */
+    public static List<Entry> readAll(Path directory) {
+        List<Entry> out = new ArrayList<>();
+        scan(directory, query(), out::add);
+        return out;
+    }
+
+    /** Number of entries matching {@code query}; matching texts are compared but never decoded. */
+    public static long count(Path directory, Query query) {
+        long[] n = {0};
+        forEachSegment(directory, segment -> n[0] += scanSegment(segment, query, null));
+        return n[0];
+    }
+
+    /** Feed every entry matching {@code query} to {@code sink}, in write order. Returns the match count. */
+    public static long scan(Path directory, Query query, Consumer<Entry> sink) {
+        long[] n = {0};
+        forEachSegment(directory, segment -> n[0] += scanSegment(segment, query, sink));
+        return n[0];
+    }
+
+    private static void forEachSegment(Path directory, Consumer<ByteBuffer> action) {
+        List<Path> segments = new ArrayList<>();
+        try (var stream = Files.newDirectoryStream(directory, ConsoleArchive.SEGMENT_GLOB)) {
+            stream.forEach(segments::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list console archive " + directory, e);
+        }
+        segments.sort(Comparator.comparingInt(ConsoleArchive::segmentNumber));
+        for (Path segment : segments) {
+            try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                action.accept(buf);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read console archive segment " + segment, e);
+            }
+        }
+    }
+
+    private static long scanSegment(ByteBuffer buf, Query query, Consumer<Entry> sink) {
+        for (byte b : ConsoleArchive.MAGIC) {
+            if (buf.remaining() == 0 || buf.get() != b) throw new IllegalStateException("Not a console archive segment");
+        }
+        if (buf.get() != ConsoleArchive.VERSION) throw new IllegalStateException("Unsupported console archive version");
+
+        List<String> strings = new ArrayList<>();
+        strings.add(null); // id 0
+        // Per interned id: does that string pass the level filter? Grown as strings are read.
+        boolean[] levelOk = new boolean[16];
+        long timestamp = 0;
+        long matches = 0;
+
+        while (buf.hasRemaining()) {
+            byte tag = buf.get();
+            if (tag == ConsoleArchive.END) break;
+            if (tag == ConsoleArchive.STRING) {
+                int id = getVarint(buf);
+                int len = getVarint(buf);
+                String s = decode(buf, len);
+                while (strings.size() <= id) strings.add(null);
+                strings.set(id, s);
+                if (id >= levelOk.length) levelOk = Arrays.copyOf(levelOk, Math.max(id + 1, levelOk.length * 2));
+                levelOk[id] = query.levels == null || query.levels.contains(s.toLowerCase(Locale.ROOT));
+                continue;
+            }
+            if (tag != ConsoleArchive.ENTRY) throw new IllegalStateException("Corrupt console archive: tag " + tag);
+
+            int level = getVarint(buf);
+            int method = getVarint(buf);
+            int realm = getVarint(buf);
+            int context = getVarint(buf);
+            timestamp += unzigzag(getVarlong(buf));
+            int len = getVarint(buf);
+            int textStart = buf.position();
+            buf.position(textStart + len);
+
+            boolean levelMatch = query.levels == null || (level > 0 && levelOk[level]);
+            if (!levelMatch || !hasPrefix(buf, textStart, len, query.prefix)) continue;
+            matches++;
+            if (sink != null) {
+                sink.accept(new Entry(strings.get(level), strings.get(method), strings.get(realm),
+                        strings.get(context), timestamp, decode(buf.duplicate().position(textStart), len)));
+            }
+        }
+        return matches;
+    }
+
+    private static boolean hasPrefix(ByteBuffer buf, int start, int len, byte[] prefix) {
+        if (prefix == null) return true;
+        if (len < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buf.get(start + i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private static String decode(ByteBuffer buf, int len) {
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int getVarint(ByteBuffer buf) {
+        return (int) getVarlong(buf);
+    }
+
+    private static long getVarlong(ByteBuffer buf) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buf.get();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IllegalStateException("Corrupt console archive: varint too long");
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
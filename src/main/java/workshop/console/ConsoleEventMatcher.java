@@ -0,0 +1,185 @@
+package workshop.console;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.log.ConsoleLogEntry;
+import org.openqa.selenium.bidi.log.Log;
+import org.openqa.selenium.bidi.module.LogInspector;
+import workshop.session.ScopedSubscription;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Awaitable console-event matcher on top of {@link LogInspector}.
+ *
+ * Instead of sleeping between steps, arm an expectation, trigger the page, then block until a matching
+ * console entry arrives (or the timeout expires):
+ * <pre>{@code
+ * ConsoleEventMatcher.Expectation ready = matcher.expect(ConsoleEventMatcher.FORM_READY);
+ * confirm.sendKeys("strongpass123");
+ * ready.await(Duration.ofSeconds(5));
+ * }</pre>
+ *
+ * Patterns are compiled once by the caller and each expectation keeps its own {@link Matcher}, which is
+ * {@link Matcher#reset(CharSequence) reset} for every entry. Matching therefore allocates nothing beyond
+ * the entry Selenium already built; all matching happens under one lock on the BiDi reader thread.
+ */
+public class ConsoleEventMatcher implements AutoCloseable {
+
+    /** Any line the reactive form logs about a field (VALIDATION_OK / VALIDATION_ERR). */
+    public static final Pattern VALIDATION = Pattern.compile("^VALIDATION_(?:OK|ERR): ");
+    /** {@code VALIDATION_ERR: email — FORMAT (...)}. */
+    public static final Pattern EMAIL_FORMAT = Pattern.compile("^VALIDATION_ERR: email — FORMAT\\b");
+    public static final Pattern FORM_READY = Pattern.compile("^FORM_READY$");
+    public static final Pattern FORM_SUBMITTED = Pattern.compile("^FORM_SUBMITTED$");
+
+    private final WebDriver driver;
+    private final long listenerId;
+    private final ScopedSubscription subscription; // null when listening through a LogInspector
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition matched = lock.newCondition();
+    private final List<Expectation> pending = new ArrayList<>();
+    private long entries;
+
+    /**
+     * Listen through an existing LogInspector (e.g. the one a workshop step already subscribed with).
+     * The driver is needed to remove the listener again on {@link #close()}.
+     */
+    public ConsoleEventMatcher(WebDriver driver, LogInspector logs) {
+        this.driver = driver;
+        this.subscription = null;
+        this.listenerId = logs.onConsoleEntry(this::onEntry);
+    }
+
+    /**
+     * Listen to one browsing context only, through its own {@link ScopedSubscription}: the browser sends
+     * log.entryAdded for that context alone, and stops sending it on {@link #close()}.
+     */
+    public ConsoleEventMatcher(WebDriver driver, String contextId) {
+        this.driver = driver;
+        this.subscription = ScopedSubscription.open(driver, List.of(contextId), Log.entryAdded().getMethod());
+        this.listenerId = subscription.on(Log.entryAdded(), entry -> entry.getConsoleLogEntry().ifPresent(this::onEntry));
+    }
+
+    private void onEntry(ConsoleLogEntry entry) {
+        String text = entry.getText();
+        if (text == null) return;
+        lock.lock();
+        try {
+            entries++;
+            boolean any = false;
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                Expectation e = pending.get(i);
+                if (e.test(text)) {
+                    e.result = entry;
+                    pending.remove(i);
+                    any = true;
+                }
+            }
+            if (any) matched.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start waiting for the next entry matching any of {@code patterns}.
+     * Arm this <em>before</em> triggering the page so a fast response can't be missed.
+     */
+    public Expectation expect(Pattern... patterns) {
+        if (patterns.length == 0) throw new IllegalArgumentException("At least one pattern is required");
+        Expectation e = new Expectation(patterns);
+        lock.lock();
+        try {
+            pending.add(e);
+        } finally {
+            lock.unlock();
+        }
+        return e;
+    }
+
+    /** Number of console entries seen so far. */
+    public long entryCount() {
+        lock.lock();
+        try {
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (subscription != null) {
+            subscription.close();
+        } else {
+            ((HasBiDi) driver).getBiDi().removeListener(listenerId);
+        }
+        lock.lock();
+        try {
+            pending.clear();
+            matched.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** A pending wait for one console entry. */
+    public final class Expectation {
+        private final Matcher[] matchers;
+        private ConsoleLogEntry result; // guarded by lock
+
+        private Expectation(Pattern[] patterns) {
+            this.matchers = new Matcher[patterns.length];
+            for (int i = 0; i < patterns.length; i++) {
+                matchers[i] = patterns[i].matcher("");
+            }
+        }
+
+        private boolean test(String text) {
+            for (Matcher m : matchers) {
+                if (m.reset(text).find()) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Block until a matching entry arrives and return it.
+         *
+         * @throws TimeoutException if nothing matched within {@code timeout}
+         */
+        public ConsoleLogEntry await(Duration timeout) throws TimeoutException, InterruptedException {
+            long nanos = timeout.toNanos();
+            lock.lock();
+            try {
+                while (result == null) {
+                    if (nanos <= 0 || !pending.contains(this)) {
+                        pending.remove(this);
+                        throw new TimeoutException("No console entry matching " + describe() + " within " + timeout);
+                    }
+                    nanos = matched.awaitNanos(nanos);
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private String describe() {
+            StringBuilder sb = new StringBuilder();
+            for (Matcher m : matchers) {
+                if (sb.length() > 0) sb.append(" | ");
+                sb.append(m.pattern().pattern());
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package workshop.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One BiDi command, from send to response; the event duration is the round trip. */
+@Name("workshop.bidi.Command")
+@Label("BiDi Command")
+@Category({"Workshop", "BiDi"})
+@Description("A WebDriver BiDi command and its round trip")
+final class BiDiCommandEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Failed")
+    boolean failed;
+}
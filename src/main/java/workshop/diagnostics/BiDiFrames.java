@@ -0,0 +1,126 @@
+package workshop.diagnostics;
+
+/**
+ * Scanning of BiDi WebSocket frames without a JSON parse, shared by {@link MeteredSocket} and
+ * {@link JfrHttpClientFactory}: the event method of a frame, a few top-level values, and the UTF-8 size.
+ * Only the top level of the object is looked at, and each scan is a single pass over the text.
+ */
+final class BiDiFrames {
+    private BiDiFrames() {
+    }
+
+    /**
+     * The event method of a BiDi message ({@code {"type":"event","method":"log.entryAdded",...}}), or null
+     * for a command response. Only top-level keys are looked at, so a "method" inside params (as in log
+     * entries) is not mistaken for it; the scan stops at the first top-level "method" or "id".
+     */
+    static String eventMethodOf(CharSequence json) {
+        int depth = 0;
+        boolean expectKey = false;
+        for (int i = 0, n = json.length(); i < n; i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                int end = endOfString(json, i);
+                if (depth == 1 && expectKey) {
+                    if (regionEquals(json, i + 1, end, "id")) return null;
+                    if (regionEquals(json, i + 1, end, "method")) {
+                        int v = end + 1;
+                        while (v < n && (json.charAt(v) == ':' || Character.isWhitespace(json.charAt(v)))) v++;
+                        if (v >= n || json.charAt(v) != '"') return null;
+                        return json.subSequence(v + 1, endOfString(json, v)).toString();
+                    }
+                }
+                expectKey = false;
+                i = end;
+            } else if (c == '{' || c == '[') {
+                depth++;
+                expectKey = c == '{' && depth == 1;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            } else if (c == ',' && depth == 1) {
+                expectKey = true;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The values of {@code keys} at the top level of a JSON object, in the same order: the contents of a
+     * string (escapes left as written) or the literal text of a number, boolean or null; null where the key
+     * is missing or holds an object or array. The scan stops once every key has been found.
+     */
+    static String[] topLevelValues(CharSequence json, String... keys) {
+        String[] values = new String[keys.length];
+        int found = 0;
+        int depth = 0;
+        boolean expectKey = false;
+        for (int i = 0, n = json.length(); i < n && found < keys.length; i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                int end = endOfString(json, i);
+                int key = depth == 1 && expectKey ? indexOf(json, i + 1, end, keys) : -1;
+                expectKey = false;
+                i = end;
+                if (key < 0 || values[key] != null) continue;
+                int v = end + 1;
+                while (v < n && (json.charAt(v) == ':' || Character.isWhitespace(json.charAt(v)))) v++;
+                if (v >= n || json.charAt(v) == '{' || json.charAt(v) == '[') continue;
+                if (json.charAt(v) == '"') {
+                    int close = endOfString(json, v);
+                    values[key] = json.subSequence(v + 1, close).toString();
+                    i = close;
+                } else {
+                    int e = v;
+                    while (e < n && json.charAt(e) != ',' && json.charAt(e) != '}' && !Character.isWhitespace(json.charAt(e))) e++;
+                    values[key] = json.subSequence(v, e).toString();
+                    i = e - 1;
+                }
+                found++;
+            } else if (c == '{' || c == '[') {
+                depth++;
+                expectKey = c == '{' && depth == 1;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            } else if (c == ',' && depth == 1) {
+                expectKey = true;
+            }
+        }
+        return values;
+    }
+
+    private static int indexOf(CharSequence s, int from, int to, String[] keys) {
+        for (int k = 0; k < keys.length; k++) {
+            if (regionEquals(s, from, to, keys[k])) return k;
+        }
+        return -1;
+    }
+
+    private static int endOfString(CharSequence s, int quote) {
+        for (int i = quote + 1, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '\\') i++;
+            else if (c == '"') return i;
+        }
+        return s.length();
+    }
+
+    private static boolean regionEquals(CharSequence s, int from, int to, String expected) {
+        if (to - from != expected.length()) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if (s.charAt(from + i) != expected.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    static int utf8Length(CharSequence s) {
+        int bytes = 0;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) bytes++;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isHighSurrogate(c)) { bytes += 4; i++; }
+            else bytes += 3;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,91 @@
+package workshop.diagnostics;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Consumer;
+
+/**
+ * Meters a driver's own BiDi connection through {@link MeteredHttpClientFactory}:
+ * <pre>{@code
+ * BiDiInstrumentation.enable();                               // before the driver is created
+ * WebDriver driver = new ChromeDriver(options);               // webSocketUrl = true
+ * BiDiMetrics metrics = BiDiInstrumentation.metrics(driver);
+ * metrics.startReporting(Duration.ofSeconds(10));
+ * logs.onConsoleEntry(BiDiInstrumentation.timed(metrics, "log.entryAdded", entry -> ...));
+ * }</pre>
+ *
+ * {@code webdriver.http.factory} is Selenium's supported hook into the clients it creates: the driver
+ * opens its single BiDi WebSocket through the metering factory, so every module ({@code new Network(driver)},
+ * {@code new BrowsingContext(driver, ...)}, ...) is measured whenever it was created, and the metrics
+ * are closed together with that connection.
+ *
+ * Listener time is the one thing the socket cannot see: Selenium hands inbound events to listeners on
+ * its own executor. Wrap a handler with {@link #timed} to have its callbacks counted.
+ */
+public final class BiDiInstrumentation {
+    private static final Logger logger = LoggerFactory.getLogger(BiDiInstrumentation.class);
+
+    static final String FACTORY_PROPERTY = "webdriver.http.factory";
+
+    private BiDiInstrumentation() {
+    }
+
+    /**
+     * Select {@link MeteredHttpClientFactory} for drivers created from now on. A factory already selected
+     * (e.g. {@code workshop-jfr} under {@link JfrRunner}) becomes its delegate.
+     */
+    public static void enable() {
+        String current = System.getProperty(FACTORY_PROPERTY);
+        if (MeteredHttpClientFactory.NAME.equals(current)) return;
+        if (current != null) System.setProperty(MeteredHttpClientFactory.DELEGATE_PROPERTY, current);
+        System.setProperty(FACTORY_PROPERTY, MeteredHttpClientFactory.NAME);
+        logger.info("BiDi connections of new drivers will be metered{}", current != null ? " (through " + current + ")" : "");
+    }
+
+    /** The metrics of {@code driver}'s BiDi connection; the driver must have been created after {@link #enable()}. */
+    public static BiDiMetrics metrics(WebDriver driver) {
+        String url = webSocketUrl(driver);
+        BiDiMetrics metrics = MeteredHttpClientFactory.metrics(url);
+        if (metrics == null) {
+            throw new IllegalStateException("BiDi connection " + url + " is not metered; call BiDiInstrumentation.enable() "
+                    + "before creating the driver");
+        }
+        return metrics;
+    }
+
+    private static String webSocketUrl(WebDriver driver) {
+        Object url = driver instanceof HasCapabilities
+                ? ((HasCapabilities) driver).getCapabilities().getCapability("webSocketUrl") : null;
+        if (!(url instanceof String)) {
+            throw new IllegalArgumentException("No webSocketUrl capability; set options.setCapability(\"webSocketUrl\", true)");
+        }
+        return (String) url;
+    }
+
+    /**
+     * Wrap {@code handler} so every callback is recorded in {@code metrics} as listener time for
+     * {@code eventMethod} (and listeners running), and slow ones as {@code workshop.bidi.Listener} JFR events.
+     * The time excludes Selenium's own mapping of the event params, which runs before the callback.
+     */
+    public static <X> Consumer<X> timed(BiDiMetrics metrics, String eventMethod, Consumer<X> handler) {
+        return value -> {
+            BiDiListenerEvent jfr = new BiDiListenerEvent();
+            jfr.begin();
+            long start = System.nanoTime();
+            metrics.listenerStarted();
+            try {
+                handler.accept(value);
+            } finally {
+                metrics.listenerFinished(eventMethod, System.nanoTime() - start);
+                jfr.end();
+                if (jfr.shouldCommit()) {
+                    jfr.event = eventMethod;
+                    jfr.commit();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package workshop.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/** A Java listener that took long to handle one BiDi event; shorter ones are below the threshold. */
+@Name("workshop.bidi.Listener")
+@Label("BiDi Event Listener")
+@Category({"Workshop", "BiDi"})
+@Description("Execution of one BiDi event listener callback")
+@Threshold("1 ms")
+final class BiDiListenerEvent extends Event {
+    @Label("Event")
+    String event;
+}
@@ -0,0 +1,257 @@
+package workshop.diagnostics;
+
+import jdk.jfr.FlightRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.LatencyHistogram;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one BiDi connection: command round trips by method, inbound events by type, payload
+ * sizes, listener execution time and how much is queued.
+ *
+ * Fed by {@link MeteredSocket} (commands, frames) and {@link BiDiInstrumentation#timed} (listeners); read
+ * through {@link #summary()}, the periodic log from {@link #startReporting}, JMX ({@link #registerMBean},
+ * attributes of {@link BiDiMetricsMXBean}) and JFR (per-command and slow-listener events, plus a periodic
+ * statistics event while a recording runs).
+ * Everything is lock-free on the recording side; histograms are {@link LatencyHistogram}s in microseconds.
+ *
+ * The numbers answer "who is slow": high command RTT with few events points at the browser, bytes in
+ * and in-flight commands climbing together point at the WebSocket, listener time or running listeners
+ * close to the event rate point at our own handlers.
+ */
+public class BiDiMetrics implements BiDiMetricsMXBean, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BiDiMetrics.class);
+
+    /** Round trips of one command method. */
+    public static final class CommandStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram rtt = new LatencyHistogram();
+
+        public long getCount() { return count.sum(); }
+        public long getErrors() { return errors.sum(); }
+        public LatencyHistogram.Snapshot getRtt() { return rtt.snapshot(); }
+    }
+
+    /** Arrivals and handling of one event type. */
+    public static final class EventStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LatencyHistogram listenerTime = new LatencyHistogram();
+
+        public long getCount() { return count.sum(); }
+        public long getBytes() { return bytes.sum(); }
+        /** One sample per listener invocation. */
+        public LatencyHistogram.Snapshot getListenerTime() { return listenerTime.snapshot(); }
+    }
+
+    private final Map<String, CommandStats> commands = new ConcurrentHashMap<>();
+    private final Map<String, EventStats> events = new ConcurrentHashMap<>();
+    private final LongAdder messagesIn = new LongAdder();
+    private final LongAdder messagesOut = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+    private final AtomicInteger listenersRunning = new AtomicInteger();
+    private final LongAccumulator maxListenersRunning = new LongAccumulator(Math::max, 0);
+    private final long startNanos = System.nanoTime();
+    private final Runnable jfrHook = this::emitStatistics;
+
+    private ScheduledExecutorService reporter;
+    private ObjectName mbeanName;
+    private boolean closed;
+
+    public BiDiMetrics() {
+        FlightRecorder.addPeriodicEvent(BiDiStatisticsEvent.class, jfrHook);
+    }
+
+    // --- recording (called by MeteredSocket and BiDiInstrumentation.timed) ------------------
+
+    void commandStarted() {
+        maxInFlight.accumulate(inFlight.incrementAndGet());
+    }
+
+    void commandFinished(String method, long nanos, boolean failed) {
+        inFlight.decrementAndGet();
+        CommandStats stats = commands.computeIfAbsent(method, m -> new CommandStats());
+        stats.count.increment();
+        if (failed) stats.errors.increment();
+        stats.rtt.recordMicros(nanos / 1000);
+    }
+
+    void outbound(int bytes) {
+        messagesOut.increment();
+        bytesOut.add(bytes);
+    }
+
+    /** One inbound frame; {@code eventMethod} is null for command responses. */
+    void inbound(String eventMethod, int bytes) {
+        messagesIn.increment();
+        bytesIn.add(bytes);
+        if (eventMethod != null) {
+            EventStats stats = events.computeIfAbsent(eventMethod, m -> new EventStats());
+            stats.count.increment();
+            stats.bytes.add(bytes);
+        }
+    }
+
+    void listenerStarted() {
+        maxListenersRunning.accumulate(listenersRunning.incrementAndGet());
+    }
+
+    void listenerFinished(String eventMethod, long nanos) {
+        listenersRunning.decrementAndGet();
+        events.computeIfAbsent(eventMethod, m -> new EventStats()).listenerTime.recordMicros(nanos / 1000);
+    }
+
+    // --- reading ----------------------------------------------------------------------------------
+
+    /** Per-method command statistics, keyed by BiDi method name. */
+    public Map<String, CommandStats> commands() { return commands; }
+
+    /** Per-type event statistics, keyed by BiDi event name. */
+    public Map<String, EventStats> events() { return events; }
+
+    @Override public long getCommandsSent() { return messagesOut.sum(); }
+    @Override public long getMessagesReceived() { return messagesIn.sum(); }
+    @Override public long getBytesSent() { return bytesOut.sum(); }
+    @Override public long getBytesReceived() { return bytesIn.sum(); }
+    @Override public int getInFlightCommands() { return inFlight.get(); }
+    @Override public long getMaxInFlightCommands() { return maxInFlight.get(); }
+    @Override public int getListenersRunning() { return listenersRunning.get(); }
+    @Override public long getMaxListenersRunning() { return maxListenersRunning.get(); }
+
+    @Override
+    public long getEventsReceived() {
+        long total = 0;
+        for (EventStats stats : events.values()) total += stats.count.sum();
+        return total;
+    }
+
+    @Override
+    public double getEventsPerSecond() {
+        return getEventsReceived() * 1e9 / Math.max(1, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public Map<String, String> getCommandRtt() {
+        Map<String, String> out = new LinkedHashMap<>();
+        commands.forEach((method, stats) -> out.put(method, stats.getCount() + " calls, " + stats.getErrors()
+                + " errors, " + stats.getRtt()));
+        return out;
+    }
+
+    @Override
+    public Map<String, String> getEventTypes() {
+        Map<String, String> out = new LinkedHashMap<>();
+        events.forEach((method, stats) -> out.put(method, stats.getCount() + " events, " + stats.getBytes()
+                + " bytes, listeners " + stats.getListenerTime()));
+        return out;
+    }
+
+    /** Multi-line summary: totals, the busiest command methods and event types. */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        sb.append(String.format("BiDi connection after %.1f s: %d commands (%d in flight, max %d), %d events (%.0f/s), "
+                        + "%d KB in / %d KB out",
+                seconds, getCommandsSent(), getInFlightCommands(), getMaxInFlightCommands(), getEventsReceived(),
+                getEventsPerSecond(), getBytesReceived() / 1024, getBytesSent() / 1024));
+        // Listener time is only known for handlers wrapped with BiDiInstrumentation.timed.
+        boolean listeners = getMaxListenersRunning() > 0;
+        if (listeners) {
+            sb.append(String.format(", listeners running %d (max %d)", getListenersRunning(), getMaxListenersRunning()));
+        } else {
+            sb.append(", listener time not measured");
+        }
+        List<Map.Entry<String, CommandStats>> byCount = new ArrayList<>(commands.entrySet());
+        byCount.sort(Comparator.comparingLong((Map.Entry<String, CommandStats> e) -> e.getValue().getCount()).reversed());
+        for (Map.Entry<String, CommandStats> e : byCount.subList(0, Math.min(10, byCount.size()))) {
+            CommandStats s = e.getValue();
+            sb.append(String.format("%n  command %-40s %7d calls %5d errors  rtt %s", e.getKey(), s.getCount(), s.getErrors(), s.getRtt()));
+        }
+        List<Map.Entry<String, EventStats>> byEvents = new ArrayList<>(events.entrySet());
+        byEvents.sort(Comparator.comparingLong((Map.Entry<String, EventStats> e) -> e.getValue().getCount()).reversed());
+        for (Map.Entry<String, EventStats> e : byEvents.subList(0, Math.min(10, byEvents.size()))) {
+            EventStats s = e.getValue();
+            sb.append(String.format("%n  event   %-40s %7d events %8d KB", e.getKey(), s.getCount(), s.getBytes() / 1024));
+            if (listeners) sb.append("  listener ").append(s.getListenerTime());
+        }
+        return sb.toString();
+    }
+
+    /** Log {@link #summary()} every {@code period} until {@link #close()}. */
+    public synchronized void startReporting(Duration period) {
+        if (reporter != null) throw new IllegalStateException("Reporting already started");
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bidi-metrics-report");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> logger.info("{}", summary()), period.toMillis(), period.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /** Expose these counters as {@code workshop:type=BiDiConnection,name=<name>} on the platform MBean server. */
+    public synchronized void registerMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("workshop:type=BiDiConnection,name=" + ObjectName.quote(name));
+            server.registerMBean(this, objectName);
+            mbeanName = objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register BiDi metrics MBean " + name, e);
+        }
+    }
+
+    private void emitStatistics() {
+        BiDiStatisticsEvent event = new BiDiStatisticsEvent();
+        event.commandsSent = getCommandsSent();
+        event.eventsReceived = getEventsReceived();
+        event.bytesReceived = getBytesReceived();
+        event.bytesSent = getBytesSent();
+        event.inFlightCommands = getInFlightCommands();
+        event.listenersRunning = getListenersRunning();
+        event.commit();
+    }
+
+    /** Stop reporting, leave JMX and log a final summary; later calls do nothing. */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        FlightRecorder.removePeriodicEvent(jfrHook);
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+        if (mbeanName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+            } catch (JMException e) {
+                logger.debug("Could not unregister {}", mbeanName, e);
+            }
+            mbeanName = null;
+        }
+        logger.info("{}", summary());
+    }
+}
@@ -0,0 +1,35 @@
+package workshop.diagnostics;
+
+import java.util.Map;
+
+/** JMX view of {@link BiDiMetrics}; open it in JConsole/VisualVM under {@code workshop:type=BiDiConnection}. */
+public interface BiDiMetricsMXBean {
+    long getCommandsSent();
+
+    long getMessagesReceived();
+
+    long getEventsReceived();
+
+    /** Average since the metrics were created. */
+    double getEventsPerSecond();
+
+    long getBytesSent();
+
+    long getBytesReceived();
+
+    /** Commands sent whose response has not arrived yet. */
+    int getInFlightCommands();
+
+    long getMaxInFlightCommands();
+
+    /** Event listener callbacks executing right now. */
+    int getListenersRunning();
+
+    long getMaxListenersRunning();
+
+    /** Command method -> calls, errors and round-trip percentiles. */
+    Map<String, String> getCommandRtt();
+
+    /** Event type -> count, bytes and listener time percentiles. */
+    Map<String, String> getEventTypes();
+}
@@ -0,0 +1,39 @@
+package workshop.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/** Periodic snapshot of a {@link BiDiMetrics}' totals and queue gauges. */
+@Name("workshop.bidi.Statistics")
+@Label("BiDi Connection Statistics")
+@Category({"Workshop", "BiDi"})
+@Description("Totals and queue depth of an instrumented BiDi connection")
+@Period("1 s")
+@StackTrace(false)
+final class BiDiStatisticsEvent extends Event {
+    @Label("Commands Sent")
+    long commandsSent;
+
+    @Label("Events Received")
+    long eventsReceived;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Commands In Flight")
+    int inFlightCommands;
+
+    @Label("Listeners Running")
+    int listenersRunning;
+}
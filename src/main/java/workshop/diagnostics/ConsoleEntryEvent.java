@@ -0,0 +1,28 @@
+package workshop.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A log.entryAdded event as it arrived on the BiDi socket. */
+@Name("workshop.ConsoleEntry")
+@Label("Console Entry")
+@Category({"Workshop", "Scenario"})
+@Description("Console or JavaScript log entry received over BiDi")
+@StackTrace(false)
+final class ConsoleEntryEvent extends Event {
+    @Label("Type")
+    String type;
+
+    @Label("Level")
+    String level;
+
+    @Label("Text")
+    String text;
+
+    @Label("Context")
+    String context;
+}
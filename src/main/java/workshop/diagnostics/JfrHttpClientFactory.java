@@ -0,0 +1,221 @@
+package workshop.diagnostics;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpClientName;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.Message;
+import org.openqa.selenium.remote.http.TextMessage;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selenium HTTP client factory that turns scenario traffic into JFR events, for any unmodified main.
+ *
+ * Selected with {@code -Dwebdriver.http.factory=workshop-jfr} (the {@code jfr} Maven profile does this);
+ * ChromeDriver then builds both its WebDriver HTTP client and its BiDi WebSocket through this factory.
+ * Everything is delegated to Selenium's default JDK client; on the way through it emits
+ * <ul>
+ *   <li>{@code workshop.Navigation}: browsingContext.navigate from command to NavigationResult, and
+ *       classic {@code driver.get} (POST .../url) from request to response;</li>
+ *   <li>{@code workshop.ConsoleEntry} for every log.entryAdded the scenario subscribed to;</li>
+ *   <li>{@code workshop.NetworkEvent} for every network.* event it subscribed to.</li>
+ * </ul>
+ * Frames are classified with the same top-level key scan as {@link MeteredSocket} ({@link BiDiFrames}); only frames
+ * that become events (or answer a pending navigation) are parsed, and only while the event is enabled.
+ */
+@HttpClientName(JfrHttpClientFactory.NAME)
+public class JfrHttpClientFactory implements HttpClient.Factory {
+    public static final String NAME = "workshop-jfr";
+    static final String DELEGATE = "jdk-http-client";
+    private static final int MAX_TEXT = 512;
+    private static final Json JSON = new Json();
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        return new TappedClient(HttpClient.Factory.create(DELEGATE).createClient(config));
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        HttpClient.Factory.create(DELEGATE).cleanupIdleClients();
+    }
+
+    private static final class TappedClient implements HttpClient {
+        private final HttpClient delegate;
+
+        TappedClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest req) {
+            if (req.getMethod() != HttpMethod.POST || !req.getUri().endsWith("/url")) {
+                return delegate.execute(req);
+            }
+            NavigationEvent event = new NavigationEvent();
+            event.begin();
+            boolean failed = true;
+            try {
+                HttpResponse response = delegate.execute(req);
+                failed = !response.isSuccessful();
+                return response;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.url = urlOf(req);
+                    event.protocol = "classic";
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+
+        /** The url of a classic navigate request; the body is a replayable byte supplier. */
+        private static String urlOf(HttpRequest req) {
+            try {
+                Map<String, Object> body = JSON.toType(Contents.string(req), Json.MAP_TYPE);
+                return BiDiTap.string(body.get("url"));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            BiDiTap tap = new BiDiTap();
+            WebSocket socket = delegate.openSocket(request, new WebSocket.Listener() {
+                @Override
+                public void onText(CharSequence data) {
+                    tap.inbound(data);
+                    listener.onText(data);
+                }
+
+                @Override
+                public void onBinary(byte[] data) {
+                    listener.onBinary(data);
+                }
+
+                @Override
+                public void onClose(int code, String reason) {
+                    listener.onClose(code, reason);
+                }
+
+                @Override
+                public void onError(Throwable cause) {
+                    listener.onError(cause);
+                }
+            });
+            return new WebSocket() {
+                @Override
+                public WebSocket send(Message message) {
+                    if (message instanceof TextMessage) tap.outbound(((TextMessage) message).text());
+                    socket.send(message);
+                    return this;
+                }
+
+                @Override
+                public void close() {
+                    socket.close();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
+    /** Per-connection state: navigations waiting for their response, keyed by command id. */
+    static final class BiDiTap {
+        private final Map<Long, NavigationEvent> navigations = new ConcurrentHashMap<>();
+
+        void outbound(String text) {
+            if (!text.contains("\"browsingContext.navigate\"")) return;
+            NavigationEvent event = new NavigationEvent();
+            if (!event.isEnabled()) return;
+            Map<String, Object> command = JSON.toType(text, Json.MAP_TYPE);
+            if (!"browsingContext.navigate".equals(command.get("method"))) return;
+            Map<?, ?> params = command.get("params") instanceof Map ? (Map<?, ?>) command.get("params") : Map.of();
+            event.context = string(params.get("context"));
+            event.url = string(params.get("url"));
+            event.readiness = string(params.get("wait"));
+            event.protocol = "bidi";
+            event.begin();
+            navigations.put(((Number) command.get("id")).longValue(), event);
+        }
+
+        void inbound(CharSequence text) {
+            String method = BiDiFrames.eventMethodOf(text);
+            if (method == null) {
+                if (!navigations.isEmpty()) navigationDone(text);
+            } else if (method.startsWith("log.")) {
+                console(text);
+            } else if (method.startsWith("network.")) {
+                network(method, text);
+            }
+        }
+
+        private void navigationDone(CharSequence text) {
+            Map<String, Object> response = JSON.toType(text.toString(), Json.MAP_TYPE);
+            if (!(response.get("id") instanceof Number)) return;
+            NavigationEvent event = navigations.remove(((Number) response.get("id")).longValue());
+            if (event == null) return;
+            event.end();
+            event.failed = "error".equals(response.get("type"));
+            if (response.get("result") instanceof Map) {
+                Map<?, ?> result = (Map<?, ?>) response.get("result");
+                event.navigation = string(result.get("navigation"));
+                if (result.get("url") != null) event.url = string(result.get("url"));
+            }
+            event.commit();
+        }
+
+        private void console(CharSequence text) {
+            ConsoleEntryEvent event = new ConsoleEntryEvent();
+            if (!event.isEnabled()) return;
+            Map<?, ?> params = params(text);
+            event.type = string(params.get("type"));
+            event.level = string(params.get("level"));
+            String entry = string(params.get("text"));
+            event.text = entry != null && entry.length() > MAX_TEXT ? entry.substring(0, MAX_TEXT) : entry;
+            if (params.get("source") instanceof Map) event.context = string(((Map<?, ?>) params.get("source")).get("context"));
+            event.commit();
+        }
+
+        private void network(String method, CharSequence text) {
+            NetworkEvent event = new NetworkEvent();
+            if (!event.isEnabled()) return;
+            Map<?, ?> params = params(text);
+            event.event = method;
+            event.context = string(params.get("context"));
+            if (params.get("request") instanceof Map) {
+                Map<?, ?> request = (Map<?, ?>) params.get("request");
+                event.request = string(request.get("request"));
+                event.method = string(request.get("method"));
+                event.url = string(request.get("url"));
+            }
+            if (params.get("response") instanceof Map && ((Map<?, ?>) params.get("response")).get("status") instanceof Number) {
+                event.status = ((Number) ((Map<?, ?>) params.get("response")).get("status")).intValue();
+            }
+            event.commit();
+        }
+
+        private static Map<?, ?> params(CharSequence text) {
+            Map<String, Object> frame = JSON.toType(text.toString(), Json.MAP_TYPE);
+            Object params = frame.get("params");
+            return params instanceof Map ? (Map<?, ?>) params : Map.of();
+        }
+
+        private static String string(Object value) {
+            return value == null ? null : String.valueOf(value);
+        }
+    }
+}
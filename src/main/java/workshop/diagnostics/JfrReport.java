@@ -0,0 +1,229 @@
+package workshop.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import workshop.network.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+
+/**
+ * Plain-text summary of a scenario recording: what the scenario did (navigations, console and network
+ * events), where it allocated, where threads blocked (flagging the BiDi reader path) and GC pauses.
+ *
+ * Blocking counts monitor enters and parks, minus idle pool threads waiting for work. A blocked stack is
+ * on the "BiDi path" when it runs through Selenium's BiDi connection or the JDK WebSocket client: time
+ * there delays every event behind it. "Our code" columns attribute samples to the first
+ * {@code workshop.*} frame, which is usually the listener to look at.
+ */
+public final class JfrReport {
+    private static final int TOP = 10;
+
+    private final LatencyHistogram navigations = new LatencyHistogram();
+    private final List<RecordedEvent> slowestNavigations = new ArrayList<>();
+    private int navigationFailures;
+    private final Map<String, Long> consoleByLevel = new TreeMap<>();
+    private final Map<String, Long> networkByEvent = new TreeMap<>();
+    private final Map<String, Long> bidiCommands = new TreeMap<>();
+    private long slowListeners;
+    private final Map<String, Long> allocationByTopFrame = new HashMap<>();
+    private final Map<String, Long> allocationByOurFrame = new HashMap<>();
+    private long allocationTotal;
+    private final Map<String, Long> cpuByTopFrame = new HashMap<>();
+    private long cpuSamples;
+    private final Map<String, Long> blockedNanosByThread = new HashMap<>();
+    private final Map<String, Long> bidiBlockedNanosByFrame = new HashMap<>();
+    private long bidiBlockedNanos;
+    private long awaitingResponseNanos;
+    private final Map<String, long[]> gcByName = new TreeMap<>(); // count, total pause ns, longest pause ns
+
+    private JfrReport() {
+    }
+
+    /** Read {@code recording} and render the report. */
+    public static String summarize(Path recording) throws IOException {
+        JfrReport report = new JfrReport();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                report.accept(file.readEvent());
+            }
+        }
+        return report.render(recording);
+    }
+
+    private void accept(RecordedEvent e) {
+        switch (e.getEventType().getName()) {
+            case "workshop.Navigation":
+                navigations.recordMicros(e.getDuration().toNanos() / 1000);
+                if (e.getBoolean("failed")) navigationFailures++;
+                slowestNavigations.add(e);
+                slowestNavigations.sort((a, b) -> b.getDuration().compareTo(a.getDuration()));
+                if (slowestNavigations.size() > 5) slowestNavigations.remove(5);
+                break;
+            case "workshop.ConsoleEntry":
+                consoleByLevel.merge(String.valueOf(e.getString("level")), 1L, Long::sum);
+                break;
+            case "workshop.NetworkEvent":
+                networkByEvent.merge(e.getString("event"), 1L, Long::sum);
+                break;
+            case "workshop.bidi.Command":
+                bidiCommands.merge(e.getString("method"), 1L, Long::sum);
+                break;
+            case "workshop.bidi.Listener":
+                slowListeners++;
+                break;
+            case "jdk.ObjectAllocationSample":
+                long weight = e.getLong("weight");
+                allocationTotal += weight;
+                allocationByTopFrame.merge(topFrame(e.getStackTrace()) + " (" + e.getClass("objectClass").getName() + ")",
+                        weight, Long::sum);
+                String ours = ourFrame(e.getStackTrace());
+                if (ours != null) allocationByOurFrame.merge(ours, weight, Long::sum);
+                break;
+            case "jdk.ExecutionSample":
+                cpuSamples++;
+                cpuByTopFrame.merge(topFrame(e.getStackTrace()), 1L, Long::sum);
+                break;
+            case "jdk.JavaMonitorEnter":
+            case "jdk.ThreadPark":
+                blocked(e);
+                break;
+            case "jdk.GarbageCollection":
+                long[] gc = gcByName.computeIfAbsent(e.getString("name"), n -> new long[3]);
+                gc[0]++;
+                gc[1] += e.getDuration("sumOfPauses").toNanos();
+                gc[2] = Math.max(gc[2], e.getDuration("longestPause").toNanos());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void blocked(RecordedEvent e) {
+        RecordedStackTrace stack = e.getStackTrace();
+        if (stack == null || isIdleWorker(stack)) return;
+        long nanos = e.getDuration().toNanos();
+        RecordedThread thread = e.getThread();
+        blockedNanosByThread.merge(thread == null ? "?" : thread.getJavaName(), nanos, Long::sum);
+        if (awaitsResponse(stack)) {
+            awaitingResponseNanos += nanos;
+        } else if (onBiDiPath(stack)) {
+            bidiBlockedNanos += nanos;
+            String ours = ourFrame(stack);
+            bidiBlockedNanosByFrame.merge(ours != null ? ours : topFrame(stack), nanos, Long::sum);
+        }
+    }
+
+    private static boolean isIdleWorker(RecordedStackTrace stack) {
+        for (RecordedFrame f : stack.getFrames()) {
+            String name = f.getMethod().getName();
+            String type = f.getMethod().getType().getName();
+            if ((type.endsWith("ThreadPoolExecutor") && name.equals("getTask"))
+                    || (type.endsWith("ForkJoinPool") && name.equals("awaitWork"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** A caller blocked in BiDi.send until the browser answers: browser time, not reader contention. */
+    private static boolean awaitsResponse(RecordedStackTrace stack) {
+        for (RecordedFrame f : stack.getFrames()) {
+            if (f.getMethod().getName().equals("sendAndWait")
+                    && f.getMethod().getType().getName().equals("org.openqa.selenium.bidi.Connection")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean onBiDiPath(RecordedStackTrace stack) {
+        for (RecordedFrame f : stack.getFrames()) {
+            String type = f.getMethod().getType().getName();
+            if (type.startsWith("org.openqa.selenium.bidi.") || type.startsWith("jdk.internal.net.http.websocket.")
+                    || type.startsWith("org.openqa.selenium.remote.http.jdk.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String topFrame(RecordedStackTrace stack) {
+        if (stack == null || stack.getFrames().isEmpty()) return "(no stack)";
+        return frame(stack.getFrames().get(0));
+    }
+
+    private static String ourFrame(RecordedStackTrace stack) {
+        if (stack == null) return null;
+        for (RecordedFrame f : stack.getFrames()) {
+            if (f.getMethod().getType().getName().startsWith("workshop.")) return frame(f);
+        }
+        return null;
+    }
+
+    private static String frame(RecordedFrame f) {
+        return f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+    }
+
+    private String render(Path recording) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("JFR summary for ").append(recording.toAbsolutePath()).append('\n');
+
+        sb.append("\nScenario\n");
+        sb.append(String.format("  navigations          %s, %d failed%n", navigations.snapshot(), navigationFailures));
+        for (RecordedEvent e : slowestNavigations) {
+            sb.append(String.format("    %8.1f ms  %-7s %s%n", e.getDuration().toNanos() / 1e6,
+                    e.getString("protocol"), e.getString("url")));
+        }
+        sb.append("  console entries      ").append(consoleByLevel.isEmpty() ? "none" : consoleByLevel).append('\n');
+        sb.append("  network events       ").append(networkByEvent.isEmpty() ? "none" : networkByEvent).append('\n');
+        if (!bidiCommands.isEmpty()) {
+            sb.append("  bidi commands        ").append(bidiCommands).append('\n');
+            sb.append("  listeners over 1 ms  ").append(slowListeners).append('\n');
+        }
+
+        sb.append(String.format("%nAllocation hot spots (sampled, %d MB total)%n", allocationTotal >> 20));
+        top(sb, allocationByTopFrame, v -> String.format("%8.1f MB", v / 1048576.0));
+        sb.append("  by first workshop.* frame\n");
+        top(sb, allocationByOurFrame, v -> String.format("%8.1f MB", v / 1048576.0));
+
+        sb.append(String.format("%nCPU hot spots (%d samples)%n", cpuSamples));
+        top(sb, cpuByTopFrame, v -> String.format("%8d   ", v));
+
+        sb.append(String.format("%nThread blocking (monitor enter + park, idle pool threads excluded)%n"));
+        top(sb, blockedNanosByThread, JfrReport::millis);
+        sb.append(String.format("  waiting for BiDi command responses: %s total%n", millis(awaitingResponseNanos).trim()));
+        sb.append(String.format("  on the BiDi reader path: %s total%n", millis(bidiBlockedNanos).trim()));
+        top(sb, bidiBlockedNanosByFrame, JfrReport::millis);
+
+        sb.append("\nGC pauses\n");
+        if (gcByName.isEmpty()) sb.append("  none\n");
+        gcByName.forEach((name, gc) -> sb.append(String.format("  %-28s %5d collections, %s paused, longest %s%n",
+                name, gc[0], millis(gc[1]).trim(), millis(gc[2]).trim())));
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%8.1f ms", nanos / 1e6);
+    }
+
+    private static void top(StringBuilder sb, Map<String, Long> values, LongFunction<String> format) {
+        if (values.isEmpty()) {
+            sb.append("    none\n");
+            return;
+        }
+        values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP)
+                .forEach(e -> sb.append("    ").append(format.apply(e.getValue())).append("  ").append(e.getKey()).append('\n'));
+    }
+}
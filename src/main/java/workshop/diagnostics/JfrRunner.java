@@ -0,0 +1,77 @@
+package workshop.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs any workshop main class under JDK Flight Recorder and writes a summary next to the recording.
+ *
+ * How to run (example):
+ *   mvn -Pjfr compile exec:exec@jfr -Dexec.mainClass="workshop.ReactiveFormValidation"
+ *   java -cp ... workshop.diagnostics.JfrRunner workshop.NetworkEvents [args...]
+ *
+ * The recording uses the JDK "profile" settings with monitor-enter and park thresholds lowered to 1 ms,
+ * so short contention in listener code shows up. Selenium's HTTP client factory is switched to
+ * {@link JfrHttpClientFactory} (unless {@code webdriver.http.factory} is already set), which adds
+ * navigation, console and network events without changing the main class. Output goes to
+ * {@code target/jfr/<Main>.jfr} and {@code target/jfr/<Main>-summary.txt} ({@code -Djfr.dir} to change);
+ * open the .jfr in JDK Mission Control for the full picture.
+ */
+public final class JfrRunner {
+    private static final Logger logger = LoggerFactory.getLogger(JfrRunner.class);
+
+    private JfrRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: JfrRunner <main class> [args...]");
+        }
+        String mainClass = args[0];
+        String[] mainArgs = Arrays.copyOfRange(args, 1, args.length);
+        String name = mainClass.substring(mainClass.lastIndexOf('.') + 1);
+        Path dir = Paths.get(System.getProperty("jfr.dir", "target/jfr"));
+        Files.createDirectories(dir);
+        Path file = dir.resolve(name + ".jfr");
+
+        if (System.getProperty("webdriver.http.factory") == null) {
+            System.setProperty("webdriver.http.factory", JfrHttpClientFactory.NAME);
+        }
+        Method main = Class.forName(mainClass).getMethod("main", String[].class);
+
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("profile").getSettings());
+        settings.put("jdk.JavaMonitorEnter#threshold", "1 ms");
+        settings.put("jdk.ThreadPark#threshold", "1 ms");
+        try (Recording recording = new Recording(settings)) {
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.setDestination(file);
+            recording.start();
+            logger.info("Recording {} to {}", mainClass, file);
+            try {
+                main.invoke(null, (Object) mainArgs);
+            } catch (InvocationTargetException e) {
+                logger.error("{} failed", mainClass, e.getCause());
+            } finally {
+                recording.stop();
+            }
+        }
+
+        String report = JfrReport.summarize(file);
+        Path summary = dir.resolve(name + "-summary.txt");
+        Files.writeString(summary, report, StandardCharsets.UTF_8);
+        logger.info("{}\nSummary written to {}", report, summary);
+    }
+}
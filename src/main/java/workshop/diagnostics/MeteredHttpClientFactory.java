@@ -0,0 +1,106 @@
+package workshop.diagnostics;
+
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpClientName;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selenium HTTP client factory that meters every BiDi connection it opens with a {@link BiDiMetrics}.
+ *
+ * Selected with {@code -Dwebdriver.http.factory=workshop-metrics}, or {@link BiDiInstrumentation#enable()}
+ * before the driver is created; ChromeDriver then opens its BiDi WebSocket through this factory, so the
+ * driver's one connection is measured from the first command. Everything is delegated to the factory
+ * named by {@code workshop.metrics.delegate} (Selenium's default JDK client unless set, e.g. to
+ * {@code workshop-jfr} to keep the JFR events too).
+ *
+ * Only WebSockets to a BiDi session endpoint ({@code /session} or {@code /session/<id>}) are metered,
+ * as {@link MeteredSocket}s; CDP sockets and WebDriver HTTP calls pass straight through. Each metered
+ * connection gets its own metrics, registered in JMX under its URL and closed (logging a final
+ * summary) when the socket closes. Listener time is not visible at this level (Selenium runs listeners on
+ * its own executor); wrap handlers with {@link BiDiInstrumentation#timed} for that.
+ */
+@HttpClientName(MeteredHttpClientFactory.NAME)
+public class MeteredHttpClientFactory implements HttpClient.Factory {
+    private static final Logger logger = LoggerFactory.getLogger(MeteredHttpClientFactory.class);
+
+    public static final String NAME = "workshop-metrics";
+    static final String DELEGATE_PROPERTY = "workshop.metrics.delegate";
+
+    private static final Map<String, BiDiMetrics> CONNECTIONS = new ConcurrentHashMap<>();
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        return new MeteredClient(delegate().createClient(config));
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        delegate().cleanupIdleClients();
+    }
+
+    private static HttpClient.Factory delegate() {
+        return HttpClient.Factory.create(System.getProperty(DELEGATE_PROPERTY, JfrHttpClientFactory.DELEGATE));
+    }
+
+    /** Metrics of the open, metered BiDi connection to {@code webSocketUrl}, or null. */
+    static BiDiMetrics metrics(String webSocketUrl) {
+        return CONNECTIONS.get(webSocketUrl);
+    }
+
+    static boolean isBiDiSession(String url) {
+        String path = URI.create(url).getPath();
+        return path != null && (path.equals("/session") || path.startsWith("/session/"));
+    }
+
+    private static final class MeteredClient implements HttpClient {
+        private final HttpClient delegate;
+
+        MeteredClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            String url = request.getUri();
+            if (!isBiDiSession(url)) return delegate.openSocket(request, listener);
+            BiDiMetrics metrics = new BiDiMetrics();
+            WebSocket socket;
+            try {
+                socket = MeteredSocket.open(delegate, request, listener, metrics, () -> {
+                    CONNECTIONS.remove(url, metrics);
+                    metrics.close();
+                });
+            } catch (RuntimeException e) {
+                metrics.close();
+                throw e;
+            }
+            try {
+                metrics.registerMBean(url);
+            } catch (IllegalStateException e) {
+                logger.debug("BiDi metrics for {} not registered in JMX", url, e);
+            }
+            CONNECTIONS.put(url, metrics);
+            logger.info("Metering BiDi connection {}", url);
+            return socket;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest req) {
+            return delegate.execute(req);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package workshop.diagnostics;
+
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.Message;
+import org.openqa.selenium.remote.http.TextMessage;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A BiDi WebSocket that reports to a {@link BiDiMetrics} without changing what goes over the wire.
+ *
+ * Counts frames and UTF-8 payload bytes in both directions and times each command from the outbound
+ * frame to the response frame with the same id (RTT by method, commands in flight), recording it as a
+ * {@code workshop.bidi.Command} JFR event. Frames are classified by a scan of their top-level keys, not a
+ * second JSON parse. Commands still waiting when the socket closes are counted as failed.
+ */
+final class MeteredSocket implements WebSocket {
+    private final BiDiMetrics metrics;
+    private final Runnable onClose;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private WebSocket delegate;
+
+    private MeteredSocket(BiDiMetrics metrics, Runnable onClose) {
+        this.metrics = metrics;
+        this.onClose = onClose;
+    }
+
+    /** Open {@code request} through {@code client}; {@code onClose} (may be null) runs once the socket is closed either way. */
+    static WebSocket open(HttpClient client, HttpRequest request, WebSocket.Listener listener, BiDiMetrics metrics,
+                          Runnable onClose) {
+        MeteredSocket socket = new MeteredSocket(metrics, onClose);
+        socket.delegate = client.openSocket(request, socket.new Inbound(listener));
+        return socket;
+    }
+
+    /** A command waiting for its response. */
+    private static final class Pending {
+        final String method;
+        final long start;
+        final BiDiCommandEvent event;
+
+        Pending(String method, long start, BiDiCommandEvent event) {
+            this.method = method;
+            this.start = start;
+            this.event = event;
+        }
+    }
+
+    @Override
+    public WebSocket send(Message message) {
+        Long id = null;
+        if (message instanceof TextMessage) {
+            String text = ((TextMessage) message).text();
+            metrics.outbound(BiDiFrames.utf8Length(text));
+            String[] command = BiDiFrames.topLevelValues(text, "id", "method");
+            id = parseId(command[0]);
+            if (id != null && command[1] != null) {
+                BiDiCommandEvent event = new BiDiCommandEvent();
+                event.begin();
+                metrics.commandStarted();
+                pending.put(id, new Pending(command[1], System.nanoTime(), event));
+            }
+        }
+        try {
+            delegate.send(message);
+        } catch (RuntimeException e) {
+            Pending p = id == null ? null : pending.remove(id);
+            if (p != null) finished(p, true);
+            throw e;
+        }
+        return this;
+    }
+
+    private void finished(Pending p, boolean failed) {
+        metrics.commandFinished(p.method, System.nanoTime() - p.start, failed);
+        p.event.end();
+        if (p.event.shouldCommit()) {
+            p.event.method = p.method;
+            p.event.failed = failed;
+            p.event.commit();
+        }
+    }
+
+    private static Long parseId(String value) {
+        if (value == null) return null;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            delegate.close();
+        } finally {
+            closed();
+        }
+    }
+
+    private void closed() {
+        if (!closed.compareAndSet(false, true)) return;
+        for (Iterator<Pending> it = pending.values().iterator(); it.hasNext(); ) {
+            Pending p = it.next();
+            it.remove();
+            finished(p, true);
+        }
+        if (onClose != null) onClose.run();
+    }
+
+    private final class Inbound implements WebSocket.Listener {
+        private final WebSocket.Listener delegate;
+
+        Inbound(WebSocket.Listener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onText(CharSequence data) {
+            String method = BiDiFrames.eventMethodOf(data);
+            metrics.inbound(method, BiDiFrames.utf8Length(data));
+            if (method == null && !pending.isEmpty()) {
+                String[] response = BiDiFrames.topLevelValues(data, "id", "type");
+                Long id = parseId(response[0]);
+                Pending p = id == null ? null : pending.remove(id);
+                if (p != null) finished(p, "error".equals(response[1]));
+            }
+            delegate.onText(data);
+        }
+
+        @Override
+        public void onBinary(byte[] data) {
+            delegate.onBinary(data);
+        }
+
+        @Override
+        public void onClose(int code, String reason) {
+            try {
+                delegate.onClose(code, reason);
+            } finally {
+                closed();
+            }
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            delegate.onError(cause);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package workshop.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A navigation from the command being sent to its result (BiDi NavigationResult or classic response). */
+@Name("workshop.Navigation")
+@Label("Navigation")
+@Category({"Workshop", "Scenario"})
+@Description("browsingContext.navigate or classic driver.get, start to completion")
+final class NavigationEvent extends Event {
+    @Label("Context")
+    String context;
+
+    @Label("URL")
+    String url;
+
+    @Label("Navigation Id")
+    String navigation;
+
+    @Label("Wait")
+    String readiness;
+
+    @Label("Protocol")
+    String protocol;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,34 @@
+package workshop.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A network.* event as it arrived on the BiDi socket. */
+@Name("workshop.NetworkEvent")
+@Label("Network Event")
+@Category({"Workshop", "Scenario"})
+@Description("BiDi network event (beforeRequestSent, responseCompleted, fetchError, ...)")
+@StackTrace(false)
+final class NetworkEvent extends Event {
+    @Label("Event")
+    String event;
+
+    @Label("Request Id")
+    String request;
+
+    @Label("Method")
+    String method;
+
+    @Label("URL")
+    String url;
+
+    @Label("Status")
+    int status;
+
+    @Label("Context")
+    String context;
+}
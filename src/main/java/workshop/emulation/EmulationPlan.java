@@ -0,0 +1,88 @@
+package workshop.emulation;
+
+import org.openqa.selenium.bidi.emulation.GeolocationCoordinates;
+import org.openqa.selenium.bidi.permissions.PermissionState;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The emulation state a set of browsing contexts should end up in: a geolocation per context and a
+ * permission state per origin (optionally per user context). Applied by {@link EmulationScheduler}.
+ *
+ * <pre>
+ *   EmulationPlan plan = new EmulationPlan()
+ *           .permission("https://example.com", PermissionState.GRANTED)
+ *           .locate(List.of(tab1, tab2), new GeolocationCoordinates(37.7749, -122.4194))
+ *           .locate(tab3, new GeolocationCoordinates(51.5074, -0.1278));
+ * </pre>
+ */
+public class EmulationPlan {
+
+    /** Permission target: origin plus optional user context (null = the default one). */
+    static final class PermissionKey {
+        final String origin;
+        final String userContext;
+
+        PermissionKey(String origin, String userContext) {
+            this.origin = Objects.requireNonNull(origin, "origin");
+            this.userContext = userContext;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PermissionKey)) return false;
+            PermissionKey other = (PermissionKey) o;
+            return origin.equals(other.origin) && Objects.equals(userContext, other.userContext);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origin, userContext);
+        }
+
+        @Override
+        public String toString() {
+            return userContext == null ? origin : origin + " (" + userContext + ")";
+        }
+    }
+
+    private final Map<String, GeolocationCoordinates> locations = new LinkedHashMap<>();
+    private final Map<PermissionKey, PermissionState> permissions = new LinkedHashMap<>();
+    private String permissionName = "geolocation";
+
+    public EmulationPlan locate(String context, GeolocationCoordinates coordinates) {
+        locations.put(context, coordinates);
+        return this;
+    }
+
+    public EmulationPlan locate(Collection<String> contexts, GeolocationCoordinates coordinates) {
+        for (String context : contexts) {
+            locations.put(context, coordinates);
+        }
+        return this;
+    }
+
+    public EmulationPlan permission(String origin, PermissionState state) {
+        return permission(origin, null, state);
+    }
+
+    public EmulationPlan permission(String origin, String userContext, PermissionState state) {
+        permissions.put(new PermissionKey(origin, userContext), state);
+        return this;
+    }
+
+    /** Permission descriptor name used for every permission in this plan (default "geolocation"). */
+    public EmulationPlan permissionName(String name) {
+        this.permissionName = name;
+        return this;
+    }
+
+    Map<String, GeolocationCoordinates> locations() { return locations; }
+
+    Map<PermissionKey, PermissionState> permissions() { return permissions; }
+
+    String permissionName() { return permissionName; }
+}
@@ -0,0 +1,213 @@
+package workshop.emulation;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContextInfo;
+import org.openqa.selenium.bidi.emulation.Emulation;
+import org.openqa.selenium.bidi.emulation.GeolocationCoordinates;
+import org.openqa.selenium.bidi.emulation.SetGeolocationOverrideParameters;
+import org.openqa.selenium.bidi.module.Permission;
+import org.openqa.selenium.bidi.permissions.PermissionState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies {@link EmulationPlan}s to many browsing contexts with as few BiDi round-trips as possible.
+ *
+ * <ul>
+ *   <li>Contexts that should get the same coordinates share one emulation.setGeolocationOverride
+ *       command with a multi-context list.</li>
+ *   <li>State already applied through this scheduler is remembered, and commands that would not change
+ *       anything are skipped. After a failure the target is forgotten, so the next apply retries it.</li>
+ *   <li>Commands are pipelined: they are issued from a small sender pool, so up to {@code maxInFlight}
+ *       requests are on the wire at once instead of one blocking round-trip after another.</li>
+ * </ul>
+ * Origins for permissions come from one browsingContext.getTree call ({@link #originsOf}), not from an
+ * executeScript per page.
+ *
+ * The scheduler only knows what it applied itself; call {@link #forget(String)} when a context is closed,
+ * or {@link #reset()} if overrides were changed behind its back.
+ */
+public class EmulationScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EmulationScheduler.class);
+
+    /** What one {@link #apply} did. */
+    public static final class ApplyResult {
+        private final int commands;
+        private final int contextsUpdated;
+        private final int skipped;
+        private final long elapsedMillis;
+
+        ApplyResult(int commands, int contextsUpdated, int skipped, long elapsedMillis) {
+            this.commands = commands;
+            this.contextsUpdated = contextsUpdated;
+            this.skipped = skipped;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /** BiDi commands sent. */
+        public int getCommands() { return commands; }
+        /** Contexts whose geolocation changed. */
+        public int getContextsUpdated() { return contextsUpdated; }
+        /** Contexts and permissions already in the target state. */
+        public int getSkipped() { return skipped; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return commands + " commands, " + contextsUpdated + " contexts updated, " + skipped
+                    + " unchanged, " + elapsedMillis + " ms";
+        }
+    }
+
+    private final WebDriver driver;
+    private final Emulation emulation;
+    private final Permission permission;
+    private final ExecutorService senders;
+
+    // Applied state, keyed by context / permission name and target. Geolocation values are compared via toMap().
+    private final Map<String, Map<String, Object>> appliedLocations = new ConcurrentHashMap<>();
+    private final Map<String, Map<EmulationPlan.PermissionKey, PermissionState>> appliedPermissions = new ConcurrentHashMap<>();
+
+    public EmulationScheduler(WebDriver driver) {
+        this(driver, 8);
+    }
+
+    public EmulationScheduler(WebDriver driver, int maxInFlight) {
+        this.driver = driver;
+        this.emulation = new Emulation(driver);
+        this.permission = new Permission(driver);
+        AtomicInteger n = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(maxInFlight, r -> {
+            Thread t = new Thread(r, "emulation-sender-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Send whatever is needed to reach {@code plan}. The future completes when every command has been
+     * answered, or exceptionally with the first failure (the other commands still run).
+     */
+    public CompletableFuture<ApplyResult> apply(EmulationPlan plan) {
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        int skipped = 0;
+
+        // Granting "geolocation" says nothing about "camera" for the same origin, so state is kept per name.
+        Map<EmulationPlan.PermissionKey, PermissionState> applied =
+                appliedPermissions.computeIfAbsent(plan.permissionName(), name -> new ConcurrentHashMap<>());
+        for (Map.Entry<EmulationPlan.PermissionKey, PermissionState> e : plan.permissions().entrySet()) {
+            EmulationPlan.PermissionKey key = e.getKey();
+            PermissionState state = e.getValue();
+            if (state == applied.get(key)) {
+                skipped++;
+                continue;
+            }
+            Map<String, String> descriptor = Map.of("name", plan.permissionName());
+            inFlight.add(send(() -> {
+                if (key.userContext == null) {
+                    permission.setPermission(descriptor, state, key.origin);
+                } else {
+                    permission.setPermission(descriptor, state, key.origin, key.userContext);
+                }
+            }, () -> applied.put(key, state), () -> applied.remove(key)));
+        }
+
+        // Group the contexts that actually change by target coordinates: one command per distinct location.
+        Map<Map<String, Object>, List<String>> groups = new LinkedHashMap<>();
+        Map<Map<String, Object>, GeolocationCoordinates> coordinates = new HashMap<>();
+        for (Map.Entry<String, GeolocationCoordinates> e : plan.locations().entrySet()) {
+            Map<String, Object> target = e.getValue().toMap();
+            if (target.equals(appliedLocations.get(e.getKey()))) {
+                skipped++;
+                continue;
+            }
+            groups.computeIfAbsent(target, k -> new ArrayList<>()).add(e.getKey());
+            coordinates.putIfAbsent(target, e.getValue());
+        }
+        int updated = 0;
+        for (Map.Entry<Map<String, Object>, List<String>> group : groups.entrySet()) {
+            List<String> contexts = List.copyOf(group.getValue());
+            Map<String, Object> target = group.getKey();
+            updated += contexts.size();
+            inFlight.add(send(
+                    () -> emulation.setGeolocationOverride(
+                            new SetGeolocationOverrideParameters(coordinates.get(target)).contexts(contexts)),
+                    () -> contexts.forEach(c -> appliedLocations.put(c, target)),
+                    () -> contexts.forEach(appliedLocations::remove)));
+        }
+
+        int commands = inFlight.size();
+        int contextsUpdated = updated;
+        int unchanged = skipped;
+        return CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> new ApplyResult(commands, contextsUpdated, unchanged,
+                        (System.nanoTime() - start) / 1_000_000));
+    }
+
+    private CompletableFuture<Void> send(Runnable command, Runnable onSuccess, Runnable onFailure) {
+        return CompletableFuture.runAsync(command, senders).whenComplete((v, error) -> {
+            if (error == null) {
+                onSuccess.run();
+            } else {
+                logger.warn("Emulation command failed: {}", error.getMessage());
+                onFailure.run();
+            }
+        });
+    }
+
+    /** Origin of every top-level context's current URL, from a single browsingContext.getTree. */
+    public Map<String, String> originsOf(Collection<String> contexts) {
+        Map<String, String> origins = new LinkedHashMap<>();
+        if (contexts.isEmpty()) return origins;
+        List<BrowsingContextInfo> tree = new BrowsingContext(driver, contexts.iterator().next()).getTopLevelContexts();
+        for (BrowsingContextInfo info : tree) {
+            if (contexts.contains(info.getId())) {
+                String origin = originOf(info.getUrl());
+                if (origin != null) origins.put(info.getId(), origin);
+            }
+        }
+        return origins;
+    }
+
+    /** {@code scheme://host[:port]}, or null for URLs without an origin (about:blank, data:). */
+    public static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || uri.getHost() == null) return null;
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Drop what is known about a context (e.g. after closing it). */
+    public void forget(String context) {
+        appliedLocations.remove(context);
+    }
+
+    /** Drop all known state; the next apply sends everything. */
+    public void reset() {
+        appliedLocations.clear();
+        appliedPermissions.clear();
+    }
+
+    @Override
+    public void close() {
+        senders.shutdown();
+    }
+}
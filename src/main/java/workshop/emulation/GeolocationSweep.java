@@ -0,0 +1,421 @@
+package workshop.emulation;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.BiDi;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.emulation.Emulation;
+import org.openqa.selenium.bidi.emulation.GeolocationCoordinates;
+import org.openqa.selenium.bidi.emulation.SetGeolocationOverrideParameters;
+import org.openqa.selenium.bidi.module.Permission;
+import org.openqa.selenium.bidi.module.Script;
+import org.openqa.selenium.bidi.permissions.PermissionState;
+import org.openqa.selenium.bidi.script.ChannelValue;
+import org.openqa.selenium.bidi.script.EvaluateResult;
+import org.openqa.selenium.bidi.script.EvaluateResultExceptionValue;
+import org.openqa.selenium.bidi.script.LocalValue;
+import org.openqa.selenium.bidi.script.Message;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Walks a long list of coordinates and verifies each override from inside the page, without reloads.
+ *
+ * A preload script installs {@code window.__geoProbe(seq)} in every new document. The probe reads
+ * {@code navigator.geolocation.getCurrentPosition} and posts {@code {seq, lat, lon}} back on a BiDi
+ * script channel. Per point the sweep sends emulation.setGeolocationOverride for one context, calls the
+ * probe (fire-and-forget), and waits for the matching script.message. Each context runs its own loop,
+ * so N tabs verify N points at a time.
+ *
+ * Results stream to a CSV as they complete:
+ * {@code index,label,latitude,longitude,reported_latitude,reported_longitude,status,micros}, where
+ * status is OK, MISMATCH, ERROR (the page reported a geolocation error, the probe threw, or a command
+ * failed; the sweep goes on) or TIMEOUT. Progress is logged
+ * every few seconds, and {@link #run} returns totals plus a latency histogram.
+ */
+public class GeolocationSweep implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(GeolocationSweep.class);
+    private static final Json JSON = new Json();
+    private static final String CHANNEL = "workshop-geo-sweep";
+
+    private static final String PRELOAD =
+            "(channel) => {\n"
+            + "  window.__geoProbe = (seq) => navigator.geolocation.getCurrentPosition(\n"
+            + "    p => channel(JSON.stringify({seq, lat: p.coords.latitude, lon: p.coords.longitude})),\n"
+            + "    e => channel(JSON.stringify({seq, error: e.code + ' ' + e.message})),\n"
+            + "    {maximumAge: 0, timeout: 10000});\n"
+            + "}";
+    private static final String PROBE = "(seq) => window.__geoProbe(seq)";
+
+    /** One coordinate to emulate. */
+    public static final class Point {
+        private final double latitude;
+        private final double longitude;
+        private final double accuracy;
+        private final String label;
+
+        public Point(double latitude, double longitude, double accuracy, String label) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.accuracy = accuracy;
+            this.label = label == null ? "" : label;
+        }
+
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        public double getAccuracy() { return accuracy; }
+        public String getLabel() { return label; }
+    }
+
+    /** Totals of one {@link #run}. */
+    public static final class Summary {
+        private final long ok;
+        private final long mismatches;
+        private final long errors;
+        private final long timeouts;
+        private final long elapsedMillis;
+        private final LatencyHistogram.Snapshot latency;
+
+        Summary(long ok, long mismatches, long errors, long timeouts, long elapsedMillis, LatencyHistogram.Snapshot latency) {
+            this.ok = ok;
+            this.mismatches = mismatches;
+            this.errors = errors;
+            this.timeouts = timeouts;
+            this.elapsedMillis = elapsedMillis;
+            this.latency = latency;
+        }
+
+        public long getOk() { return ok; }
+        public long getMismatches() { return mismatches; }
+        public long getErrors() { return errors; }
+        public long getTimeouts() { return timeouts; }
+        public long getTotal() { return ok + mismatches + errors + timeouts; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public double getPointsPerMinute() { return getTotal() * 60_000.0 / Math.max(1, elapsedMillis); }
+        public LatencyHistogram.Snapshot getLatency() { return latency; }
+
+        @Override
+        public String toString() {
+            return String.format("%d points in %.1f s (%.0f/min): %d ok, %d mismatch, %d error, %d timeout; per point %s",
+                    getTotal(), elapsedMillis / 1000.0, getPointsPerMinute(), ok, mismatches, errors, timeouts, latency);
+        }
+    }
+
+    private final WebDriver driver;
+    private final List<String> contexts;
+    private final BiDi bidi;
+    private final Emulation emulation;
+    private final Script script;
+    private final Map<Long, CompletableFuture<Map<String, Object>>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private long listenerId = -1;
+    private String preloadId;
+
+    private double tolerance = 1e-6;
+    private Duration probeTimeout = Duration.ofSeconds(5);
+    private Duration reportEvery = Duration.ofSeconds(5);
+
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /** Sweep using these (top-level) browsing contexts in parallel. */
+    public GeolocationSweep(WebDriver driver, List<String> contexts) {
+        if (contexts.isEmpty()) throw new IllegalArgumentException("At least one context is required");
+        this.driver = driver;
+        this.contexts = List.copyOf(contexts);
+        this.bidi = ((HasBiDi) driver).getBiDi();
+        this.emulation = new Emulation(driver);
+        this.script = new Script(driver);
+    }
+
+    /** Maximum allowed difference between emulated and reported latitude/longitude (default 1e-6). */
+    public GeolocationSweep tolerance(double degrees) {
+        this.tolerance = degrees;
+        return this;
+    }
+
+    /** How long to wait for the page to report a position (default 5 s). */
+    public GeolocationSweep probeTimeout(Duration timeout) {
+        this.probeTimeout = timeout;
+        return this;
+    }
+
+    public GeolocationSweep reportEvery(Duration period) {
+        this.reportEvery = period;
+        return this;
+    }
+
+    /**
+     * Install the probe, load {@code pageUrl} (a secure origin) in every context and grant geolocation
+     * for its origin. Call once before {@link #run}.
+     */
+    public void prepare(String pageUrl) {
+        listenerId = script.onMessage(this::onMessage);
+        preloadId = script.addPreloadScript(PRELOAD, List.of(new ChannelValue(CHANNEL)));
+        String origin = null;
+        for (String context : contexts) {
+            String url = new BrowsingContext(driver, context).navigate(pageUrl, ReadinessState.INTERACTIVE).getUrl();
+            origin = EmulationScheduler.originOf(url);
+        }
+        if (origin != null) {
+            new Permission(driver).setPermission(Map.of("name", "geolocation"), PermissionState.GRANTED, origin);
+        }
+    }
+
+    private void onMessage(Message message) {
+        if (!CHANNEL.equals(message.getChannel())) return;
+        Optional<Object> value = message.getData().getValue();
+        if (value.isEmpty()) return;
+        Map<String, Object> data = JSON.toType(String.valueOf(value.get()), Json.MAP_TYPE);
+        Object seq = data.get("seq");
+        if (!(seq instanceof Number)) return;
+        CompletableFuture<Map<String, Object>> reply = pending.remove(((Number) seq).longValue());
+        if (reply != null) reply.complete(data);
+    }
+
+    /** Verify every point, writing one CSV line per point to {@code results} as it completes. */
+    public Summary run(Iterator<Point> points, Path results) throws IOException, InterruptedException {
+        if (listenerId < 0) throw new IllegalStateException("Call prepare(url) first");
+        ok.reset();
+        mismatches.reset();
+        errors.reset();
+        timeouts.reset();
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicInteger index = new AtomicInteger();
+        long start = System.nanoTime();
+
+        ExecutorService workers = Executors.newFixedThreadPool(contexts.size(), daemon("geo-sweep-"));
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(daemon("geo-sweep-progress-"));
+        try (BufferedWriter out = Files.newBufferedWriter(results, StandardCharsets.UTF_8)) {
+            out.write("index,label,latitude,longitude,reported_latitude,reported_longitude,status,micros\n");
+            progress.scheduleAtFixedRate(() -> logProgress(start), reportEvery.toMillis(), reportEvery.toMillis(),
+                    TimeUnit.MILLISECONDS);
+
+            List<Future<?>> running = new ArrayList<>();
+            for (String context : contexts) {
+                running.add(workers.submit(() -> {
+                    while (true) {
+                        Point point;
+                        int n;
+                        synchronized (points) {
+                            if (!points.hasNext()) return null;
+                            point = points.next();
+                            n = index.getAndIncrement();
+                        }
+                        String line = verify(context, n, point, latency);
+                        synchronized (out) {
+                            out.write(line);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : running) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Sweep worker failed", e.getCause());
+                }
+            }
+        } finally {
+            progress.shutdownNow();
+            workers.shutdownNow();
+        }
+        Summary summary = new Summary(ok.sum(), mismatches.sum(), errors.sum(), timeouts.sum(),
+                (System.nanoTime() - start) / 1_000_000, latency.snapshot());
+        logger.info("Geolocation sweep done: {}", summary);
+        return summary;
+    }
+
+    private String verify(String context, int n, Point point, LatencyHistogram latency) throws InterruptedException {
+        long t0 = System.nanoTime();
+        long seq = sequence.incrementAndGet();
+        String status;
+        Object lat = "";
+        Object lon = "";
+        try {
+            GeolocationCoordinates coords = new GeolocationCoordinates(point.getLatitude(), point.getLongitude());
+            if (point.getAccuracy() > 0) coords.accuracy(point.getAccuracy());
+            emulation.setGeolocationOverride(new SetGeolocationOverrideParameters(coords).contexts(List.of(context)));
+
+            CompletableFuture<Map<String, Object>> reply = new CompletableFuture<>();
+            pending.put(seq, reply);
+            EvaluateResult called = script.callFunctionInBrowsingContext(context, PROBE, false,
+                    Optional.of(List.of(LocalValue.numberValue(seq))), Optional.empty(), Optional.empty());
+            if (called instanceof EvaluateResultExceptionValue) {
+                // The probe threw (e.g. the preload script is missing); no message will come.
+                pending.remove(seq);
+                logger.debug("Probe for point {} in {} threw: {}", n, context,
+                        ((EvaluateResultExceptionValue) called).getExceptionDetails().getText());
+                status = "ERROR";
+                errors.increment();
+            } else {
+                Map<String, Object> data = reply.get(probeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (data.containsKey("error")) {
+                    status = "ERROR";
+                    errors.increment();
+                } else {
+                    lat = data.get("lat");
+                    lon = data.get("lon");
+                    boolean match = Math.abs(((Number) lat).doubleValue() - point.getLatitude()) <= tolerance
+                            && Math.abs(((Number) lon).doubleValue() - point.getLongitude()) <= tolerance;
+                    status = match ? "OK" : "MISMATCH";
+                    (match ? ok : mismatches).increment();
+                }
+            }
+        } catch (TimeoutException e) {
+            pending.remove(seq);
+            status = "TIMEOUT";
+            timeouts.increment();
+        } catch (ExecutionException | RuntimeException e) {
+            // A failed override or probe call costs this point, not the sweep.
+            pending.remove(seq);
+            logger.debug("Point {} in {} failed", n, context, e);
+            lat = "";
+            lon = "";
+            status = "ERROR";
+            errors.increment();
+        }
+        long micros = (System.nanoTime() - t0) / 1000;
+        latency.recordMicros(micros);
+        return n + "," + csv(point.getLabel()) + "," + point.getLatitude() + "," + point.getLongitude() + ","
+                + lat + "," + lon + "," + status + "," + micros + "\n";
+    }
+
+    private void logProgress(long start) {
+        long done = ok.sum() + mismatches.sum() + errors.sum() + timeouts.sum();
+        double minutes = (System.nanoTime() - start) / 60e9;
+        logger.info("Geolocation sweep: {} points ({} ok, {} failed), {}/min",
+                done, ok.sum(), done - ok.sum(), String.format("%.0f", done / Math.max(minutes, 1e-9)));
+    }
+
+    // --- input --------------------------------------------------------------------------------------
+
+    /**
+     * Points from a CSV of {@code latitude,longitude[,accuracy][,label]}, read lazily so large files stay
+     * off the heap. Blank lines, lines starting with '#', and a header line that isn't numeric are skipped.
+     */
+    public static Iterator<Point> readCsv(Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return new Iterator<>() {
+            private Point next = advance();
+
+            private Point advance() {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (line.isEmpty() || line.startsWith("#")) continue;
+                        String[] cols = line.split(",", 4);
+                        if (cols.length < 2) continue;
+                        try {
+                            double lat = Double.parseDouble(cols[0].trim());
+                            double lon = Double.parseDouble(cols[1].trim());
+                            double accuracy = cols.length > 2 && !cols[2].isBlank() ? Double.parseDouble(cols[2].trim()) : 0;
+                            return new Point(lat, lon, accuracy, cols.length > 3 ? cols[3].trim() : "");
+                        } catch (NumberFormatException header) {
+                            // header or malformed line
+                        }
+                    }
+                    reader.close();
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Point next() {
+                if (next == null) throw new NoSuchElementException();
+                Point current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /** {@code count} points spread evenly over the globe (a deterministic grid), for load runs without a CSV. */
+    public static Iterator<Point> grid(int count) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        List<Point> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double lat = -80 + 160.0 * (i / side) / Math.max(1, side - 1);
+            double lon = -170 + 340.0 * (i % side) / Math.max(1, side - 1);
+            points.add(new Point(round(lat), round(lon), 0, String.format(Locale.ROOT, "grid-%d", i)));
+        }
+        return points.iterator();
+    }
+
+    private static double round(double degrees) {
+        return Math.round(degrees * 1e6) / 1e6;
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @Override
+    public void close() {
+        if (listenerId >= 0) {
+            bidi.removeListener(listenerId);
+            listenerId = -1;
+        }
+        if (preloadId != null) {
+            try {
+                script.removePreloadScript(preloadId);
+            } catch (RuntimeException e) {
+                logger.debug("Could not remove preload script", e);
+            }
+            preloadId = null;
+        }
+        pending.values().forEach(f -> f.cancel(false));
+        pending.clear();
+    }
+}
@@ -0,0 +1,437 @@
+package workshop.form;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.module.Script;
+import org.openqa.selenium.bidi.script.EvaluateResult;
+import org.openqa.selenium.bidi.script.EvaluateResultExceptionValue;
+import org.openqa.selenium.bidi.script.EvaluateResultSuccess;
+import org.openqa.selenium.bidi.script.LocalValue;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.LatencyHistogram;
+import workshop.session.PreloadScripts;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives a form one whole row at a time: one script.callFunction per row instead of a findElement,
+ * clear and sendKeys round trip per field.
+ *
+ * The row helper is registered once as a preload script ({@link PreloadScripts}), so every document the
+ * form is opened in already defines it and each row's call is a one-line stub. The helper
+ * sets every field of the row (by id, else by name), then fires one {@code input} event per
+ * field, optionally submits through {@code form.requestSubmit()}, and returns what the page logged while
+ * it ran. Console methods are wrapped for the duration of the call, so the page's own
+ * {@code VALIDATION_* / FORM_*} lines come back in order with the call result; they still reach the
+ * browser console and any log.entryAdded subscriber as usual. Because all values are set before any
+ * event fires, every validation pass sees the final row and the last line per field is its outcome.
+ *
+ * Only synchronous validation is captured: anything the page logs after the function returns (timers,
+ * fetches) is not part of the row. {@code window.alert} is replaced with a no-op so a submit handler that
+ * alerts does not block the next row.
+ *
+ * {@link #run} spreads rows over the given contexts (one worker each), streams one CSV line per row and
+ * returns rows/second plus a latency histogram. Line formats understood are the reactive form's
+ * {@code VALIDATION_OK: <field>}, {@code VALIDATION_ERR: <field> — <CODE> (...)}, {@code FORM_READY},
+ * {@code FORM_SUBMITTED} and {@code FORM_BLOCKED: ...}. {@link #close()} removes the helper from the
+ * session when the run is over.
+ */
+public class BulkFormDriver implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BulkFormDriver.class);
+    private static final Json JSON = new Json();
+
+    private static final String FILL_HELPER =
+            "() => { window.__workshopFillRow = (valuesJson, submit) => {\n"
+            + "  const values = JSON.parse(valuesJson);\n"
+            + "  const levels = ['log', 'info', 'warn', 'error', 'debug'];\n"
+            + "  const saved = levels.map(l => console[l]);\n"
+            + "  const lines = [];\n"
+            + "  levels.forEach((l, i) => console[l] = (...args) => {\n"
+            + "    lines.push([l, args.map(String).join(' ')]);\n"
+            + "    saved[i].apply(console, args);\n"
+            + "  });\n"
+            + "  window.alert = () => {};\n"
+            + "  const missing = [], fields = [];\n"
+            + "  try {\n"
+            + "    for (const [name, value] of Object.entries(values)) {\n"
+            + "      const el = document.getElementById(name) || document.getElementsByName(name)[0];\n"
+            + "      if (!el) { missing.push(name); continue; }\n"
+            + "      el.value = value;\n"
+            + "      fields.push(el);\n"
+            + "    }\n"
+            + "    for (const el of fields) el.dispatchEvent(new Event('input', {bubbles: true}));\n"
+            + "    if (submit && fields.length && fields[0].form) fields[0].form.requestSubmit();\n"
+            + "  } finally {\n"
+            + "    levels.forEach((l, i) => console[l] = saved[i]);\n"
+            + "  }\n"
+            + "  return JSON.stringify({lines, missing});\n"
+            + "}; }";
+    private static final String FILL = "(valuesJson, submit) => window.__workshopFillRow(valuesJson, submit)";
+
+    private static final Pattern VALIDATION = Pattern.compile("^VALIDATION_(OK|ERR): (\\S+)(?: — (\\S+))?");
+
+    /** What one row did to the form. */
+    public static final class RowResult {
+        /** READY (valid, not submitted), SUBMITTED, INVALID, BLOCKED (submit refused), ERROR. */
+        public enum Status { READY, SUBMITTED, INVALID, BLOCKED, ERROR }
+
+        private final Status status;
+        private final Map<String, String> fields;
+        private final List<String> missing;
+        private final List<String> console;
+        private final String error;
+        private final long micros;
+
+        RowResult(Status status, Map<String, String> fields, List<String> missing, List<String> console,
+                  String error, long micros) {
+            this.status = status;
+            this.fields = fields;
+            this.missing = missing;
+            this.console = console;
+            this.error = error;
+            this.micros = micros;
+        }
+
+        public Status getStatus() { return status; }
+        /** Last outcome per field the page validated: "OK" or the error code (e.g. "MIN_LENGTH"). */
+        public Map<String, String> getFields() { return fields; }
+        /** Row columns with no matching element on the page. */
+        public List<String> getMissing() { return missing; }
+        /** Everything the page logged during the call, as "level: text". */
+        public List<String> getConsole() { return console; }
+        /** The script exception, for {@link Status#ERROR}. */
+        public String getError() { return error; }
+        public long getMicros() { return micros; }
+
+        @Override
+        public String toString() {
+            return status + " " + fields + (missing.isEmpty() ? "" : " missing " + missing) + (error == null ? "" : " " + error);
+        }
+    }
+
+    /** Totals of one {@link #run}. */
+    public static final class Summary {
+        private final Map<RowResult.Status, Long> byStatus;
+        private final long rows;
+        private final long elapsedMillis;
+        private final LatencyHistogram.Snapshot latency;
+
+        Summary(Map<RowResult.Status, Long> byStatus, long elapsedMillis, LatencyHistogram.Snapshot latency) {
+            this.byStatus = byStatus;
+            this.rows = byStatus.values().stream().mapToLong(Long::longValue).sum();
+            this.elapsedMillis = elapsedMillis;
+            this.latency = latency;
+        }
+
+        public long getRows() { return rows; }
+        public long getCount(RowResult.Status status) { return byStatus.getOrDefault(status, 0L); }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public double getRowsPerSecond() { return rows * 1000.0 / Math.max(1, elapsedMillis); }
+        public LatencyHistogram.Snapshot getLatency() { return latency; }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows in %.1f s (%.0f rows/s): %s; per row %s",
+                    rows, elapsedMillis / 1000.0, getRowsPerSecond(), byStatus, latency);
+        }
+    }
+
+    private final WebDriver driver;
+    private final List<String> contexts;
+    private final Script script;
+    private final PreloadScripts preloads;
+    private boolean submit;
+    private Duration reportEvery = Duration.ofSeconds(5);
+    private final Map<RowResult.Status, LongAdder> counts = new LinkedHashMap<>();
+
+    /** Drive the form in these (top-level) browsing contexts in parallel. */
+    public BulkFormDriver(WebDriver driver, List<String> contexts) {
+        if (contexts.isEmpty()) throw new IllegalArgumentException("At least one context is required");
+        this.driver = driver;
+        this.contexts = List.copyOf(contexts);
+        this.script = new Script(driver);
+        this.preloads = new PreloadScripts(driver);
+        for (RowResult.Status status : RowResult.Status.values()) counts.put(status, new LongAdder());
+    }
+
+    /** Submit the form after filling each row (default false: fill and validate only). */
+    public BulkFormDriver submit(boolean submit) {
+        this.submit = submit;
+        return this;
+    }
+
+    public BulkFormDriver reportEvery(Duration period) {
+        this.reportEvery = period;
+        return this;
+    }
+
+    /**
+     * Register the row helper and load the form page in every context. The page is reused for all rows;
+     * nothing reloads in between. Call before {@link #fill} or {@link #run}.
+     */
+    public void open(String formUrl) {
+        preloads.install(FILL_HELPER);
+        for (String context : contexts) {
+            new BrowsingContext(driver, context).navigate(formUrl, ReadinessState.COMPLETE);
+        }
+    }
+
+    /** Fill one row in {@code context}: field id (or name) to value. */
+    public RowResult fill(String context, Map<String, String> row) {
+        long t0 = System.nanoTime();
+        EvaluateResult result = script.callFunctionInBrowsingContext(context, FILL, false,
+                Optional.of(List.of(LocalValue.stringValue(JSON.toJson(row)), LocalValue.booleanValue(submit))),
+                Optional.empty(), Optional.empty());
+        long micros = (System.nanoTime() - t0) / 1000;
+        if (result instanceof EvaluateResultExceptionValue) {
+            String error = ((EvaluateResultExceptionValue) result).getExceptionDetails().getText();
+            return new RowResult(RowResult.Status.ERROR, Map.of(), List.of(), List.of(), error, micros);
+        }
+        Object value = ((EvaluateResultSuccess) result).getResult().getValue().orElse("{}");
+        Map<String, Object> reply = JSON.toType(String.valueOf(value), Json.MAP_TYPE);
+        return outcome(reply, micros);
+    }
+
+    /**
+     * The row result from the helper's reply ({@code lines} as [level, text] pairs, {@code missing}).
+     * The last VALIDATION_ line per field wins; SUBMITTED beats BLOCKED beats READY, and READY needs
+     * FORM_READY with every validated field OK.
+     */
+    @SuppressWarnings("unchecked")
+    static RowResult outcome(Map<String, Object> reply, long micros) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        List<String> console = new ArrayList<>();
+        boolean ready = false;
+        boolean submitted = false;
+        boolean blocked = false;
+        for (Object entry : (List<Object>) reply.getOrDefault("lines", List.of())) {
+            List<Object> pair = (List<Object>) entry;
+            String text = String.valueOf(pair.get(1));
+            console.add(pair.get(0) + ": " + text);
+            Matcher m = VALIDATION.matcher(text);
+            if (m.find()) {
+                fields.put(m.group(2), "OK".equals(m.group(1)) ? "OK" : m.group(3) != null ? m.group(3) : "ERR");
+            } else if (text.equals("FORM_READY")) {
+                ready = true;
+            } else if (text.equals("FORM_SUBMITTED")) {
+                submitted = true;
+            } else if (text.startsWith("FORM_BLOCKED")) {
+                blocked = true;
+            }
+        }
+        if (fields.values().stream().anyMatch(code -> !code.equals("OK"))) ready = false;
+        RowResult.Status status = submitted ? RowResult.Status.SUBMITTED
+                : blocked ? RowResult.Status.BLOCKED
+                : ready ? RowResult.Status.READY
+                : RowResult.Status.INVALID;
+        List<String> missing = new ArrayList<>();
+        for (Object name : (List<Object>) reply.getOrDefault("missing", List.of())) missing.add(String.valueOf(name));
+        return new RowResult(status, fields, missing, console, null, micros);
+    }
+
+    /**
+     * Fill every row, writing {@code index,status,micros,<field outcomes>} to {@code results} as rows
+     * complete (field outcomes as {@code field=CODE} joined by ';'). Rows come off the iterator in order
+     * but finish in whatever order the contexts get through them.
+     */
+    public Summary run(Iterator<Map<String, String>> rows, Path results) throws IOException, InterruptedException {
+        counts.values().forEach(LongAdder::reset);
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicInteger index = new AtomicInteger();
+        long start = System.nanoTime();
+
+        ExecutorService workers = Executors.newFixedThreadPool(contexts.size(), daemon("bulk-form-"));
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(daemon("bulk-form-progress-"));
+        try (BufferedWriter out = Files.newBufferedWriter(results, StandardCharsets.UTF_8)) {
+            out.write("index,status,micros,fields\n");
+            progress.scheduleAtFixedRate(() -> logProgress(start), reportEvery.toMillis(), reportEvery.toMillis(),
+                    TimeUnit.MILLISECONDS);
+
+            List<Future<?>> running = new ArrayList<>();
+            for (String context : contexts) {
+                running.add(workers.submit(() -> {
+                    while (true) {
+                        Map<String, String> row;
+                        int n;
+                        synchronized (rows) {
+                            if (!rows.hasNext()) return null;
+                            row = rows.next();
+                            n = index.getAndIncrement();
+                        }
+                        RowResult result = fill(context, row);
+                        counts.get(result.getStatus()).increment();
+                        latency.recordMicros(result.getMicros());
+                        String line = n + "," + result.getStatus() + "," + result.getMicros() + "," + csv(fieldsColumn(result)) + "\n";
+                        synchronized (out) {
+                            out.write(line);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : running) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Form worker failed", e.getCause());
+                }
+            }
+        } finally {
+            progress.shutdownNow();
+            workers.shutdownNow();
+        }
+        Map<RowResult.Status, Long> byStatus = new LinkedHashMap<>();
+        counts.forEach((status, count) -> byStatus.put(status, count.sum()));
+        Summary summary = new Summary(byStatus, (System.nanoTime() - start) / 1_000_000, latency.snapshot());
+        logger.info("Bulk form run done: {}", summary);
+        return summary;
+    }
+
+    /** Remove the row helper from the session and close the Script modules; the driver stays open. */
+    @Override
+    public void close() {
+        try {
+            preloads.close();
+        } finally {
+            script.close();
+        }
+    }
+
+    private static String fieldsColumn(RowResult result) {
+        if (result.getError() != null) return result.getError();
+        StringBuilder sb = new StringBuilder();
+        result.getFields().forEach((field, code) -> sb.append(sb.length() == 0 ? "" : ";").append(field).append('=').append(code));
+        for (String name : result.getMissing()) sb.append(sb.length() == 0 ? "" : ";").append(name).append("=MISSING");
+        return sb.toString();
+    }
+
+    private void logProgress(long start) {
+        long done = counts.values().stream().mapToLong(LongAdder::sum).sum();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Bulk form run: {} rows ({} errors), {} rows/s",
+                done, counts.get(RowResult.Status.ERROR).sum(), String.format("%.0f", done / Math.max(seconds, 1e-9)));
+    }
+
+    // --- input --------------------------------------------------------------------------------------
+
+    /**
+     * Rows from a CSV whose header line names the fields (ids or names on the page), read lazily.
+     * Values are split on ',' with no quoting; blank lines and lines starting with '#' are skipped.
+     */
+    public static Iterator<Map<String, String>> readCsv(Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        String header = reader.readLine();
+        if (header == null) {
+            reader.close();
+            return List.<Map<String, String>>of().iterator();
+        }
+        String[] names = header.split(",", -1);
+        return new Iterator<>() {
+            private Map<String, String> next = advance();
+
+            private Map<String, String> advance() {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank() || line.startsWith("#")) continue;
+                        String[] cols = line.split(",", -1);
+                        Map<String, String> row = new LinkedHashMap<>();
+                        for (int i = 0; i < names.length; i++) row.put(names[i].trim(), i < cols.length ? cols[i] : "");
+                        return row;
+                    }
+                    reader.close();
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map<String, String> next() {
+                if (next == null) throw new NoSuchElementException();
+                Map<String, String> current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * {@code count} rows for the workshop's reactive form (email, pass, confirm), cycling through valid
+     * input and each validation error, for load runs without a CSV.
+     */
+    public static Iterator<Map<String, String>> reactiveFormRows(int count) {
+        String[][] shapes = {
+                {"user%d@example.com", "strongpass%d", "strongpass%d"},
+                {"user%d", "strongpass%d", "strongpass%d"},
+                {"user%d@example.com", "%d", "%d"},
+                {"user%d@example.com", "strongpass%d", "other%d"},
+                {"", "strongpass%d", ""},
+        };
+        return new Iterator<>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public Map<String, String> next() {
+                if (i >= count) throw new NoSuchElementException();
+                String[] shape = shapes[i % shapes.length];
+                Map<String, String> row = new LinkedHashMap<>();
+                row.put("email", String.format(shape[0], i));
+                row.put("pass", String.format(shape[1], i));
+                row.put("confirm", String.format(shape[2], i));
+                i++;
+                return row;
+            }
+        };
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,222 @@
+package workshop.network;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed disk cache of response bodies, keyed by URL, evicting least recently used entries
+ * once the stored bytes exceed a limit.
+ *
+ * Layout under the cache directory:
+ * <ul>
+ *   <li>{@code objects/<sha-256>}: one file per distinct body; URLs with identical content share it;</li>
+ *   <li>{@code index.tsv}: {@code url, sha-256, size, headers as JSON} per line, least recently used
+ *       first, so LRU order survives between runs.</li>
+ * </ul>
+ * Object files are written to a temporary name and moved into place, so a crashed run never leaves a
+ * truncated body under a valid hash. The index is rewritten by {@link #flush()} and {@link #close()}.
+ * A body larger than the whole limit is written and then evicted at once. All methods are thread-safe;
+ * file reads and writes happen outside the index lock.
+ */
+public class AssetCache implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AssetCache.class);
+    private static final Json JSON = new Json();
+    private static final String INDEX = "index.tsv";
+
+    /** A cached response: where its body lives and the headers to replay with it. */
+    public static final class Entry {
+        private final String url;
+        private final String hash;
+        private final long size;
+        private final Map<String, String> headers;
+
+        Entry(String url, String hash, long size, Map<String, String> headers) {
+            this.url = url;
+            this.hash = hash;
+            this.size = size;
+            this.headers = headers;
+        }
+
+        public String getUrl() { return url; }
+        public String getHash() { return hash; }
+        public long getSize() { return size; }
+        /** Response headers stored with the body (lower-case names). */
+        public Map<String, String> getHeaders() { return headers; }
+    }
+
+    private final Path dir;
+    private final Path objects;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> byUrl = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> refsByHash = new HashMap<>();
+    private long storedBytes;
+    private long evictions;
+
+    /** Open (or create) the cache in {@code dir}, holding at most {@code maxBytes} of bodies. */
+    public AssetCache(Path dir, long maxBytes) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be positive");
+        this.dir = dir;
+        this.objects = dir.resolve("objects");
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(objects);
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open asset cache in " + dir, e);
+        }
+        synchronized (this) {
+            evictOverLimit();
+        }
+        logger.info("Asset cache {}: {} entries, {} KB of {} KB", dir.toAbsolutePath(), byUrl.size(),
+                storedBytes / 1024, maxBytes / 1024);
+    }
+
+    private void load() throws IOException {
+        Path index = dir.resolve(INDEX);
+        if (!Files.exists(index)) return;
+        try (BufferedReader in = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] cols = line.split("\t", 4);
+                if (cols.length < 4 || !Files.exists(objects.resolve(cols[1]))) continue;
+                Map<String, Object> raw = JSON.toType(cols[3], Json.MAP_TYPE);
+                Map<String, String> headers = new LinkedHashMap<>();
+                raw.forEach((k, v) -> headers.put(k, String.valueOf(v)));
+                put(new Entry(cols[0], cols[1], Long.parseLong(cols[2]), headers));
+            }
+        }
+    }
+
+    /** The entry for {@code url}, marking it most recently used. */
+    public synchronized Optional<Entry> lookup(String url) {
+        return Optional.ofNullable(byUrl.get(url));
+    }
+
+    /**
+     * The body of {@code entry}, or empty if its object file has gone (deleted by hand, or evicted by a
+     * concurrent store); the entry is then dropped so the next request refills it.
+     */
+    public Optional<byte[]> read(Entry entry) {
+        try {
+            return Optional.of(Files.readAllBytes(objects.resolve(entry.getHash())));
+        } catch (NoSuchFileException e) {
+            synchronized (this) {
+                if (byUrl.get(entry.getUrl()) == entry) remove(entry.getUrl());
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Store {@code body} for {@code url}, replacing any previous entry, then evict down to the limit. */
+    public Entry store(String url, byte[] body, Map<String, String> headers) {
+        String hash = sha256(body);
+        Path object = objects.resolve(hash);
+        try {
+            if (!Files.exists(object)) {
+                Path tmp = Files.createTempFile(objects, hash, ".tmp");
+                Files.write(tmp, body);
+                try {
+                    Files.move(tmp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, object, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store " + url, e);
+        }
+        Entry entry = new Entry(url, hash, body.length, Map.copyOf(headers));
+        synchronized (this) {
+            remove(url);
+            put(entry);
+            evictOverLimit();
+        }
+        return entry;
+    }
+
+    private void put(Entry entry) {
+        byUrl.put(entry.getUrl(), entry);
+        if (refsByHash.merge(entry.getHash(), 1, Integer::sum) == 1) storedBytes += entry.getSize();
+    }
+
+    private void remove(String url) {
+        Entry old = byUrl.remove(url);
+        if (old == null) return;
+        int refs = refsByHash.merge(old.getHash(), -1, Integer::sum);
+        if (refs > 0) return;
+        refsByHash.remove(old.getHash());
+        storedBytes -= old.getSize();
+        try {
+            Files.deleteIfExists(objects.resolve(old.getHash()));
+        } catch (IOException e) {
+            logger.debug("Could not delete cached object {}", old.getHash(), e);
+        }
+    }
+
+    private void evictOverLimit() {
+        while (storedBytes > maxBytes && !byUrl.isEmpty()) {
+            remove(byUrl.keySet().iterator().next());
+            evictions++;
+        }
+    }
+
+    public synchronized int entryCount() { return byUrl.size(); }
+
+    /** Bytes of distinct bodies on disk. */
+    public synchronized long storedBytes() { return storedBytes; }
+
+    public long maxBytes() { return maxBytes; }
+
+    public synchronized long evictionCount() { return evictions; }
+
+    /** Rewrite the index in LRU order. */
+    public synchronized void flush() {
+        Path index = dir.resolve(INDEX);
+        try {
+            Path tmp = Files.createTempFile(dir, INDEX, ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Entry e : byUrl.values()) {
+                    out.write(e.getUrl() + "\t" + e.getHash() + "\t" + e.getSize() + "\t"
+                            + JSON.toJson(e.getHeaders()).replace('\n', ' ') + "\n");
+                }
+            }
+            Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write asset cache index", e);
+        }
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(body)) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,13 @@
+package workshop.network;
+
+/**
+ * What an {@link EventRing} does when the producer (the BiDi reader thread) outruns the consumer.
+ */
+public enum Backpressure {
+    /** Overwrite the oldest queued event; the producer never waits. */
+    DROP_OLDEST,
+    /** Park the producer until the consumer frees a slot. Lossless, but stalls the BiDi socket. */
+    BLOCK,
+    /** Once the ring is half full keep only every Nth event; if it still fills up, drop the oldest. */
+    SAMPLE
+}
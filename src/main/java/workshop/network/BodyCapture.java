@@ -0,0 +1,343 @@
+package workshop.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.BiDi;
+import org.openqa.selenium.bidi.Command;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.network.RequestData;
+import org.openqa.selenium.bidi.network.ResponseData;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Captures response bodies with BiDi network data collection, into a {@link BodyStore}.
+ *
+ * The constructor registers a collector (network.addDataCollector) so the browser keeps response bodies
+ * up to {@code maxBodySize}. Used as the sink of a {@link NetworkCapture}, every responseCompleted whose
+ * URL and MIME type pass the filters is fetched with network.getData (disowning the browser's copy) on a
+ * small worker pool and written straight into the store: base64 is decoded and text encoded in small
+ * chunks into the off-heap buffer, so no body-sized byte[] is ever built. Bodies are keyed by request id;
+ * {@link #captured()} lists what was captured, and {@link #json}, {@link #text} and {@link #read} give
+ * access for assertions.
+ *
+ * Selenium has no typed API for data collectors yet, so the commands are sent as raw {@link Command}s.
+ * The browser still sends each body inside one JSON message, so its text form passes through the heap
+ * once while it is decoded.
+ */
+public class BodyCapture implements NetworkEventSink {
+    private static final Logger logger = LoggerFactory.getLogger(BodyCapture.class);
+    private static final Json JSON = new Json();
+    private static final int MAX_LISTED = 10_000;
+
+    /** JSON MIME types: application/json and anything ending in +json. */
+    public static final Predicate<String> JSON_MIME = mime -> {
+        String m = NetworkMetrics.mimeOf(mime);
+        return m.equals("application/json") || m.endsWith("+json");
+    };
+
+    private final BiDi bidi;
+    private final BodyStore store;
+    private final Predicate<String> urls;
+    private final Predicate<String> mimeTypes;
+    private final String collector;
+    private final ExecutorService workers;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Map<String, Captured> listed = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Captured> eldest) {
+            return size() > MAX_LISTED;
+        }
+    };
+
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    /** A captured response; its body is in the store while {@link BodyStore#read} still finds it. */
+    public static final class Captured {
+        private final String requestId;
+        private final String url;
+        private final String mimeType;
+        private final int status;
+        private final int size;
+
+        Captured(String requestId, String url, String mimeType, int status, int size) {
+            this.requestId = requestId;
+            this.url = url;
+            this.mimeType = mimeType;
+            this.status = status;
+            this.size = size;
+        }
+
+        public String getRequestId() { return requestId; }
+        public String getUrl() { return url; }
+        public String getMimeType() { return mimeType; }
+        public int getStatus() { return status; }
+        public int getSize() { return size; }
+
+        @Override
+        public String toString() {
+            return status + " " + url + " (" + mimeType + ", " + size + " bytes)";
+        }
+    }
+
+    /** Capture JSON responses of any URL, up to 10 MB each. */
+    public BodyCapture(WebDriver driver, BodyStore store) {
+        this(driver, store, url -> true, JSON_MIME, 10 << 20);
+    }
+
+    /**
+     * @param urls        responses whose URL passes are captured...
+     * @param mimeTypes   ...if their MIME type passes too
+     * @param maxBodySize bodies larger than this (encoded) are not kept by the browser
+     */
+    public BodyCapture(WebDriver driver, BodyStore store, Predicate<String> urls, Predicate<String> mimeTypes,
+                       int maxBodySize) {
+        this.bidi = ((HasBiDi) driver).getBiDi();
+        this.store = store;
+        this.urls = urls;
+        this.mimeTypes = mimeTypes;
+        AtomicInteger n = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "body-capture-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("dataTypes", List.of("response"));
+        params.put("maxEncodedDataSize", maxBodySize);
+        this.collector = bidi.send(new Command<>("network.addDataCollector", params, input -> {
+            Map<String, Object> result = input.read(Json.MAP_TYPE);
+            return String.valueOf(result.get("collector"));
+        }));
+    }
+
+    @Override
+    public void accept(CapturedEvent event) {
+        if (event.getKind() != CapturedEvent.Kind.RESPONSE) return;
+        RequestData request = event.getRequest();
+        ResponseData response = event.getResponse();
+        if (request == null || response == null) return;
+        if (!urls.test(request.getUrl()) || !mimeTypes.test(response.getMimeType())) return;
+        matched.increment();
+        pending.incrementAndGet();
+        workers.execute(() -> {
+            try {
+                fetch(request.getRequestId(), request.getUrl(), response.getMimeType(), response.getStatus());
+            } catch (RuntimeException e) {
+                logger.warn("Could not store body of {}", request.getUrl(), e);
+            } finally {
+                synchronized (pending) {
+                    if (pending.decrementAndGet() == 0) pending.notifyAll();
+                }
+            }
+        });
+    }
+
+    private void fetch(String requestId, String url, String mimeType, int status) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("dataType", "response");
+        params.put("collector", collector);
+        params.put("request", requestId);
+        params.put("disown", true);
+        Map<String, Object> result;
+        try {
+            result = bidi.send(new Command<>("network.getData", params, Json.MAP_TYPE));
+        } catch (RuntimeException e) {
+            // Evicted by the browser, over maxEncodedDataSize, or the request had no body.
+            unavailable.increment();
+            logger.debug("No body for {} {}", requestId, url, e);
+            return;
+        }
+        Object value = result.get("bytes");
+        if (!(value instanceof Map)) {
+            unavailable.increment();
+            return;
+        }
+        Map<?, ?> data = (Map<?, ?>) value;
+        String text = String.valueOf(data.get("value"));
+        boolean base64 = "base64".equals(data.get("type"));
+        int size = base64 ? decodedLength(text) : utf8Length(text);
+        boolean kept = store.store(requestId, size, buffer -> {
+            if (base64) decodeBase64(text, buffer); else encodeUtf8(text, buffer);
+        });
+        if (!kept) return;
+        stored.increment();
+        bytes.add(size);
+        synchronized (listed) {
+            listed.put(requestId, new Captured(requestId, url, mimeType, status, size));
+        }
+    }
+
+    static int decodedLength(String base64) {
+        int length = 0;
+        int padding = 0;
+        for (int i = 0; i < base64.length(); i++) {
+            char c = base64.charAt(i);
+            if (c == '=') padding++;
+            else if (!Character.isWhitespace(c)) length++;
+        }
+        return (length + padding) / 4 * 3 - padding;
+    }
+
+    static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) length++;
+            else if (c < 0x800) length += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else length += 3;
+        }
+        return length;
+    }
+
+    private static void encodeUtf8(String text, ByteBuffer out) {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        CoderResult result = encoder.encode(CharBuffer.wrap(text), out, true);
+        if (!result.isUnderflow()) throw new IllegalStateException("Body does not fit: " + result);
+        encoder.flush(out);
+    }
+
+    /** Decode through an 8 KB scratch array, so the decoded body is only ever written to {@code out}. */
+    private static void decodeBase64(String text, ByteBuffer out) {
+        byte[] chunk = new byte[8192];
+        try (InputStream in = Base64.getMimeDecoder().wrap(new CharsInputStream(text))) {
+            int n;
+            while ((n = in.read(chunk)) > 0) out.put(chunk, 0, Math.min(n, out.remaining()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The chars of an ASCII string as bytes, without copying it into an array. */
+    private static final class CharsInputStream extends InputStream {
+        private final String text;
+        private int position;
+
+        CharsInputStream(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read() {
+            return position < text.length() ? text.charAt(position++) & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= text.length()) return -1;
+            int n = Math.min(len, text.length() - position);
+            for (int i = 0; i < n; i++) b[off + i] = (byte) text.charAt(position++);
+            return n;
+        }
+    }
+
+    /** Wait until every matched response has been fetched (or has failed). */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                long millis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (millis <= 0) return false;
+                pending.wait(millis);
+            }
+        }
+        return true;
+    }
+
+    /** Captured responses in arrival order (the most recent {@value #MAX_LISTED}). */
+    public List<Captured> captured() {
+        synchronized (listed) {
+            return new ArrayList<>(listed.values());
+        }
+    }
+
+    /** The most recent captured response whose URL contains {@code urlPart}. */
+    public Optional<Captured> latest(String urlPart) {
+        List<Captured> all = captured();
+        for (int i = all.size() - 1; i >= 0; i--) {
+            if (all.get(i).getUrl().contains(urlPart)) return Optional.of(all.get(i));
+        }
+        return Optional.empty();
+    }
+
+    /** Apply {@code reader} to the stored body of {@code requestId}, without copying it. */
+    public <T> Optional<T> read(String requestId, Function<ByteBuffer, T> reader) {
+        return store.read(requestId, reader);
+    }
+
+    public Optional<String> text(String requestId) {
+        return store.read(requestId, body -> StandardCharsets.UTF_8.decode(body).toString());
+    }
+
+    /** The body parsed as JSON: a Map, List, String, Number, Boolean or null (as empty). */
+    public Optional<Object> json(String requestId) {
+        return text(requestId).map(text -> JSON.toType(text, Object.class));
+    }
+
+    /** Responses that passed the filters. */
+    public long matchedCount() { return matched.sum(); }
+
+    /** Bodies written to the store. */
+    public long storedCount() { return stored.sum(); }
+
+    /** Matched responses the browser had no body for. */
+    public long unavailableCount() { return unavailable.sum(); }
+
+    public String summary() {
+        return String.format("body capture: %d matched, %d stored (%d KB), %d unavailable; %s",
+                matchedCount(), storedCount(), bytes.sum() / 1024, unavailableCount(), store.summary());
+    }
+
+    /**
+     * Finish pending fetches and remove the collector; a {@link NetworkCapture} calls this when it closes.
+     * Does not close the store, so bodies can still be read afterwards.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) workers.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        try {
+            bidi.send(new Command<>("network.removeDataCollector", Map.of("collector", collector), Map.class));
+        } catch (RuntimeException e) {
+            logger.debug("Could not remove data collector {}", collector, e);
+        }
+        logger.info("{}", summary());
+    }
+}
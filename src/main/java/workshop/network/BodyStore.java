@@ -0,0 +1,349 @@
+package workshop.network;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Response bodies kept outside the Java heap, under one byte budget.
+ *
+ * Bodies up to {@code maxPooledSize} go into direct buffers taken from per-size-class free lists (powers
+ * of two from 1 KB), which are returned to the pool on eviction and reused, so steady-state capture
+ * allocates nothing. Larger bodies are spilled to temporary files under {@code spillDirectory} and
+ * memory-mapped. Stored bodies and the buffers waiting on the free lists all count against
+ * {@code budget} by capacity, so the pool's direct memory never exceeds it. A new body takes a free
+ * buffer of its size class if there is one; otherwise room is made by dropping free buffers of other
+ * classes first (left to the garbage collector) and then by evicting the least recently used bodies
+ * that are not being read. A body is not stored (and counted as rejected) when it is larger than the
+ * whole budget or when the bodies being read leave too little room; nothing is evicted for it then.
+ *
+ * A spilled body's file is deleted on eviction, but the file system only frees its blocks once the
+ * mapping is garbage collected; until then those bytes are no longer charged to the budget and are
+ * reported by {@link #unmappedBytes()} instead. Heap pressure, not the budget, decides when they go.
+ *
+ * Bodies are read through {@link #read}: the reader gets a read-only view of the stored bytes with no
+ * copy, and the body is pinned (never evicted or recycled) until the reader returns. Don't keep the
+ * buffer after that. All methods are thread-safe; writing and reading happen outside the store lock.
+ */
+public class BodyStore implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BodyStore.class);
+
+    static final int MIN_CLASS_SIZE = 1024;
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final long budget;
+    private final int maxPooledSize;
+    private final Path spillDirectory;
+    private final List<Deque<ByteBuffer>> free;
+
+    private final Map<String, Body> bodies = new LinkedHashMap<>(16, 0.75f, true); // access order = LRU
+    private long usedBytes;
+    private long freeBytes;
+    private long pinnedBytes; // bodies being read or written: not evictable
+    private long pooledBytes;
+    private long spilledCount;
+    private long evictedCount;
+    private long rejectedCount;
+    private long spillSequence;
+    private final LongAdder unmapped = new LongAdder();
+    private boolean closed;
+
+    /**
+     * @param budget         total bytes of pooled buffers, in use or free, plus spilled files
+     * @param maxPooledSize  largest body kept in a pooled direct buffer (rounded up to a power of two)
+     * @param spillDirectory where larger bodies are mapped; created if missing, its files deleted on close
+     */
+    public BodyStore(long budget, int maxPooledSize, Path spillDirectory) {
+        this.budget = budget;
+        this.maxPooledSize = classSize(Math.max(maxPooledSize, MIN_CLASS_SIZE));
+        this.spillDirectory = spillDirectory;
+        int classes = Integer.numberOfTrailingZeros(this.maxPooledSize) - Integer.numberOfTrailingZeros(MIN_CLASS_SIZE) + 1;
+        this.free = new ArrayList<>(classes);
+        for (int i = 0; i < classes; i++) free.add(new ArrayDeque<>());
+        try {
+            Files.createDirectories(spillDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create spill directory " + spillDirectory, e);
+        }
+    }
+
+    /** A stored body: a pooled slot or a mapped file, with {@code size} valid bytes. */
+    private static final class Body {
+        final ByteBuffer buffer;
+        final Path file; // null when pooled
+        final int size;
+        int pins;
+        boolean evicted;
+
+        Body(ByteBuffer buffer, Path file, int size) {
+            this.buffer = buffer;
+            this.file = file;
+            this.size = size;
+        }
+
+        long charge() {
+            return buffer.capacity();
+        }
+    }
+
+    static int classSize(int size) {
+        return Math.max(MIN_CLASS_SIZE, Integer.highestOneBit(Math.max(1, size - 1)) << 1);
+    }
+
+    private int classIndex(int classSize) {
+        return Integer.numberOfTrailingZeros(classSize) - Integer.numberOfTrailingZeros(MIN_CLASS_SIZE);
+    }
+
+    /**
+     * Store {@code size} bytes under {@code key}, produced by {@code writer} into a buffer positioned at 0
+     * with exactly {@code size} bytes remaining. Replaces an existing body with the same key.
+     *
+     * @return false if the body does not fit the budget, even after evicting every body not being read,
+     *         or the store is closed
+     */
+    public boolean store(String key, int size, Consumer<ByteBuffer> writer) {
+        boolean pooled = size <= maxPooledSize;
+        long charge = pooled ? classSize(size) : size;
+        ByteBuffer buffer;
+        Path file = null;
+        synchronized (this) {
+            if (closed || charge > budget) {
+                rejectedCount++;
+                return false;
+            }
+            remove(key);
+            int sizeClass = pooled ? classIndex((int) charge) : -1;
+            buffer = takeFree(sizeClass);
+            if (buffer == null) {
+                if (!makeRoom(charge, sizeClass)) {
+                    rejectedCount++;
+                    return false;
+                }
+                buffer = takeFree(sizeClass); // eviction may have freed one of the right size
+            }
+            usedBytes += charge;
+            pinnedBytes += charge;
+            if (pooled && buffer == null) pooledBytes += charge;
+            if (!pooled) {
+                spilledCount++;
+                file = spillDirectory.resolve("body-" + (++spillSequence) + ".bin");
+            }
+        }
+        try {
+            if (pooled) {
+                if (buffer == null) buffer = ByteBuffer.allocateDirect((int) charge);
+                buffer.clear().limit(size);
+            } else {
+                buffer = map(file, size);
+            }
+            writer.accept(buffer.duplicate());
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                usedBytes -= charge;
+                pinnedBytes -= charge;
+                if (buffer != null && file == null) {
+                    free.get(classIndex((int) charge)).push(buffer);
+                    freeBytes += charge;
+                }
+            }
+            deleteQuietly(file);
+            if (e instanceof IOException) throw new UncheckedIOException("Could not spill body " + key, (IOException) e);
+            throw (RuntimeException) e;
+        }
+        Body body = new Body(buffer, file, size);
+        synchronized (this) {
+            pinnedBytes -= charge;
+            if (closed) {
+                release(body);
+                return false;
+            }
+            remove(key);
+            bodies.put(key, body);
+        }
+        return true;
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /** A free buffer of size class {@code sizeClass} (-1: none wanted), now charged as used. Caller holds the lock. */
+    private ByteBuffer takeFree(int sizeClass) {
+        if (sizeClass < 0) return null;
+        ByteBuffer buffer = free.get(sizeClass).poll();
+        if (buffer != null) freeBytes -= buffer.capacity();
+        return buffer;
+    }
+
+    /**
+     * Make room for {@code charge} new bytes: drop free buffers of other size classes, then evict least
+     * recently used, unpinned bodies, stopping early once a free buffer of {@code sizeClass} turns up.
+     * False, with nothing dropped or evicted, if pinned bodies leave too little room. Caller holds the lock.
+     */
+    private boolean makeRoom(long charge, int sizeClass) {
+        if (pinnedBytes + charge > budget) return false;
+        Iterator<Map.Entry<String, Body>> it = bodies.entrySet().iterator();
+        while (usedBytes + freeBytes + charge > budget) {
+            if (sizeClass >= 0 && !free.get(sizeClass).isEmpty()) return true;
+            if (dropFree(sizeClass)) continue;
+            Body body = it.next().getValue(); // can't run out: the pinned bodies alone leave room
+            if (body.pins > 0) continue;
+            it.remove();
+            evictedCount++;
+            release(body);
+        }
+        return true;
+    }
+
+    /** Drop one free buffer, largest size class first, not of {@code keep}; false if there is none. */
+    private boolean dropFree(int keep) {
+        for (int i = free.size() - 1; i >= 0; i--) {
+            if (i == keep) continue;
+            ByteBuffer buffer = free.get(i).poll();
+            if (buffer != null) {
+                freeBytes -= buffer.capacity();
+                pooledBytes -= buffer.capacity();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void remove(String key) {
+        Body old = bodies.remove(key);
+        if (old != null) {
+            if (old.pins > 0) {
+                old.evicted = true; // released by the last unpin
+            } else {
+                release(old);
+            }
+        }
+    }
+
+    /** Return a body's space to the budget: pooled buffers to their free list, spilled files deleted. */
+    private void release(Body body) {
+        usedBytes -= body.charge();
+        if (body.file == null) {
+            free.get(classIndex(body.buffer.capacity())).push(body.buffer);
+            freeBytes += body.charge();
+        } else {
+            deleteQuietly(body.file);
+            // The blocks stay allocated while the mapping is reachable; count them until it is collected.
+            long size = body.size;
+            LongAdder counter = unmapped;
+            counter.add(size);
+            CLEANER.register(body.buffer, () -> counter.add(-size));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Could not delete spill file {}", file, e);
+        }
+    }
+
+    /**
+     * Apply {@code reader} to a read-only view of the body stored under {@code key} (position 0, limit its
+     * size), or return empty if there is none. The body cannot be evicted while the reader runs.
+     */
+    public <T> Optional<T> read(String key, Function<ByteBuffer, T> reader) {
+        Body body;
+        synchronized (this) {
+            body = bodies.get(key);
+            if (body == null) return Optional.empty();
+            if (body.pins++ == 0) pinnedBytes += body.charge();
+        }
+        try {
+            ByteBuffer view = body.buffer.asReadOnlyBuffer();
+            view.position(0).limit(body.size);
+            return Optional.ofNullable(reader.apply(view));
+        } finally {
+            synchronized (this) {
+                if (--body.pins == 0) {
+                    pinnedBytes -= body.charge();
+                    if (body.evicted) release(body);
+                }
+            }
+        }
+    }
+
+    public synchronized boolean contains(String key) {
+        return bodies.containsKey(key);
+    }
+
+    /** Size of the body under {@code key}, or -1. */
+    public synchronized int size(String key) {
+        Body body = bodies.get(key);
+        return body == null ? -1 : body.size;
+    }
+
+    public synchronized int entryCount() { return bodies.size(); }
+
+    /** Bytes of stored bodies: pooled slot capacities plus spilled body sizes. */
+    public synchronized long usedBytes() { return usedBytes; }
+
+    /** Capacity of the pooled buffers waiting on the free lists; charged against the budget as well. */
+    public synchronized long freeBytes() { return freeBytes; }
+
+    /** Direct memory held by the pool, in use or free; at most the budget. */
+    public synchronized long pooledBytes() { return pooledBytes; }
+
+    public synchronized long spilledCount() { return spilledCount; }
+
+    public synchronized long evictionCount() { return evictedCount; }
+
+    /** Bodies not stored because they did not fit the budget. */
+    public synchronized long rejectedCount() { return rejectedCount; }
+
+    /** Bytes of deleted spill files whose mapping has not been garbage collected yet, so still on disk. */
+    public long unmappedBytes() { return unmapped.sum(); }
+
+    public synchronized String summary() {
+        return String.format("body store: %d bodies, %d KB of %d KB budget used (%d KB in free buffers), "
+                        + "%d KB pooled off-heap, %d spilled to disk (%d KB deleted, awaiting unmap), "
+                        + "%d evicted, %d rejected",
+                bodies.size(), (usedBytes + freeBytes) / 1024, budget / 1024, freeBytes / 1024,
+                pooledBytes / 1024, spilledCount, unmappedBytes() / 1024, evictedCount, rejectedCount);
+    }
+
+    /** Drop every body and delete the spill files. Pinned bodies are released when their reader returns. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            for (String key : bodies.keySet().toArray(new String[0])) remove(key);
+            for (Deque<ByteBuffer> list : free) list.clear();
+            pooledBytes -= freeBytes;
+            freeBytes = 0;
+        }
+        logger.info("{}", summary());
+    }
+}
@@ -0,0 +1,303 @@
+package workshop.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.Event;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.AddInterceptParameters;
+import org.openqa.selenium.bidi.network.BeforeRequestSent;
+import org.openqa.selenium.bidi.network.BytesValue;
+import org.openqa.selenium.bidi.network.ContinueRequestParameters;
+import org.openqa.selenium.bidi.network.Header;
+import org.openqa.selenium.bidi.network.InterceptPhase;
+import org.openqa.selenium.bidi.network.ProvideResponseParameters;
+import org.openqa.selenium.bidi.network.RequestData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.session.ScopedSubscription;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Serves static assets from an {@link AssetCache} through BiDi request interception, so repeated page
+ * loads never wait on the origin.
+ *
+ * A network.addIntercept in the beforeRequestSent phase pauses every request. Requests that are not
+ * cacheable (not GET, not a static asset by {@link #STATIC_ASSETS}, or sent with cookies or an
+ * Authorization header, whose response may be per user) are released at once with
+ * network.continueRequest. A cached asset is answered with network.provideResponse from disk (a hit).
+ * On a miss the asset is fetched once from the origin in Java, stored, and provided the same way, so the
+ * browser gets it without a second trip; failed fetches fall back to continueRequest. CORS requests are
+ * cached per Origin header (the stored Access-Control-Allow-Origin is only right for that origin), and a
+ * response that varies on any other request header ({@code Vary}) is provided but not stored.
+ *
+ * The subscription has to exist before the intercept is added, so a request can be paused before
+ * addIntercept has returned the intercept id; it is held until the id is known and then handled if the
+ * intercept is ours. Paused requests are handled on a small pool, never on Selenium's event dispatch
+ * thread. Counts are kept for hits, misses, pass-throughs and errors; {@link #hitRatio()} is hits /
+ * (hits + misses). Provided responses carry {@code x-workshop-cache: hit|miss} so they can be told
+ * apart in DevTools.
+ */
+public class CachingInterceptor implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CachingInterceptor.class);
+
+    private static final Set<String> STATIC_EXTENSIONS = Set.of("js", "mjs", "css", "png", "jpg", "jpeg", "gif",
+            "webp", "avif", "svg", "ico", "woff", "woff2", "ttf", "otf");
+
+    /** JS, CSS, images and fonts, by path extension. */
+    public static final Predicate<String> STATIC_ASSETS = url -> {
+        String path = URI.create(url).getPath();
+        int dot = path == null ? -1 : path.lastIndexOf('.');
+        return dot >= 0 && STATIC_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    };
+
+    /** Request headers that make a response specific to the user; such requests are never cached. */
+    private static final Set<String> CREDENTIAL_HEADERS = Set.of("cookie", "authorization");
+    /** Request headers passed on to the origin on a miss; the rest are the browser's business. */
+    private static final Set<String> FORWARDED_REQUEST_HEADERS = Set.of("user-agent", "accept", "accept-language", "referer",
+            "origin");
+    /** Vary values a stored response may have: the cache key includes the origin; bodies are stored decoded. */
+    private static final Set<String> KEYED_VARY = Set.of("origin", "accept-encoding");
+    /** Response headers stored with the body and replayed on hits. */
+    private static final Set<String> STORED_RESPONSE_HEADERS = Set.of("content-type", "access-control-allow-origin",
+            "timing-allow-origin", "content-language");
+
+    private final AssetCache cache;
+    private final Network network;
+    private final Predicate<String> cacheable;
+    private final HttpClient origin;
+    private final Duration fetchTimeout;
+    private final ExecutorService workers;
+    private final ScopedSubscription subscription;
+    private final CompletableFuture<String> interceptId = new CompletableFuture<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder passedThrough = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesFromCache = new LongAdder();
+    private final LongAdder bytesFromOrigin = new LongAdder();
+
+    public CachingInterceptor(WebDriver driver, AssetCache cache) {
+        this(driver, cache, STATIC_ASSETS, Duration.ofSeconds(30));
+    }
+
+    /** Cache GET requests whose URL matches {@code cacheable}; origin fetches give up after {@code fetchTimeout}. */
+    public CachingInterceptor(WebDriver driver, AssetCache cache, Predicate<String> cacheable, Duration fetchTimeout) {
+        this.cache = cache;
+        this.network = new Network(driver);
+        this.cacheable = cacheable;
+        this.fetchTimeout = fetchTimeout;
+        this.origin = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(fetchTimeout)
+                .build();
+        AtomicInteger n = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(8, r -> {
+            Thread t = new Thread(r, "asset-cache-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.subscription = ScopedSubscription.open(driver, List.of(), "network.beforeRequestSent");
+        subscription.on(new Event<>("network.beforeRequestSent", BeforeRequestSent::fromJsonMap), this::onRequest);
+        try {
+            interceptId.complete(network.addIntercept(new AddInterceptParameters(InterceptPhase.BEFORE_REQUEST_SENT)));
+        } catch (RuntimeException e) {
+            interceptId.completeExceptionally(e);
+            subscription.close();
+            workers.shutdownNow();
+            throw e;
+        }
+    }
+
+    private void onRequest(BeforeRequestSent event) {
+        if (!event.isBlocked() || event.getIntercepts() == null) return;
+        // Runs at once when the id is known; a request paused before addIntercept returned waits for it.
+        interceptId.thenAcceptAsync(ours -> {
+            if (event.getIntercepts().contains(ours)) handle(event.getRequest());
+        }, workers);
+    }
+
+    private void handle(RequestData request) {
+        String id = request.getRequestId();
+        try {
+            String url = request.getUrl();
+            if (!"GET".equalsIgnoreCase(request.getMethod()) || !isCacheable(url) || hasCredentials(request)) {
+                passedThrough.increment();
+                network.continueRequest(new ContinueRequestParameters(id));
+                return;
+            }
+            String key = cacheKey(url, request);
+            Optional<AssetCache.Entry> cached = cache.lookup(key);
+            Optional<byte[]> body = cached.flatMap(cache::read);
+            if (body.isPresent()) {
+                hits.increment();
+                bytesFromCache.add(body.get().length);
+                provide(id, 200, cached.get().getHeaders(), body.get(), "hit");
+                return;
+            }
+            misses.increment();
+            HttpResponse<byte[]> response = fetch(request);
+            Map<String, String> headers = storedHeaders(response);
+            bytesFromOrigin.add(response.body().length);
+            if (response.statusCode() == 200 && isStorable(response)) cache.store(key, response.body(), headers);
+            provide(id, response.statusCode(), headers, response.body(), "miss");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(id);
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            logger.debug("Serving {} from cache failed, continuing to origin", request.getUrl(), e);
+            release(id);
+        }
+    }
+
+    private boolean isCacheable(String url) {
+        try {
+            return cacheable.test(url);
+        } catch (IllegalArgumentException malformed) {
+            return false;
+        }
+    }
+
+    private static boolean hasCredentials(RequestData request) {
+        if (request.getCookies() != null && !request.getCookies().isEmpty()) return true;
+        for (Header header : request.getHeaders()) {
+            if (CREDENTIAL_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) return true;
+        }
+        return false;
+    }
+
+    /** The URL, plus the Origin header for CORS requests. */
+    private static String cacheKey(String url, RequestData request) {
+        for (Header header : request.getHeaders()) {
+            if (header.getName().equalsIgnoreCase("origin") && header.getValue().getType() == BytesValue.Type.STRING) {
+                return url + " origin=" + header.getValue().getValue();
+            }
+        }
+        return url;
+    }
+
+    /** False when the response varies on a request header the cache key does not cover. */
+    private static boolean isStorable(HttpResponse<?> response) {
+        for (String vary : response.headers().allValues("vary")) {
+            for (String name : vary.split(",")) {
+                String lower = name.trim().toLowerCase(Locale.ROOT);
+                if (!lower.isEmpty() && !KEYED_VARY.contains(lower)) return false;
+            }
+        }
+        return true;
+    }
+
+    private HttpResponse<byte[]> fetch(RequestData request) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl())).timeout(fetchTimeout).GET();
+        for (Header header : request.getHeaders()) {
+            String name = header.getName().toLowerCase(Locale.ROOT);
+            if (FORWARDED_REQUEST_HEADERS.contains(name) && header.getValue().getType() == BytesValue.Type.STRING) {
+                builder.header(header.getName(), header.getValue().getValue());
+            }
+        }
+        return origin.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static Map<String, String> storedHeaders(HttpResponse<?> response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (STORED_RESPONSE_HEADERS.contains(lower) && !values.isEmpty()) headers.put(lower, values.get(0));
+        });
+        return headers;
+    }
+
+    private void provide(String requestId, int status, Map<String, String> headers, byte[] body, String source) {
+        List<Header> list = new ArrayList<>();
+        headers.forEach((name, value) -> list.add(new Header(name, new BytesValue(BytesValue.Type.STRING, value))));
+        list.add(new Header("x-workshop-cache", new BytesValue(BytesValue.Type.STRING, source)));
+        network.provideResponse(new ProvideResponseParameters(requestId)
+                .statusCode(status)
+                .headers(list)
+                .body(new BytesValue(BytesValue.Type.BASE64, Base64.getEncoder().encodeToString(body))));
+    }
+
+    private void release(String requestId) {
+        try {
+            network.continueRequest(new ContinueRequestParameters(requestId));
+        } catch (RuntimeException e) {
+            logger.debug("Could not continue request {}", requestId, e);
+        }
+    }
+
+    public long hitCount() { return hits.sum(); }
+
+    public long missCount() { return misses.sum(); }
+
+    /** Requests released untouched because they were not cacheable or carried credentials. */
+    public long passedThroughCount() { return passedThrough.sum(); }
+
+    public long errorCount() { return errors.sum(); }
+
+    /** hits / (hits + misses), or 0 before the first cacheable request. */
+    public double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /** Zero the counters, e.g. between a warm-up load and the measured ones. */
+    public void resetCounts() {
+        hits.reset();
+        misses.reset();
+        passedThrough.reset();
+        errors.reset();
+        bytesFromCache.reset();
+        bytesFromOrigin.reset();
+    }
+
+    public String summary() {
+        return String.format("asset cache: %d hits, %d misses (hit ratio %.1f%%), %d passed through, %d errors; "
+                        + "%d KB from cache, %d KB from origin; %d entries, %d KB stored, %d evictions",
+                hitCount(), missCount(), hitRatio() * 100, passedThroughCount(), errorCount(),
+                bytesFromCache.sum() / 1024, bytesFromOrigin.sum() / 1024,
+                cache.entryCount(), cache.storedBytes() / 1024, cache.evictionCount());
+    }
+
+    /** Remove the intercept, finish requests in hand and write the cache index. Does not close the cache. */
+    @Override
+    public void close() {
+        String id = interceptId.join();
+        try {
+            network.removeIntercept(id);
+        } catch (RuntimeException e) {
+            logger.debug("Could not remove intercept {}", id, e);
+        }
+        subscription.close();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS)) workers.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        cache.flush();
+        logger.info("{}", summary());
+    }
+}
@@ -0,0 +1,64 @@
+package workshop.network;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tuning knobs for {@link NetworkCapture}, in the same fluent style as Selenium's BiDi parameter classes.
+ *
+ * <pre>{@code
+ * new CaptureOptions().capacity(8192).backpressure(Backpressure.SAMPLE).sampleEvery(4)
+ * }</pre>
+ */
+public class CaptureOptions {
+    private int capacity = 4096;
+    private Backpressure backpressure = Backpressure.DROP_OLDEST;
+    private int sampleEvery = 1;
+    private int batchSize = 256;
+    private Set<String> contexts = Collections.emptySet();
+
+    /** Ring buffer slots (default 4096). */
+    public CaptureOptions capacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1: " + capacity);
+        this.capacity = capacity;
+        return this;
+    }
+
+    /** Overflow policy (default {@link Backpressure#DROP_OLDEST}). */
+    public CaptureOptions backpressure(Backpressure backpressure) {
+        this.backpressure = Objects.requireNonNull(backpressure, "backpressure");
+        return this;
+    }
+
+    /** For {@link Backpressure#SAMPLE}: keep 1 in N events once the ring is half full. */
+    public CaptureOptions sampleEvery(int sampleEvery) {
+        if (sampleEvery < 1) throw new IllegalArgumentException("sampleEvery must be >= 1: " + sampleEvery);
+        this.sampleEvery = sampleEvery;
+        return this;
+    }
+
+    /** Maximum events handed to the sink per drain (default 256). */
+    public CaptureOptions batchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1: " + batchSize);
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /** Only subscribe for these browsing contexts (default: all). */
+    public CaptureOptions contexts(Set<String> contexts) {
+        this.contexts = Collections.unmodifiableSet(new HashSet<>(contexts));
+        return this;
+    }
+
+    public int getCapacity() { return capacity; }
+
+    public Backpressure getBackpressure() { return backpressure; }
+
+    public int getSampleEvery() { return sampleEvery; }
+
+    public int getBatchSize() { return batchSize; }
+
+    public Set<String> getContexts() { return contexts; }
+}
@@ -0,0 +1,65 @@
+package workshop.network;
+
+import org.openqa.selenium.bidi.network.BeforeRequestSent;
+import org.openqa.selenium.bidi.network.FetchError;
+import org.openqa.selenium.bidi.network.RequestData;
+import org.openqa.selenium.bidi.network.ResponseData;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+
+/**
+ * Raw network event as enqueued by {@link NetworkCapture}.
+ *
+ * Only references to Selenium's already-parsed objects are kept; nothing is decoded or
+ * formatted until a {@link NetworkEventSink} sees the event on the consumer thread.
+ */
+public final class CapturedEvent {
+
+    public enum Kind { REQUEST, RESPONSE, FAILURE }
+
+    private final Kind kind;
+    private final String contextId;
+    private final long timestamp;
+    private final RequestData request;
+    private final ResponseData response;
+    private final String errorText;
+
+    private CapturedEvent(Kind kind, String contextId, long timestamp,
+                          RequestData request, ResponseData response, String errorText) {
+        this.kind = kind;
+        this.contextId = contextId;
+        this.timestamp = timestamp;
+        this.request = request;
+        this.response = response;
+        this.errorText = errorText;
+    }
+
+    public static CapturedEvent of(BeforeRequestSent e) {
+        return new CapturedEvent(Kind.REQUEST, e.getBrowsingContextId(), e.getTimestamp(),
+                e.getRequest(), null, null);
+    }
+
+    public static CapturedEvent of(ResponseDetails e) {
+        return new CapturedEvent(Kind.RESPONSE, e.getBrowsingContextId(), e.getTimestamp(),
+                e.getRequest(), e.getResponseData(), null);
+    }
+
+    public static CapturedEvent of(FetchError e) {
+        return new CapturedEvent(Kind.FAILURE, e.getBrowsingContextId(), e.getTimestamp(),
+                e.getRequest(), null, e.getErrorText());
+    }
+
+    public Kind getKind() { return kind; }
+
+    public String getContextId() { return contextId; }
+
+    /** Event timestamp as reported by the browser (ms since epoch). */
+    public long getTimestamp() { return timestamp; }
+
+    public RequestData getRequest() { return request; }
+
+    /** Present for {@link Kind#RESPONSE} only. */
+    public ResponseData getResponse() { return response; }
+
+    /** Present for {@link Kind#FAILURE} only. */
+    public String getErrorText() { return errorText; }
+}
@@ -0,0 +1,156 @@
+package workshop.network;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, array-backed ring buffer that hands events from the BiDi reader thread to a consumer stage.
+ *
+ * The producer side ({@link #offer}) only copies a reference into a pre-allocated slot; all
+ * decoding and formatting happens on whoever calls {@link #drainTo}. Overflow handling is
+ * decided by the configured {@link Backpressure} policy and every lost event is counted.
+ */
+public final class EventRing<T> {
+    private final Object[] slots;
+    private final Backpressure backpressure;
+    private final int sampleEvery;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;   // next slot to read
+    private int size;
+    private long sampleTick;
+    private boolean closed;
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder drained = new LongAdder();
+
+    public EventRing(int capacity, Backpressure backpressure, int sampleEvery) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1: " + capacity);
+        if (sampleEvery < 1) throw new IllegalArgumentException("sampleEvery must be >= 1: " + sampleEvery);
+        this.slots = new Object[capacity];
+        this.backpressure = backpressure;
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Enqueue an event. Returns {@code false} if the event itself was discarded
+     * (sampled out, ring closed, or interrupted while blocking).
+     */
+    public boolean offer(T item) {
+        offered.increment();
+        lock.lock();
+        try {
+            if (closed) {
+                dropped.increment();
+                return false;
+            }
+            if (backpressure == Backpressure.SAMPLE && size >= slots.length / 2
+                    && (sampleTick++ % sampleEvery) != 0) {
+                dropped.increment();
+                return false;
+            }
+            if (size == slots.length) {
+                if (backpressure == Backpressure.BLOCK) {
+                    while (size == slots.length && !closed) {
+                        try {
+                            notFull.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped.increment();
+                            return false;
+                        }
+                    }
+                    if (closed) {
+                        dropped.increment();
+                        return false;
+                    }
+                } else {
+                    // DROP_OLDEST, or SAMPLE that still overflowed
+                    slots[head] = null;
+                    head = (head + 1) % slots.length;
+                    size--;
+                    dropped.increment();
+                }
+            }
+            slots[(head + size) % slots.length] = item;
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move up to {@code max} events into {@code out}, waiting up to {@code timeout} for the first one.
+     * Returns the number moved; 0 means the wait timed out or the ring is closed and empty.
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(List<? super T> out, int max, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (size == 0) {
+                if (closed || nanos <= 0) return 0;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            int n = Math.min(max, size);
+            for (int i = 0; i < n; i++) {
+                out.add((T) slots[head]);
+                slots[head] = null;
+                head = (head + 1) % slots.length;
+            }
+            size -= n;
+            drained.add(n);
+            notFull.signalAll();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stop accepting events; queued events can still be drained. */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() { return slots.length; }
+
+    public long offeredCount() { return offered.sum(); }
+
+    public long droppedCount() { return dropped.sum(); }
+
+    public long drainedCount() { return drained.sum(); }
+}
@@ -0,0 +1,270 @@
+package workshop.network;
+
+import org.openqa.selenium.bidi.network.FetchTimingInfo;
+import org.openqa.selenium.bidi.network.Header;
+import org.openqa.selenium.bidi.network.RequestData;
+import org.openqa.selenium.bidi.network.ResponseData;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link NetworkEventSink} that streams captured traffic into a HAR 1.2 file.
+ *
+ * The document skeleton is written when the recorder opens, each entry is appended the moment its
+ * request completes or fails, and the closing brackets are written on {@link #close()}. Only requests
+ * still in flight are held in memory (correlated by BiDi request id, capped at {@code maxInFlight}),
+ * so memory stays flat however many entries the file ends up with.
+ *
+ * Use it behind a {@link NetworkCapture} so file I/O never runs on the BiDi reader thread:
+ * <pre>{@code
+ * new NetworkCapture(driver, new HarRecorder(Path.of("run.har")),
+ *         new CaptureOptions().backpressure(Backpressure.BLOCK))
+ * }</pre>
+ */
+public class HarRecorder implements NetworkEventSink {
+    private static final Logger logger = LoggerFactory.getLogger(HarRecorder.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Writer writer;
+    private final JsonOutput json;
+    private final int maxInFlight;
+    private final Map<String, CapturedEvent> inFlight = new LinkedHashMap<>();
+    private long entries;
+    private long evicted;
+    private boolean closed;
+
+    public HarRecorder(Path file) throws IOException {
+        this(file, 10_000);
+    }
+
+    public HarRecorder(Path file, int maxInFlight) throws IOException {
+        this.file = file;
+        this.maxInFlight = maxInFlight;
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.json = new Json().newOutput(writer).setPrettyPrint(false);
+
+        json.beginObject().name("log").beginObject()
+                .name("version").write("1.2")
+                .name("creator").beginObject()
+                    .name("name").write("webdriver-bidi-examples")
+                    .name("version").write("1.0.0")
+                .endObject()
+                .name("pages").beginArray().endArray()
+                .name("entries").beginArray();
+    }
+
+    @Override
+    public void accept(CapturedEvent event) {
+        RequestData req = event.getRequest();
+        if (req == null || closed) return;
+        String id = req.getRequestId();
+
+        switch (event.getKind()) {
+            case REQUEST:
+                inFlight.put(id, event);
+                if (inFlight.size() > maxInFlight) {
+                    Iterator<CapturedEvent> oldest = inFlight.values().iterator();
+                    CapturedEvent stale = oldest.next();
+                    oldest.remove();
+                    evicted++;
+                    writeEntry(stale, null, null, "evicted before completion");
+                }
+                break;
+            case RESPONSE:
+                writeEntry(startOf(id, event), event.getRequest(), event.getResponse(), null);
+                break;
+            case FAILURE:
+                writeEntry(startOf(id, event), event.getRequest(), null, event.getErrorText());
+                break;
+        }
+    }
+
+    /** The matching beforeRequestSent, or the event itself if we never saw one (e.g. started before subscribing). */
+    private CapturedEvent startOf(String requestId, CapturedEvent end) {
+        CapturedEvent start = inFlight.remove(requestId);
+        return start != null ? start : end;
+    }
+
+    /**
+     * Write one entry. {@code start} supplies startedDateTime and the request headers; everything else,
+     * timings in particular, comes from {@code end}, the request as of responseCompleted or fetchError.
+     * The beforeRequestSent snapshot has no response timings yet. {@code end} is null for requests that
+     * never completed.
+     */
+    private void writeEntry(CapturedEvent start, RequestData end, ResponseData res, String error) {
+        RequestData req = end != null ? end : start.getRequest();
+        FetchTimingInfo t = req.getTimings();
+
+        json.beginObject();
+        json.name("startedDateTime").write(Instant.ofEpochMilli(start.getTimestamp()).toString());
+        json.name("time").write(totalTime(t));
+
+        json.name("request").beginObject()
+                .name("method").write(req.getMethod())
+                .name("url").write(req.getUrl())
+                .name("httpVersion").write(res != null && res.getProtocol() != null ? res.getProtocol() : "");
+        json.name("cookies").beginArray().endArray();
+        writeHeaders(start.getRequest().getHeaders());
+        writeQueryString(req.getUrl());
+        json.name("headersSize").write(req.getHeadersSize() != null ? req.getHeadersSize() : -1L)
+                .name("bodySize").write(-1)
+                .endObject();
+
+        json.name("response").beginObject()
+                .name("status").write(res != null ? res.getStatus() : 0)
+                .name("statusText").write(res != null && res.getStatusText() != null ? res.getStatusText() : "")
+                .name("httpVersion").write(res != null && res.getProtocol() != null ? res.getProtocol() : "");
+        json.name("cookies").beginArray().endArray();
+        writeHeaders(res != null ? res.getHeaders() : null);
+        json.name("content").beginObject()
+                .name("size").write(res != null ? res.getContent().orElse(res.getBodySize()) : 0L)
+                .name("mimeType").write(res != null && res.getMimeType() != null ? res.getMimeType() : "")
+                .endObject();
+        json.name("redirectURL").write(res != null ? headerValue(res.getHeaders(), "location") : "")
+                .name("headersSize").write(res != null ? res.getHeadersSize() : -1L)
+                .name("bodySize").write(res != null ? res.getBodySize() : -1L);
+        if (error != null) {
+            json.name("_error").write(error);
+        }
+        json.endObject();
+
+        json.name("cache").beginObject().endObject();
+        writeTimings(t);
+        if (start.getContextId() != null) {
+            json.name("_context").write(start.getContextId());
+        }
+        json.name("_requestId").write(req.getRequestId());
+        json.endObject();
+        entries++;
+    }
+
+    private void writeHeaders(List<Header> headers) {
+        json.name("headers").beginArray();
+        if (headers != null) {
+            for (Header h : headers) {
+                json.beginObject()
+                        .name("name").write(h.getName())
+                        .name("value").write(HeaderValues.decode(h.getValue()))
+                        .endObject();
+            }
+        }
+        json.endArray();
+    }
+
+    private void writeQueryString(String url) {
+        json.name("queryString").beginArray();
+        int q = url != null ? url.indexOf('?') : -1;
+        if (q >= 0) {
+            int end = url.indexOf('#', q);
+            String query = url.substring(q + 1, end < 0 ? url.length() : end);
+            for (String pair : query.split("&")) {
+                if (pair.isEmpty()) continue;
+                int eq = pair.indexOf('=');
+                String name = eq < 0 ? pair : pair.substring(0, eq);
+                String value = eq < 0 ? "" : pair.substring(eq + 1);
+                json.beginObject()
+                        .name("name").write(decodeQuery(name))
+                        .name("value").write(decodeQuery(value))
+                        .endObject();
+            }
+        }
+        json.endArray();
+    }
+
+    private static String decodeQuery(String s) {
+        try {
+            return URLDecoder.decode(s, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException malformed) {
+            return s;
+        }
+    }
+
+    private static String headerValue(List<Header> headers, String name) {
+        if (headers == null) return "";
+        for (Header h : headers) {
+            if (name.equalsIgnoreCase(h.getName())) return HeaderValues.decode(h.getValue());
+        }
+        return "";
+    }
+
+    /** HAR timings from the BiDi fetch timing info (ms relative to timeOrigin; 0 means "not reached"). */
+    private void writeTimings(FetchTimingInfo t) {
+        json.name("timings").beginObject();
+        if (t == null) {
+            json.name("send").write(0).name("wait").write(0).name("receive").write(0);
+        } else {
+            double requestStart = t.getRequestStart();
+            json.name("blocked").write(span(t.getFetchStart(), firstPositive(t.getDnsStart(), t.getConnectStart(), requestStart)))
+                    .name("dns").write(span(t.getDnsStart(), t.getDnsEnd()))
+                    .name("connect").write(span(t.getConnectStart(), t.getConnectEnd()))
+                    .name("ssl").write(span(t.getTlsStart(), t.getConnectEnd()))
+                    .name("send").write(0)
+                    .name("wait").write(Math.max(0, span(requestStart, t.getResponseStart())))
+                    .name("receive").write(Math.max(0, span(t.getResponseStart(), t.getResponseEnd())));
+        }
+        json.endObject();
+    }
+
+    private static double totalTime(FetchTimingInfo t) {
+        if (t == null) return 0;
+        return Math.max(0, span(t.getFetchStart(), t.getResponseEnd()));
+    }
+
+    /** Duration between two timing points, or -1 (HAR's "not applicable") if either is missing. */
+    private static double span(double from, double to) {
+        if (from <= 0 || to <= 0 || to < from) return -1;
+        return to - from;
+    }
+
+    private static double firstPositive(double... values) {
+        for (double v : values) {
+            if (v > 0) return v;
+        }
+        return 0;
+    }
+
+    /** Entries written so far. */
+    public long entryCount() { return entries; }
+
+    /** Requests written as incomplete because more than {@code maxInFlight} were outstanding. */
+    public long evictedCount() { return evicted; }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /** Write still-pending requests as incomplete entries and finish the document. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        for (CapturedEvent pending : inFlight.values()) {
+            writeEntry(pending, null, null, "no response before recorder closed");
+        }
+        inFlight.clear();
+        closed = true;
+        json.endArray().endObject().endObject();
+        json.close();
+        logger.info("HAR written to {} ({} entries, {} evicted)", file, entries, evicted);
+    }
+}
@@ -0,0 +1,123 @@
+package workshop.network;
+
+import org.openqa.selenium.bidi.network.BytesValue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Header value decoding shared by the network examples.
+ *
+ * Selenium wraps header values (e.g., BytesValue); this turns them into readable Strings.
+ * The accessor for each concrete wrapper class is looked up once, cached as a
+ * {@link MethodHandle} in a {@link ClassValue}, and reused for every header after that,
+ * instead of probing {@code getMethod(...)} with exceptions on every call.
+ */
+public final class HeaderValues {
+
+    /** Candidate accessors, in the order the original reflective decoder tried them. */
+    private static final String[] ACCESSORS = { "getValue", "asString", "toStringValue", "getBytes" };
+
+    private static final MethodHandle BYTES_VALUE;
+    private static final MethodHandle STRINGIFY;
+    private static final MethodHandle TO_STRING;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType objectToString = MethodType.methodType(String.class, Object.class);
+            BYTES_VALUE = lookup.findStatic(HeaderValues.class, "decodeBytesValue",
+                    MethodType.methodType(String.class, BytesValue.class)).asType(objectToString);
+            STRINGIFY = lookup.findStatic(HeaderValues.class, "stringify", objectToString);
+            TO_STRING = lookup.findStatic(String.class, "valueOf", objectToString);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final ClassValue<MethodHandle> DECODERS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private HeaderValues() {
+    }
+
+    /**
+     * Decode Selenium's header value wrapper (e.g., BytesValue) into a readable String.
+     */
+    public static String decode(Object value) {
+        if (value == null) return "";
+        try {
+            String decoded = (String) DECODERS.get(value.getClass()).invokeExact(value);
+            // Fallback (may still look like BytesValue@xxxx if the accessor yielded nothing)
+            return decoded != null ? decoded : value.toString();
+        } catch (Throwable t) {
+            return value.toString();
+        }
+    }
+
+    /**
+     * BytesValue carries either the literal string or base64 of the raw bytes.
+     * The string form is returned as-is (no copy); only base64 needs decoding.
+     */
+    private static String decodeBytesValue(BytesValue value) {
+        String raw = value.getValue();
+        if (raw == null) return null;
+        if (value.getType() == BytesValue.Type.BASE64) {
+            try {
+                return new String(Base64.getDecoder().decode(raw), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException notBase64) {
+                return raw;
+            }
+        }
+        return raw;
+    }
+
+    /** Normalises whatever an accessor returned: unwraps Optional, decodes byte[]. */
+    private static String stringify(Object v) {
+        if (v == null) return null;
+        if (v instanceof String) return (String) v;
+        if (v instanceof Optional) {
+            Optional<?> o = (Optional<?>) v;
+            return o.isPresent() ? String.valueOf(o.get()) : null;
+        }
+        if (v instanceof byte[]) return new String((byte[]) v, StandardCharsets.UTF_8);
+        return v.toString();
+    }
+
+    private static MethodHandle resolve(Class<?> type) {
+        if (BytesValue.class.isAssignableFrom(type)) {
+            return BYTES_VALUE;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (String name : ACCESSORS) {
+            Method m;
+            try {
+                m = type.getMethod(name);
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            if (m.getReturnType() == void.class
+                    || !Modifier.isPublic(m.getDeclaringClass().getModifiers())) {
+                continue;
+            }
+            try {
+                MethodHandle accessor = lookup.unreflect(m)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                return MethodHandles.filterReturnValue(accessor, STRINGIFY);
+            } catch (IllegalAccessException e) {
+                // Not accessible from here; try the next candidate.
+            }
+        }
+        return TO_STRING;
+    }
+}
@@ -0,0 +1,124 @@
+package workshop.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram: log-linear buckets with
+ * 32 sub-buckets per power of two, i.e. about 3% worst-case relative error on recorded values.
+ *
+ * Values are microseconds. Values below 64 us are exact; anything from 64 us up to 2^42 us (about
+ * 50 days) lands in a log-linear bucket; larger values are clamped into the last bucket. Recording is a
+ * single atomic increment, so it is safe from any thread, and {@link #snapshot()} can run
+ * concurrently with recording (the snapshot is then approximately, not exactly, consistent).
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_LIMIT = 64;          // 2^6: values below are their own bucket
+    private static final int SUB_BUCKET_BITS = 5;        // 32 sub-buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 41;          // 2^42 us ~ 50 days; clamp beyond that
+    private static final int BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - 5) * SUB_BUCKETS;
+
+    private static final long HIGHEST_TRACKABLE = highestValueIn(BUCKETS - 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void recordMicros(long micros) {
+        // Clamp to the top bucket so a bogus timestamp can't overflow the sum.
+        long v = Math.min(Math.max(0, micros), HIGHEST_TRACKABLE);
+        counts.incrementAndGet(indexOf(v));
+        total.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public void recordMillis(double millis) {
+        recordMicros(Math.round(millis * 1000.0));
+    }
+
+    static int indexOf(long v) {
+        if (v < LINEAR_LIMIT) return (int) v;
+        int exponent = 63 - Long.numberOfLeadingZeros(v);          // >= 6
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (v >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 6) * SUB_BUCKETS + sub;
+    }
+
+    /** Upper bound (inclusive) of the values that fall into bucket {@code index}. */
+    static long highestValueIn(int index) {
+        if (index < LINEAR_LIMIT) return index;
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + 6;
+        int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long base = 1L << exponent;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return base + (sub + 1) * width - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            n += copy[i];
+        }
+        long maxSeen = max.get();
+        return new Snapshot(n,
+                n == 0 ? 0 : (double) sum.sum() / Math.max(1, total.sum()),
+                percentile(copy, n, 50.0, maxSeen),
+                percentile(copy, n, 95.0, maxSeen),
+                percentile(copy, n, 99.0, maxSeen),
+                maxSeen);
+    }
+
+    private static long percentile(long[] counts, long n, double p, long maxSeen) {
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueIn(i), maxSeen);
+        }
+        return maxSeen;
+    }
+
+    /** Point-in-time view of a histogram; all values in microseconds. */
+    public static final class Snapshot {
+        private final long count;
+        private final double mean;
+        private final long p50;
+        private final long p95;
+        private final long p99;
+        private final long max;
+
+        Snapshot(long count, double mean, long p50, long p95, long p99, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+
+        public double getMean() { return mean; }
+
+        public long getP50() { return p50; }
+
+        public long getP95() { return p95; }
+
+        public long getP99() { return p99; }
+
+        public long getMax() { return max; }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms",
+                    count, p50 / 1000.0, p95 / 1000.0, p99 / 1000.0, max / 1000.0);
+        }
+    }
+}
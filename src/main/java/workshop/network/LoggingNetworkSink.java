@@ -0,0 +1,51 @@
+package workshop.network;
+
+import org.openqa.selenium.bidi.network.Header;
+import org.openqa.selenium.bidi.network.RequestData;
+import org.openqa.selenium.bidi.network.ResponseData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sink that produces the same [REQ]/[RES]/[FAIL] log lines as the NetworkEvents workshop solution,
+ * but from the consumer thread.
+ */
+public class LoggingNetworkSink implements NetworkEventSink {
+    private static final Logger logger = LoggerFactory.getLogger(LoggingNetworkSink.class);
+
+    private final boolean logHeaders;
+
+    public LoggingNetworkSink() {
+        this(true);
+    }
+
+    public LoggingNetworkSink(boolean logHeaders) {
+        this.logHeaders = logHeaders;
+    }
+
+    @Override
+    public void accept(CapturedEvent event) {
+        RequestData req = event.getRequest();
+        if (req == null) return;
+
+        switch (event.getKind()) {
+            case REQUEST:
+                logger.info("[REQ] {} {}", req.getMethod(), req.getUrl());
+                break;
+            case RESPONSE:
+                ResponseData res = event.getResponse();
+                if (res == null) return;
+                logger.info("[RES] {} {} -> status={} mime={}",
+                        req.getMethod(), req.getUrl(), res.getStatus(), res.getMimeType());
+                if (logHeaders && res.getHeaders() != null) {
+                    for (Header h : res.getHeaders()) {
+                        logger.info("   {}: {}", h.getName(), HeaderValues.decode(h.getValue()));
+                    }
+                }
+                break;
+            case FAILURE:
+                logger.warn("[FAIL] {} error={}", req.getUrl(), event.getErrorText());
+                break;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package workshop.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.module.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reusable network capture built from the NetworkEvents workshop step.
+ *
+ * The BiDi callbacks (onBeforeRequestSent / onResponseCompleted / onFetchError) run on Selenium's
+ * WebSocket reader thread, so they do nothing but wrap the already-parsed event and push it into a
+ * bounded {@link EventRing}. A single consumer thread drains the ring in batches and hands each event
+ * to a {@link NetworkEventSink}, which is where header decoding, formatting and I/O happen.
+ *
+ * Usage:
+ * <pre>{@code
+ * try (NetworkCapture capture = new NetworkCapture(driver, new LoggingNetworkSink(),
+ *         new CaptureOptions().backpressure(Backpressure.DROP_OLDEST))) {
+ *     driver.get("https://selenium.dev");
+ * }
+ * }</pre>
+ */
+public class NetworkCapture implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkCapture.class);
+
+    private final Network network;
+    private final EventRing<CapturedEvent> ring;
+    private final NetworkEventSink sink;
+    private final int batchSize;
+    private final Thread consumer;
+
+    public NetworkCapture(WebDriver driver, NetworkEventSink sink) {
+        this(driver, sink, new CaptureOptions());
+    }
+
+    public NetworkCapture(WebDriver driver, NetworkEventSink sink, CaptureOptions options) {
+        this.sink = sink;
+        this.batchSize = options.getBatchSize();
+        this.ring = new EventRing<>(options.getCapacity(), options.getBackpressure(), options.getSampleEvery());
+
+        Network subscribed = null;
+        try {
+            subscribed = options.getContexts().isEmpty()
+                    ? new Network(driver)
+                    : new Network(options.getContexts(), driver);
+            // Subscribe before navigation so events are captured when the page loads.
+            subscribed.onBeforeRequestSent(e -> ring.offer(CapturedEvent.of(e)));
+            subscribed.onResponseCompleted(e -> ring.offer(CapturedEvent.of(e)));
+            subscribed.onFetchError(e -> ring.offer(CapturedEvent.of(e)));
+        } catch (RuntimeException e) {
+            ring.close();
+            if (subscribed != null) {
+                try {
+                    subscribed.close();
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        this.network = subscribed;
+
+        // Started last, so a failed subscription leaves no thread polling a ring nobody closes.
+        // Events offered in the meantime wait in the ring.
+        this.consumer = new Thread(this::consume, "network-capture-consumer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    private void consume() {
+        List<CapturedEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                int n = ring.drainTo(batch, batchSize, 200, TimeUnit.MILLISECONDS);
+                if (n == 0) {
+                    if (ring.isClosed() && ring.size() == 0) break;
+                    continue;
+                }
+                for (CapturedEvent event : batch) {
+                    try {
+                        sink.accept(event);
+                    } catch (Exception e) {
+                        logger.warn("Network sink failed for {} event", event.getKind(), e);
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Events handed to the ring by the BiDi listeners. */
+    public long offeredCount() { return ring.offeredCount(); }
+
+    /** Events lost to backpressure (overwritten, sampled out, or rejected after close). */
+    public long droppedCount() { return ring.droppedCount(); }
+
+    /** Events taken off the ring by the consumer stage. */
+    public long deliveredCount() { return ring.drainedCount(); }
+
+    /** Events currently waiting for the consumer. */
+    public int queueDepth() { return ring.size(); }
+
+    /**
+     * Unsubscribe from the network events, let the consumer flush what is queued,
+     * then close the sink. If the consumer has not finished after 10 s the sink is not closed.
+     */
+    @Override
+    public void close() {
+        try {
+            network.close();
+        } catch (Exception e) {
+            logger.error("Error closing Network module", e);
+        }
+        ring.close();
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer.isAlive()) {
+            // Still delivering; closing the sink under it would race. It finishes the queue on its own.
+            logger.warn("Network capture consumer still draining {} events; sink left open", ring.size());
+        } else {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                logger.error("Error closing network sink", e);
+            }
+        }
+        logger.info("Network capture closed: offered={}, delivered={}, dropped={}",
+                offeredCount(), deliveredCount(), droppedCount());
+    }
+}
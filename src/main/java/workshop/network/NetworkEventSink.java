@@ -0,0 +1,40 @@
+package workshop.network;
+
+/**
+ * Final stage of a {@link NetworkCapture} pipeline. Always called from the capture's
+ * consumer thread, never from the BiDi reader, so it may block, decode, or do I/O.
+ */
+@FunctionalInterface
+public interface NetworkEventSink {
+
+    void accept(CapturedEvent event) throws Exception;
+
+    /** Called once after the last event has been delivered. */
+    default void close() throws Exception {
+    }
+
+    /** Fan one capture out to several sinks, in order; all of them are closed even if one fails. */
+    static NetworkEventSink all(NetworkEventSink... sinks) {
+        return new NetworkEventSink() {
+            @Override
+            public void accept(CapturedEvent event) throws Exception {
+                for (NetworkEventSink sink : sinks) {
+                    sink.accept(event);
+                }
+            }
+
+            @Override
+            public void close() throws Exception {
+                Exception first = null;
+                for (NetworkEventSink sink : sinks) {
+                    try {
+                        sink.close();
+                    } catch (Exception e) {
+                        if (first == null) first = e; else first.addSuppressed(e);
+                    }
+                }
+                if (first != null) throw first;
+            }
+        };
+    }
+}
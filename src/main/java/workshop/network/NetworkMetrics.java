@@ -0,0 +1,202 @@
+package workshop.network;
+
+import org.openqa.selenium.bidi.network.RequestData;
+import org.openqa.selenium.bidi.network.ResponseData;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-request latency metrics from BiDi network events.
+ *
+ * beforeRequestSent and responseCompleted (or fetchError) are joined by request id; the difference between
+ * their event timestamps is recorded into a {@link LatencyHistogram} for the request's host, its MIME type
+ * and its status class (2xx, 3xx, ..., or "failed"), plus one overall histogram. Snapshots expose
+ * p50/p95/p99, and {@link #startExport} appends one JSON line of snapshots to a file per period, which
+ * makes page-load regressions easy to diff between runs.
+ *
+ * As a {@link NetworkEventSink} it runs behind a {@link NetworkCapture}, so events arrive on one thread;
+ * requests that never complete are evicted oldest first once {@code maxInFlight} are open. Histograms are
+ * lock-free, so snapshots and exports can be taken from any thread while the capture is running.
+ */
+public class NetworkMetrics implements NetworkEventSink {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkMetrics.class);
+
+    public enum Dimension { HOST, MIME, STATUS }
+
+    private final Map<String, Long> inFlight = new LinkedHashMap<>(); // insertion order; consumer thread only
+    private final int maxInFlight;
+    private final LatencyHistogram overall = new LatencyHistogram();
+    private final Map<Dimension, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+    private final LongAdder unmatched = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private ScheduledExecutorService exporter;
+
+    public NetworkMetrics() {
+        this(10_000);
+    }
+
+    public NetworkMetrics(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        for (Dimension d : Dimension.values()) {
+            histograms.put(d, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void accept(CapturedEvent event) {
+        RequestData req = event.getRequest();
+        if (req == null) return;
+        switch (event.getKind()) {
+            case REQUEST:
+                inFlight.put(req.getRequestId(), event.getTimestamp());
+                if (inFlight.size() > maxInFlight) {
+                    // Never completed (aborted, long-poll, ...): drop the oldest so new requests still count.
+                    Iterator<Long> oldest = inFlight.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    evicted.increment();
+                }
+                break;
+            case RESPONSE:
+                ResponseData res = event.getResponse();
+                record(req, event.getTimestamp(), statusClass(res != null ? res.getStatus() : 0),
+                        res != null ? res.getMimeType() : null);
+                break;
+            case FAILURE:
+                record(req, event.getTimestamp(), "failed", null);
+                break;
+        }
+    }
+
+    private void record(RequestData req, long endTimestamp, String status, String mimeType) {
+        Long start = inFlight.remove(req.getRequestId());
+        if (start == null) {
+            // Started before we subscribed, evicted from the join table, or dropped by backpressure.
+            unmatched.increment();
+            return;
+        }
+        long micros = Math.max(0, endTimestamp - start) * 1000L;
+        overall.recordMicros(micros);
+        histogram(Dimension.HOST, hostOf(req.getUrl())).recordMicros(micros);
+        histogram(Dimension.MIME, mimeOf(mimeType)).recordMicros(micros);
+        histogram(Dimension.STATUS, status).recordMicros(micros);
+    }
+
+    private LatencyHistogram histogram(Dimension dimension, String key) {
+        return histograms.get(dimension).computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : "(none)";
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return "(invalid)";
+        }
+    }
+
+    static String mimeOf(String mimeType) {
+        if (mimeType == null || mimeType.isEmpty()) return "(none)";
+        int semi = mimeType.indexOf(';');
+        return (semi < 0 ? mimeType : mimeType.substring(0, semi)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String statusClass(int status) {
+        if (status < 100 || status > 599) return "failed";
+        return (status / 100) + "xx";
+    }
+
+    public LatencyHistogram.Snapshot overall() {
+        return overall.snapshot();
+    }
+
+    /** Snapshots for one dimension, sorted by key. */
+    public Map<String, LatencyHistogram.Snapshot> snapshot(Dimension dimension) {
+        Map<String, LatencyHistogram.Snapshot> out = new TreeMap<>();
+        histograms.get(dimension).forEach((k, h) -> out.put(k, h.snapshot()));
+        return out;
+    }
+
+    /** Completions with no matching beforeRequestSent. */
+    public long unmatchedCount() { return unmatched.sum(); }
+
+    /** Requests dropped from the join table, oldest first, because more than {@code maxInFlight} were open. */
+    public long evictedCount() { return evicted.sum(); }
+
+    /** Append a JSON line with all snapshots to {@code file} every {@code period}, until {@link #close()}. */
+    public synchronized void startExport(Path file, Duration period) {
+        if (exporter != null) throw new IllegalStateException("Export already started");
+        exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "network-metrics-export");
+            t.setDaemon(true);
+            return t;
+        });
+        exporter.scheduleAtFixedRate(() -> export(file), period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Append one JSON line with the current snapshots (microseconds) to {@code file}. */
+    public void export(Path file) {
+        Map<String, Object> line = new TreeMap<>();
+        line.put("time", Instant.now().toString());
+        line.put("overall", toMap(overall()));
+        for (Dimension d : Dimension.values()) {
+            Map<String, Object> byKey = new TreeMap<>();
+            snapshot(d).forEach((k, s) -> byKey.put(k, toMap(s)));
+            line.put(d.name().toLowerCase(Locale.ROOT), byKey);
+        }
+        line.put("unmatched", unmatchedCount());
+        line.put("evicted", evictedCount());
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput out = new Json().newOutput(json)) {
+            out.setPrettyPrint(false).write(line);
+        }
+        try {
+            Files.writeString(file, json.append(System.lineSeparator()),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Could not export network metrics to {}", file, e);
+        }
+    }
+
+    private static Map<String, Object> toMap(LatencyHistogram.Snapshot s) {
+        Map<String, Object> m = new TreeMap<>();
+        m.put("count", s.getCount());
+        m.put("mean", Math.round(s.getMean()));
+        m.put("p50", s.getP50());
+        m.put("p95", s.getP95());
+        m.put("p99", s.getP99());
+        m.put("max", s.getMax());
+        return m;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (exporter != null) {
+            exporter.shutdownNow();
+            exporter = null;
+        }
+        logger.info("Network latency overall: {}", overall());
+        snapshot(Dimension.STATUS).forEach((k, s) -> logger.info("  status {}: {}", k, s));
+    }
+}
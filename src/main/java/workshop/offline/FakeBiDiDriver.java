@@ -0,0 +1,124 @@
+package workshop.offline;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.bidi.BiDi;
+import org.openqa.selenium.bidi.Connection;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A WebDriver whose only real capability is BiDi, connected to a {@link FakeBiDiServer}.
+ *
+ * Anything built on {@link HasBiDi} works against it: {@code new BrowsingContext(driver, handle)},
+ * {@code new LogInspector(driver)}, {@code new Network(driver)}, {@code ((HasBiDi) driver).getBiDi()}.
+ * {@link #get} navigates the current context through BiDi. Classic WebDriver features (elements,
+ * window switching, timeouts, ...) throw {@link UnsupportedOperationException}: there is no DOM.
+ */
+public class FakeBiDiDriver implements WebDriver, HasBiDi, HasCapabilities {
+    private final FakeBiDiServer server;
+    private final HttpClient client;
+    private final BiDi biDi;
+    private String currentContext;
+
+    public FakeBiDiDriver(FakeBiDiServer server) {
+        this.server = server;
+        this.client = HttpClient.Factory.createDefault()
+                .createClient(ClientConfig.defaultConfig().baseUri(server.webSocketUrl()));
+        this.biDi = new BiDi(new Connection(client, server.webSocketUrl().toString()));
+        this.currentContext = server.defaultContext();
+    }
+
+    @Override
+    public Optional<BiDi> maybeGetBiDi() {
+        return Optional.of(biDi);
+    }
+
+    /** Just enough for tooling that looks up the BiDi endpoint the way it would on a real session. */
+    @Override
+    public Capabilities getCapabilities() {
+        return new ImmutableCapabilities("browserName", "fake-bidi", "webSocketUrl", server.webSocketUrl().toString());
+    }
+
+    @Override
+    public void get(String url) {
+        new BrowsingContext(this, currentContext).navigate(url, ReadinessState.COMPLETE);
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return server.urlOf(currentContext);
+    }
+
+    @Override
+    public String getTitle() {
+        return "";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        throw unsupported("findElements");
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        throw unsupported("findElement");
+    }
+
+    @Override
+    public String getPageSource() {
+        return "";
+    }
+
+    @Override
+    public void close() {
+        new BrowsingContext(this, currentContext).close();
+    }
+
+    @Override
+    public void quit() {
+        biDi.close();
+        client.close();
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return new LinkedHashSet<>(server.contexts());
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return currentContext;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw unsupported("switchTo");
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw unsupported("navigate");
+    }
+
+    @Override
+    public Options manage() {
+        throw unsupported("manage");
+    }
+
+    private static UnsupportedOperationException unsupported(String what) {
+        return new UnsupportedOperationException(what + " is not available on the fake BiDi endpoint; use BiDi modules");
+    }
+}
@@ -0,0 +1,438 @@
+package workshop.offline;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * An in-process stand-in for a browser's BiDi endpoint, for offline and deterministic runs.
+ *
+ * It speaks enough of the protocol for Selenium's {@code BrowsingContext}, {@code LogInspector} and
+ * {@code Network} to work against it (use {@link FakeBiDiDriver} as the WebDriver):
+ * <ul>
+ *   <li>session.new / status / subscribe / unsubscribe, with events only sent to matching subscriptions</li>
+ *   <li>browsingContext.getTree / create / close / navigate; a navigation emits navigationStarted,
+ *       a synthetic document beforeRequestSent + responseCompleted, any frames registered with
+ *       {@link #onNavigate}, then domContentLoaded and load, before the command returns</li>
+ *   <li>script.*, network.*, browser.*, storage.*, emulation.* and permissions.* commands are
+ *       acknowledged with minimal results; {@link #handle} overrides or adds any command</li>
+ * </ul>
+ * {@link #replay} streams recorded event frames (see {@link RecordedEvents}) to every subscribed
+ * connection at a fixed rate, which is how listener code can be load-tested at 10k+ events/s without
+ * a browser.
+ */
+public class FakeBiDiServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(FakeBiDiServer.class);
+    private static final Json JSON = new Json();
+    private static final String SUBSCRIPTIONS = "subscriptions";
+
+    /** Thrown from a command handler to answer with a BiDi error response. */
+    public static class CommandException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final String error;
+
+        public CommandException(String error, String message) {
+            super(message);
+            this.error = error;
+        }
+
+        public String getError() { return error; }
+    }
+
+    /** Outcome of one {@link #replay} run. */
+    public static final class ReplayResult {
+        private final long events;
+        private final long elapsedNanos;
+
+        ReplayResult(long events, long elapsedNanos) {
+            this.events = events;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getEvents() { return events; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public double getEventsPerSecond() { return events * 1e9 / Math.max(1, elapsedNanos); }
+
+        @Override
+        public String toString() {
+            return String.format("%d events in %.1f ms (%.0f events/s)", events, elapsedNanos / 1e6, getEventsPerSecond());
+        }
+    }
+
+    private static final class Subscription {
+        final String id;
+        final List<String> events;
+        final Set<String> contexts;
+
+        Subscription(String id, List<String> events, Set<String> contexts) {
+            this.id = id;
+            this.events = events;
+            this.contexts = contexts;
+        }
+
+        boolean matches(String method, String context) {
+            if (!contexts.isEmpty() && context != null && !contexts.contains(context)) return false;
+            for (String e : events) {
+                // "log" subscribes to the whole module, "log.entryAdded" to one event.
+                if (method.equals(e) || (method.startsWith(e) && method.charAt(e.length()) == '.')) return true;
+            }
+            return false;
+        }
+    }
+
+    private final WebSocketServer sockets;
+    private final Map<String, Function<Map<String, Object>, Object>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, String> contexts = new ConcurrentHashMap<>(); // context id -> current url
+    private final Map<String, List<Map<String, Object>>> pageEvents = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final String defaultContext;
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder eventsSent = new LongAdder();
+    private final LongAdder eventBytesSent = new LongAdder();
+
+    public FakeBiDiServer() {
+        this(0);
+    }
+
+    /** Listens on the loopback interface; port 0 picks a free port. */
+    public FakeBiDiServer(int port) {
+        try {
+            this.sockets = new WebSocketServer(port, this::onMessage, peer -> { });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start fake BiDi server", e);
+        }
+        this.defaultContext = newId("context");
+        contexts.put(defaultContext, "about:blank");
+        registerDefaultHandlers();
+        logger.info("Fake BiDi endpoint listening on {}", webSocketUrl());
+    }
+
+    public URI webSocketUrl() {
+        return URI.create("ws://127.0.0.1:" + sockets.port() + "/session");
+    }
+
+    /** The top-level browsing context that exists from the start (the "window handle"). */
+    public String defaultContext() { return defaultContext; }
+
+    /** Current URL of a context, or null if it does not exist. */
+    public String urlOf(String context) { return contexts.get(context); }
+
+    public Set<String> contexts() { return contexts.keySet(); }
+
+    public long commandCount() { return commands.sum(); }
+
+    public long eventCount() { return eventsSent.sum(); }
+
+    /** UTF-8 payload bytes of all event frames sent (WebSocket framing not included). */
+    public long eventBytes() { return eventBytesSent.sum(); }
+
+    /** Add or replace a command handler. Return the result object; throw {@link CommandException} for errors. */
+    public FakeBiDiServer handle(String method, Function<Map<String, Object>, Object> handler) {
+        handlers.put(method, handler);
+        return this;
+    }
+
+    /** Frames to emit (retargeted to the navigating context) whenever {@code url} is navigated to. */
+    public FakeBiDiServer onNavigate(String url, List<Map<String, Object>> frames) {
+        pageEvents.put(url, List.copyOf(frames));
+        return this;
+    }
+
+    /**
+     * Send {@code count} events, cycling through {@code frames}, at {@code eventsPerSecond} (0 or less: as
+     * fast as the sockets take them). If {@code context} is not null, each frame's params.context and
+     * params.source.context are rewritten to it. Events go only to connections subscribed to them.
+     */
+    public CompletableFuture<ReplayResult> replay(List<Map<String, Object>> frames, String context,
+                                                  long count, double eventsPerSecond) {
+        if (frames.isEmpty()) throw new IllegalArgumentException("Nothing to replay");
+        List<String> methods = new ArrayList<>();
+        List<String> encoded = new ArrayList<>();
+        List<String> frameContexts = new ArrayList<>();
+        for (Map<String, Object> frame : frames) {
+            Map<String, Object> f = context == null ? frame : RecordedEvents.retarget(frame, context);
+            methods.add(String.valueOf(f.get("method")));
+            frameContexts.add(RecordedEvents.contextOf(f));
+            encoded.add(JSON.toJson(f));
+        }
+
+        CompletableFuture<ReplayResult> result = new CompletableFuture<>();
+        Thread t = new Thread(() -> {
+            try {
+                long intervalNanos = eventsPerSecond > 0 ? (long) (1e9 / eventsPerSecond) : 0;
+                long start = System.nanoTime();
+                for (long i = 0; i < count; i++) {
+                    if (intervalNanos > 0) {
+                        // Pace against the schedule, not the previous send, so short stalls are caught up.
+                        long due = start + i * intervalNanos;
+                        long wait = due - System.nanoTime();
+                        if (wait > 0) LockSupport.parkNanos(wait);
+                    }
+                    int n = (int) (i % encoded.size());
+                    broadcast(methods.get(n), frameContexts.get(n), encoded.get(n));
+                }
+                result.complete(new ReplayResult(count, System.nanoTime() - start));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, "fake-bidi-replay");
+        t.setDaemon(true);
+        t.start();
+        return result;
+    }
+
+    /** Send one event frame to every connection subscribed to it. */
+    public void emit(String method, Map<String, Object> params) {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "event");
+        frame.put("method", method);
+        frame.put("params", params);
+        broadcast(method, RecordedEvents.contextOf(frame), JSON.toJson(frame));
+    }
+
+    private void broadcast(String method, String context, String json) {
+        int bytes = -1;
+        for (WebSocketServer.Peer peer : sockets.peers()) {
+            if (!isSubscribed(peer, method, context)) continue;
+            try {
+                peer.sendText(json);
+                if (bytes < 0) bytes = json.getBytes(StandardCharsets.UTF_8).length;
+                eventsSent.increment();
+                eventBytesSent.add(bytes);
+            } catch (IOException e) {
+                logger.debug("Dropping event for closed connection", e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Subscription> subscriptions(WebSocketServer.Peer peer) {
+        return (List<Subscription>) peer.attributes().computeIfAbsent(SUBSCRIPTIONS, k -> new CopyOnWriteArrayList<>());
+    }
+
+    private static boolean isSubscribed(WebSocketServer.Peer peer, String method, String context) {
+        for (Subscription s : subscriptions(peer)) {
+            if (s.matches(method, context)) return true;
+        }
+        return false;
+    }
+
+    // --- command dispatch ------------------------------------------------------------------------
+
+    private void onMessage(WebSocketServer.Peer peer, String message) {
+        commands.increment();
+        Map<String, Object> command;
+        try {
+            command = JSON.toType(message, Json.MAP_TYPE);
+        } catch (RuntimeException e) {
+            reply(peer, error(null, "invalid argument", "Malformed command: " + e.getMessage()));
+            return;
+        }
+        Object id = command.get("id");
+        String method = String.valueOf(command.get("method"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> params = command.get("params") instanceof Map
+                ? (Map<String, Object>) command.get("params") : Map.of();
+
+        Map<String, Object> response;
+        try {
+            Object result;
+            if ("session.subscribe".equals(method)) {
+                result = subscribe(peer, params);
+            } else if ("session.unsubscribe".equals(method)) {
+                result = unsubscribe(peer, params);
+            } else {
+                Function<Map<String, Object>, Object> handler = handlers.get(method);
+                if (handler == null) throw new CommandException("unknown command", "Fake BiDi endpoint does not implement " + method);
+                result = handler.apply(params);
+            }
+            response = new LinkedHashMap<>();
+            response.put("type", "success");
+            response.put("id", id);
+            response.put("result", result == null ? Map.of() : result);
+        } catch (CommandException e) {
+            response = error(id, e.getError(), e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Handler for {} failed", method, e);
+            response = error(id, "unknown error", String.valueOf(e.getMessage()));
+        }
+        reply(peer, response);
+    }
+
+    private static Map<String, Object> error(Object id, String error, String message) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("type", "error");
+        response.put("id", id);
+        response.put("error", error);
+        response.put("message", message);
+        return response;
+    }
+
+    private static void reply(WebSocketServer.Peer peer, Map<String, Object> response) {
+        try {
+            peer.sendText(JSON.toJson(response));
+        } catch (IOException e) {
+            logger.debug("Could not reply, connection closed", e);
+        }
+    }
+
+    private Object subscribe(WebSocketServer.Peer peer, Map<String, Object> params) {
+        List<String> events = strings(params.get("events"));
+        Set<String> ctx = Set.copyOf(strings(params.get("contexts")));
+        Subscription s = new Subscription(newId("subscription"), events, ctx);
+        subscriptions(peer).add(s);
+        return Map.of("subscription", s.id);
+    }
+
+    private Object unsubscribe(WebSocketServer.Peer peer, Map<String, Object> params) {
+        List<Subscription> subs = subscriptions(peer);
+        List<String> byId = strings(params.get("subscriptions"));
+        List<String> byEvent = strings(params.get("events"));
+        subs.removeIf(s -> byId.contains(s.id) || (!byEvent.isEmpty() && byEvent.containsAll(s.events)));
+        return Map.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> strings(Object value) {
+        if (!(value instanceof Collection)) return List.of();
+        List<String> out = new ArrayList<>();
+        for (Object o : (Collection<Object>) value) out.add(String.valueOf(o));
+        return out;
+    }
+
+    private String newId(String kind) {
+        return "fake-" + kind + "-" + ids.incrementAndGet();
+    }
+
+    private String requireContext(Map<String, Object> params) {
+        String context = String.valueOf(params.get("context"));
+        if (!contexts.containsKey(context)) throw new CommandException("no such frame", "No browsing context " + context);
+        return context;
+    }
+
+    private void registerDefaultHandlers() {
+        handle("session.new", p -> Map.of("sessionId", UUID.randomUUID().toString(),
+                "capabilities", Map.of("browserName", "fake", "webSocketUrl", webSocketUrl().toString())));
+        handle("session.status", p -> Map.of("ready", false, "message", "fake BiDi endpoint"));
+        handle("session.end", p -> Map.of());
+
+        handle("browsingContext.getTree", p -> {
+            List<Map<String, Object>> tree = new ArrayList<>();
+            contexts.forEach((id, url) -> tree.add(contextInfo(id, url)));
+            return Map.of("contexts", tree);
+        });
+        handle("browsingContext.create", p -> {
+            String id = newId("context");
+            contexts.put(id, "about:blank");
+            emit("browsingContext.contextCreated", contextInfo(id, "about:blank"));
+            return Map.of("context", id);
+        });
+        handle("browsingContext.close", p -> {
+            String id = requireContext(p);
+            contexts.remove(id);
+            emit("browsingContext.contextDestroyed", contextInfo(id, "about:blank"));
+            return Map.of();
+        });
+        handle("browsingContext.activate", p -> { requireContext(p); return Map.of(); });
+        handle("browsingContext.navigate", this::navigate);
+        handle("browsingContext.reload", p -> {
+            String id = requireContext(p);
+            Map<String, Object> again = new HashMap<>(p);
+            again.put("url", contexts.get(id));
+            return navigate(again);
+        });
+
+        Function<Map<String, Object>, Object> scriptResult = p -> Map.of(
+                "type", "success", "realm", "fake-realm", "result", Map.of("type", "undefined"));
+        handle("script.evaluate", scriptResult);
+        handle("script.callFunction", scriptResult);
+        handle("script.addPreloadScript", p -> Map.of("script", newId("script")));
+        handle("script.removePreloadScript", p -> Map.of());
+
+        handle("network.addIntercept", p -> Map.of("intercept", newId("intercept")));
+        for (String m : List.of("network.removeIntercept", "network.continueRequest", "network.continueResponse",
+                "network.continueWithAuth", "network.failRequest", "network.provideResponse",
+                "network.setCacheBehavior")) {
+            handle(m, p -> Map.of());
+        }
+
+        handle("browser.createUserContext", p -> Map.of("userContext", newId("user-context")));
+        handle("browser.removeUserContext", p -> Map.of());
+        handle("browser.getUserContexts", p -> Map.of("userContexts", List.of(Map.of("userContext", "default"))));
+        handle("storage.deleteCookies", p -> Map.of("partitionKey", Map.of()));
+        handle("storage.getCookies", p -> Map.of("cookies", List.of(), "partitionKey", Map.of()));
+        handle("emulation.setGeolocationOverride", p -> Map.of());
+        handle("permissions.setPermission", p -> Map.of());
+    }
+
+    private static Map<String, Object> contextInfo(String id, String url) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("context", id);
+        info.put("url", url);
+        info.put("children", List.of());
+        info.put("parent", null);
+        info.put("userContext", "default");
+        info.put("originalOpener", null);
+        info.put("clientWindow", "fake-window");
+        return info;
+    }
+
+    private Object navigate(Map<String, Object> params) {
+        String context = requireContext(params);
+        String url = String.valueOf(params.get("url"));
+        String navigation = UUID.randomUUID().toString();
+        contexts.put(context, url);
+
+        emit("browsingContext.navigationStarted", navigationInfo(context, navigation, url));
+        String requestId = newId("request");
+        emit("network.beforeRequestSent", RecordedEvents.documentRequest(context, navigation, requestId, url));
+        emit("network.responseCompleted", RecordedEvents.documentResponse(context, navigation, requestId, url));
+        for (Map<String, Object> frame : pageEvents.getOrDefault(url, List.of())) {
+            Map<String, Object> f = RecordedEvents.retarget(frame, context);
+            broadcast(String.valueOf(f.get("method")), context, JSON.toJson(f));
+        }
+        emit("browsingContext.domContentLoaded", navigationInfo(context, navigation, url));
+        emit("browsingContext.load", navigationInfo(context, navigation, url));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("navigation", navigation);
+        result.put("url", url);
+        return result;
+    }
+
+    private static Map<String, Object> navigationInfo(String context, String navigation, String url) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("context", context);
+        info.put("navigation", navigation);
+        info.put("timestamp", System.currentTimeMillis());
+        info.put("url", url);
+        return info;
+    }
+
+    @Override
+    public void close() {
+        sockets.close();
+        logger.info("Fake BiDi endpoint closed: {} commands, {} events sent ({} bytes)", commandCount(), eventCount(), eventBytes());
+    }
+}
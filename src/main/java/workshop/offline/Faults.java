@@ -0,0 +1,64 @@
+package workshop.offline;
+
+import java.time.Duration;
+
+/**
+ * Latency, bandwidth and error injection for one path prefix of a {@link FixtureServer}.
+ * Settings are volatile and can be changed while the server runs.
+ *
+ * <pre>
+ *   server.faults("/").latency(Duration.ofMillis(50)).bandwidth(256 * 1024);
+ *   server.faults("/site/data.json").errorRate(0.2, 503);
+ * </pre>
+ */
+public final class Faults {
+    /** Status used to mean "close the connection without a response". */
+    public static final int ABORT = -1;
+
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile long bytesPerSecond;
+    private volatile double errorRate;
+    private volatile int errorStatus = 500;
+
+    /** Delay before the response headers are sent. */
+    public Faults latency(Duration latency) {
+        return latency(latency, Duration.ZERO);
+    }
+
+    /** Delay of {@code latency} plus a uniformly random {@code 0..jitter} (from the server's seeded random). */
+    public Faults latency(Duration latency, Duration jitter) {
+        this.latencyMillis = latency.toMillis();
+        this.jitterMillis = jitter.toMillis();
+        return this;
+    }
+
+    /** Throttle response bodies to this many bytes per second; 0 means unlimited. */
+    public Faults bandwidth(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /** Fail this fraction of requests (0..1) with {@code status}, or {@link #ABORT} to drop the connection. */
+    public Faults errorRate(double rate, int status) {
+        if (rate < 0 || rate > 1) throw new IllegalArgumentException("rate must be within 0..1");
+        this.errorRate = rate;
+        this.errorStatus = status;
+        return this;
+    }
+
+    /** Remove all injected faults. */
+    public Faults none() {
+        latencyMillis = 0;
+        jitterMillis = 0;
+        bytesPerSecond = 0;
+        errorRate = 0;
+        return this;
+    }
+
+    long latencyMillis() { return latencyMillis; }
+    long jitterMillis() { return jitterMillis; }
+    long bytesPerSecond() { return bytesPerSecond; }
+    double errorRate() { return errorRate; }
+    int errorStatus() { return errorStatus; }
+}
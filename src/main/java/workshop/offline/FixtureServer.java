@@ -0,0 +1,362 @@
+package workshop.offline;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process HTTP server for the workshop pages, so navigations don't depend on remote sites.
+ *
+ * Serves:
+ * <ul>
+ *   <li>{@code /<path>} from the classpath under {@code pages/}, e.g. {@code /reactive-form.html},
+ *       {@code /bidi/logEntryAdded.html}, {@code /site/index.html}</li>
+ *   <li>{@code /synthetic/<n>}: a generated page with n subresources (scripts, stylesheets, images and
+ *       fetches in rotation), to put load on network listeners</li>
+ *   <li>{@code /bytes/<size>[.ext]}: {@code size} bytes of filler with a content type from the extension</li>
+ *   <li>{@code /api/items/<id>}: a JSON object for item {@code id}, from a few dozen bytes to about 200 KB</li>
+ *   <li>{@code /generated/<sha-256>.html}: pages registered with {@link #publish(String)}</li>
+ * </ul>
+ * Classpath pages are read once and kept by path, published pages by content hash; synthetic pages and
+ * API items are generated per request, so a long run over many ids or sizes does not pile them up on
+ * the heap. Published pages are content-addressed, so they are sent with an ETag and
+ * {@code Cache-Control: immutable}; a revalidation gets a 304 and the browser reuses its cached copy.
+ * {@link #faults(String)} injects latency, bandwidth limits and errors per path prefix. Random choices
+ * (jitter, which requests fail) come from one seeded {@link Random}, so a single-threaded run is
+ * reproducible for a given seed.
+ *
+ * Requests are handled on virtual threads when the JVM has them (21+), otherwise on a cached pool
+ * of daemon threads; a slow, throttled response then only holds one thread.
+ */
+public class FixtureServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(FixtureServer.class);
+    private static final String PAGES = "pages";
+    private static final String GENERATED = "generated/";
+    private static final int CHUNK = 8 * 1024;
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "js", "text/javascript; charset=utf-8",
+            "json", "application/json",
+            "svg", "image/svg+xml",
+            "png", "image/png",
+            "txt", "text/plain; charset=utf-8");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Faults> faults = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> resourceCache = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> generatedByHash = new ConcurrentHashMap<>();
+    private final Map<String, String> urlByHtml = new ConcurrentHashMap<>();
+    private final Random random;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+
+    public FixtureServer() {
+        this(0, 42L);
+    }
+
+    /** Listens on the loopback interface; port 0 picks a free port. */
+    public FixtureServer(int port, long seed) {
+        this.random = new Random(seed);
+        this.executor = newRequestExecutor();
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start fixture server", e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        faults.put("/", new Faults());
+        logger.info("Fixture server listening on {}", baseUrl());
+    }
+
+    public URI baseUrl() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    /** Absolute URL for a path on this server, e.g. {@code url("bidi/logEntryAdded.html")}. */
+    public String url(String path) {
+        return baseUrl().resolve(path.startsWith("/") ? path.substring(1) : path).toString();
+    }
+
+    /** URL of a generated page with {@code subresources} subresources. */
+    public String syntheticPage(int subresources) {
+        return url("synthetic/" + subresources);
+    }
+
+    /**
+     * Serve {@code html} from a content-addressed URL and return that URL: a replacement for building
+     * {@code data:} URLs. The page is UTF-8 encoded and hashed once; publishing the same text again
+     * (e.g. a constant template in every scenario iteration) returns the cached URL without re-encoding.
+     * Published pages stay in memory until the server is closed.
+     */
+    public String publish(String html) {
+        return urlByHtml.computeIfAbsent(html, h -> {
+            byte[] body = h.getBytes(StandardCharsets.UTF_8);
+            String hash = sha256(body);
+            generatedByHash.putIfAbsent(hash, body);
+            return url(GENERATED + hash + ".html");
+        });
+    }
+
+    /** Number of distinct pages {@link #publish(String) published}. */
+    public int publishedPages() { return generatedByHash.size(); }
+
+    /** The fault settings for requests whose path starts with {@code pathPrefix} (longest prefix wins). */
+    public Faults faults(String pathPrefix) {
+        return faults.computeIfAbsent(pathPrefix, p -> new Faults());
+    }
+
+    public long requestCount() { return requests.sum(); }
+
+    public long failureCount() { return failures.sum(); }
+
+    public long bytesSent() { return bytesSent.sum(); }
+
+    private Faults faultsFor(String path) {
+        String best = "/";
+        for (String prefix : faults.keySet()) {
+            if (path.startsWith(prefix) && prefix.length() > best.length()) best = prefix;
+        }
+        return faults.get(best);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        String path = exchange.getRequestURI().getPath();
+        Faults f = faultsFor(path);
+        try (exchange) {
+            long delay = f.latencyMillis();
+            double roll;
+            synchronized (random) {
+                if (f.jitterMillis() > 0) delay += (long) (random.nextDouble() * f.jitterMillis());
+                roll = random.nextDouble();
+            }
+            if (delay > 0) Thread.sleep(delay);
+
+            if (roll < f.errorRate()) {
+                failures.increment();
+                if (f.errorStatus() == Faults.ABORT) {
+                    return; // closing the exchange without a response drops the connection
+                }
+                send(exchange, f.errorStatus(), "txt", ("Injected failure for " + path).getBytes(StandardCharsets.UTF_8), 0);
+                return;
+            }
+
+            if (path.startsWith("/" + GENERATED)) {
+                String hash = path.endsWith(".html")
+                        ? path.substring(GENERATED.length() + 1, path.length() - ".html".length()) : "";
+                byte[] body = generatedByHash.get(hash);
+                if (body == null) {
+                    send(exchange, 404, "txt", ("Not found: " + path).getBytes(StandardCharsets.UTF_8), 0);
+                } else if (hash.equals(etagValue(exchange.getRequestHeaders().getFirst("If-None-Match")))) {
+                    exchange.getResponseHeaders().set("ETag", '"' + hash + '"');
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    exchange.getResponseHeaders().set("ETag", '"' + hash + '"');
+                    send(exchange, 200, "html", body, f.bytesPerSecond(), "public, max-age=31536000, immutable");
+                }
+                return;
+            }
+
+            Response response = resolve(path);
+            if (response == null) {
+                send(exchange, 404, "txt", ("Not found: " + path).getBytes(StandardCharsets.UTF_8), 0);
+            } else {
+                send(exchange, 200, response.extension, response.body, f.bytesPerSecond());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.debug("Client went away during {}", path, e);
+        }
+    }
+
+    private static final class Response {
+        final String extension;
+        final byte[] body;
+
+        Response(String extension, byte[] body) {
+            this.extension = extension;
+            this.body = body;
+        }
+    }
+
+    private Response resolve(String path) {
+        if (path.startsWith("/synthetic/")) {
+            try {
+                int n = Integer.parseInt(path.substring("/synthetic/".length()));
+                if (n < 0) return null;
+                return new Response("html", syntheticHtml(n).getBytes(StandardCharsets.UTF_8));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        if (path.startsWith("/api/items/")) {
+            try {
+                int id = Integer.parseInt(path.substring("/api/items/".length()));
+                if (id < 0) return null;
+                return new Response("json", itemJson(id).getBytes(StandardCharsets.UTF_8));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        if (path.startsWith("/bytes/")) {
+            String spec = path.substring("/bytes/".length());
+            int dot = spec.indexOf('.');
+            try {
+                int size = Integer.parseInt(dot < 0 ? spec : spec.substring(0, dot));
+                if (size < 0) return null;
+                byte[] body = new byte[Math.min(size, 64 << 20)];
+                Arrays.fill(body, (byte) ' ');
+                return new Response(dot < 0 ? "txt" : spec.substring(dot + 1), body);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        String resource = path.endsWith("/") ? path + "index.html" : path;
+        if (resource.contains("..")) return null;
+        // loadPage returns null for a missing page, so misses are not cached and probing can't grow the map.
+        byte[] body = resourceCache.computeIfAbsent(resource, FixtureServer::loadPage);
+        if (body == null) return null;
+        return new Response(extensionOf(resource), body);
+    }
+
+    private static byte[] loadPage(String resource) {
+        try (InputStream in = FixtureServer.class.getClassLoader().getResourceAsStream(PAGES + resource)) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String extensionOf(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot < 0 ? "txt" : path.substring(dot + 1);
+    }
+
+    static String syntheticHtml(int subresources) {
+        StringBuilder head = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        StringBuilder fetches = new StringBuilder();
+        for (int i = 0; i < subresources; i++) {
+            switch (i % 4) {
+                case 0: head.append("<script src=\"/bytes/").append(1024 + i).append(".js\" defer></script>\n"); break;
+                case 1: head.append("<link rel=\"stylesheet\" href=\"/bytes/").append(1024 + i).append(".css\">\n"); break;
+                case 2: body.append("<img src=\"/bytes/").append(2048 + i).append(".png\" alt=\"\">\n"); break;
+                default: fetches.append("fetch('/bytes/").append(512 + i).append(".json');\n");
+            }
+        }
+        return "<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>Synthetic page, " + subresources
+                + " subresources</title>\n" + head + "</head><body>\n" + body
+                + "<script>\n" + fetches + "console.log('SYNTHETIC_READY: " + subresources + "');\n</script>\n</body></html>\n";
+    }
+
+    /** A JSON item whose {@code notes} grow by 4 KB per step of {@code id % 50}, up to about 200 KB. */
+    static String itemJson(int id) {
+        return "{\"id\":" + id + ",\"name\":\"item-" + id + "\",\"price\":" + (id % 100) + "." + (id % 10) + "9"
+                + ",\"tags\":[\"fixture\",\"" + (id % 2 == 0 ? "even" : "odd") + "\"],\"notes\":\""
+                + "x".repeat((id % 50) * 4096) + "\"}";
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(body)) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** The opaque value of an If-None-Match header ({@code "abc"} or {@code W/"abc"}), or null. */
+    private static String etagValue(String header) {
+        if (header == null) return null;
+        String value = header.trim();
+        if (value.startsWith("W/")) value = value.substring(2);
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1) : value;
+    }
+
+    private void send(HttpExchange exchange, int status, String extension, byte[] body, long bytesPerSecond)
+            throws IOException, InterruptedException {
+        send(exchange, status, extension, body, bytesPerSecond, "no-store");
+    }
+
+    private void send(HttpExchange exchange, int status, String extension, byte[] body, long bytesPerSecond,
+                      String cacheControl) throws IOException, InterruptedException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"));
+        headers.set("Cache-Control", cacheControl);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length == 0) return;
+        OutputStream out = exchange.getResponseBody();
+        if (bytesPerSecond <= 0) {
+            out.write(body);
+        } else {
+            // Pace chunks against a schedule so the average rate holds regardless of write latency.
+            long start = System.nanoTime();
+            int chunk = (int) Math.max(1, Math.min(CHUNK, bytesPerSecond / 20));
+            for (int off = 0; off < body.length; off += chunk) {
+                int len = Math.min(chunk, body.length - off);
+                long due = start + TimeUnit.SECONDS.toNanos(off) / bytesPerSecond;
+                long wait = due - System.nanoTime();
+                if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                out.write(body, off, len);
+                out.flush();
+            }
+        }
+        bytesSent.add(body.length);
+    }
+
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException unsupported) {
+            AtomicInteger n = new AtomicInteger();
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(r, "fixture-http-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("Fixture server closed: {} requests, {} injected failures, {} bytes", requestCount(), failureCount(), bytesSent());
+    }
+}
@@ -0,0 +1,145 @@
+package workshop.offline;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorded BiDi event streams: JSON arrays of frames exactly as they arrive on the WebSocket,
+ * {@code {"type":"event","method":"...","params":{...}}}. The recordings under {@code fixtures/} on
+ * the classpath are {@link #LOG_ENTRY_ADDED} and {@link #RESPONSE_COMPLETED}.
+ */
+public final class RecordedEvents {
+    public static final String RESPONSE_COMPLETED = "fixtures/network.responseCompleted.json";
+    public static final String LOG_ENTRY_ADDED = "fixtures/log.entryAdded.json";
+
+    private static final Json JSON = new Json();
+
+    private RecordedEvents() {
+    }
+
+    /** Frames from a classpath resource. */
+    public static List<Map<String, Object>> load(String resource) {
+        try (InputStream in = RecordedEvents.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalArgumentException("Missing recorded event stream: " + resource);
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Frames from a file. */
+    public static List<Map<String, Object>> load(Path file) {
+        try {
+            return parse(Files.readString(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recorded event stream " + file, e);
+        }
+    }
+
+    public static List<Map<String, Object>> parse(String json) {
+        return JSON.toType(json, Json.LIST_OF_MAPS_TYPE);
+    }
+
+    /** Copy of {@code frame} with params.context and params.source.context set to {@code context}. */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> retarget(Map<String, Object> frame, String context) {
+        Map<String, Object> copy = new LinkedHashMap<>(frame);
+        Object params = frame.get("params");
+        if (!(params instanceof Map)) return copy;
+        Map<String, Object> p = new LinkedHashMap<>((Map<String, Object>) params);
+        if (p.containsKey("context")) p.put("context", context);
+        if (p.get("source") instanceof Map) {
+            Map<String, Object> source = new LinkedHashMap<>((Map<String, Object>) p.get("source"));
+            source.put("context", context);
+            p.put("source", source);
+        }
+        copy.put("params", p);
+        return copy;
+    }
+
+    /** The browsing context an event frame belongs to, or null for session-wide events. */
+    @SuppressWarnings("unchecked")
+    public static String contextOf(Map<String, Object> frame) {
+        Object params = frame.get("params");
+        if (!(params instanceof Map)) return null;
+        Map<String, Object> p = (Map<String, Object>) params;
+        if (p.get("context") != null) return String.valueOf(p.get("context"));
+        if (p.get("source") instanceof Map) {
+            Object ctx = ((Map<String, Object>) p.get("source")).get("context");
+            return ctx == null ? null : String.valueOf(ctx);
+        }
+        return null;
+    }
+
+    /** network.beforeRequestSent params for a top-level document request. */
+    static Map<String, Object> documentRequest(String context, String navigation, String requestId, String url) {
+        Map<String, Object> params = baseNetworkParams(context, navigation, requestId, url);
+        params.put("initiator", Map.of("type", "other"));
+        return params;
+    }
+
+    /** network.responseCompleted params: 200 text/html for the request from {@link #documentRequest}. */
+    static Map<String, Object> documentResponse(String context, String navigation, String requestId, String url) {
+        Map<String, Object> params = baseNetworkParams(context, navigation, requestId, url);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("url", url);
+        response.put("protocol", "http/1.1");
+        response.put("status", 200);
+        response.put("statusText", "OK");
+        response.put("fromCache", false);
+        response.put("headers", List.of(header("content-type", "text/html; charset=utf-8")));
+        response.put("mimeType", "text/html");
+        response.put("bytesReceived", 0);
+        response.put("headersSize", 0);
+        response.put("bodySize", 0);
+        response.put("content", Map.of("size", 0));
+        params.put("response", response);
+        return params;
+    }
+
+    private static Map<String, Object> baseNetworkParams(String context, String navigation, String requestId, String url) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> timings = new LinkedHashMap<>();
+        for (String t : List.of("redirectStart", "redirectEnd", "fetchStart", "dnsStart", "dnsEnd", "connectStart",
+                "connectEnd", "tlsStart", "requestStart", "responseStart", "responseEnd")) {
+            timings.put(t, 0);
+        }
+        timings.put("timeOrigin", now);
+        timings.put("requestTime", now);
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("request", requestId);
+        request.put("url", url);
+        request.put("method", "GET");
+        request.put("headers", List.of(header("accept", "text/html")));
+        request.put("cookies", List.of());
+        request.put("headersSize", 0);
+        request.put("bodySize", 0);
+        request.put("destination", "document");
+        request.put("initiatorType", null);
+        request.put("timings", timings);
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("context", context);
+        params.put("isBlocked", false);
+        params.put("navigation", navigation);
+        params.put("redirectCount", 0);
+        params.put("request", request);
+        params.put("timestamp", now);
+        params.put("intercepts", List.of());
+        return params;
+    }
+
+    private static Map<String, Object> header(String name, String value) {
+        return Map.of("name", name, "value", Map.of("type", "string", "value", value));
+    }
+}
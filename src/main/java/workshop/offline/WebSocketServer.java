@@ -0,0 +1,272 @@
+package workshop.offline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Just enough of RFC 6455 to be the server end of Selenium's BiDi {@code Connection}: the HTTP upgrade,
+ * text messages (including fragmented ones), ping/pong and close. No extensions, no subprotocols, and
+ * binary messages are ignored. One platform thread per connection; sends are synchronized per peer.
+ */
+final class WebSocketServer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketServer.class);
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int MAX_MESSAGE = 64 << 20;
+
+    /** The server side of one WebSocket connection. */
+    static final class Peer {
+        private final Socket socket;
+        private final OutputStream out;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        private volatile boolean open = true;
+
+        private Peer(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+        }
+
+        /** Per-connection state for the protocol layer (e.g. subscriptions). */
+        Map<String, Object> attributes() { return attributes; }
+
+        boolean isOpen() { return open; }
+
+        void sendText(String message) throws IOException {
+            byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+            synchronized (out) {
+                writeFrame(0x1, payload);
+                out.flush();
+            }
+        }
+
+        private void writeFrame(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            int len = payload.length;
+            if (len < 126) {
+                out.write(len);
+            } else if (len < 65536) {
+                out.write(126);
+                out.write(len >>> 8);
+                out.write(len);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) ((long) len >>> shift));
+                }
+            }
+            out.write(payload);
+        }
+
+        private void control(int opcode, byte[] payload) {
+            try {
+                synchronized (out) {
+                    writeFrame(opcode, payload);
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+                // The peer is going away anyway.
+            }
+        }
+
+        void close() {
+            if (!open) return;
+            open = false;
+            control(0x8, new byte[] {0x03, (byte) 0xE8}); // 1000 normal closure
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private final ServerSocket serverSocket;
+    private final BiConsumer<Peer, String> onMessage;
+    private final Consumer<Peer> onClose;
+    private final Set<Peer> peers = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    WebSocketServer(int port, BiConsumer<Peer, String> onMessage, Consumer<Peer> onClose) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.onMessage = onMessage;
+        this.onClose = onClose;
+        this.acceptor = new Thread(this::acceptLoop, "fake-bidi-accept");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    int port() { return serverSocket.getLocalPort(); }
+
+    Set<Peer> peers() { return peers; }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread t = new Thread(() -> serve(socket), "fake-bidi-peer-" + socket.getPort());
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) logger.warn("Accept failed", e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Peer peer = null;
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Map<String, String> headers = readUpgradeRequest(in);
+            String key = headers.get("sec-websocket-key");
+            if (key == null) {
+                socket.getOutputStream().write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\n\r\n"
+                        .getBytes(StandardCharsets.US_ASCII));
+                socket.close();
+                return;
+            }
+            peer = new Peer(socket);
+            String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept(key) + "\r\n\r\n";
+            synchronized (peer.out) {
+                peer.out.write(response.getBytes(StandardCharsets.US_ASCII));
+                peer.out.flush();
+            }
+            peers.add(peer);
+            readMessages(in, peer);
+        } catch (EOFException | SocketException e) {
+            // Client went away.
+        } catch (IOException | RuntimeException e) {
+            logger.warn("WebSocket connection failed", e);
+        } finally {
+            if (peer != null) {
+                peers.remove(peer);
+                peer.close();
+                onClose.accept(peer);
+            } else {
+                try { socket.close(); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    private static Map<String, String> readUpgradeRequest(InputStream in) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        String line = readLine(in); // request line
+        if (line == null) throw new EOFException();
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                int len = sb.length();
+                return len > 0 && sb.charAt(len - 1) == '\r' ? sb.substring(0, len - 1) : sb.toString();
+            }
+            sb.append((char) c);
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    private void readMessages(DataInputStream in, Peer peer) throws IOException {
+        ByteArrayOutputStream fragments = new ByteArrayOutputStream();
+        int messageOpcode = -1;
+        while (peer.isOpen()) {
+            int b0 = in.readUnsignedByte();
+            int b1 = in.readUnsignedByte();
+            boolean fin = (b0 & 0x80) != 0;
+            int opcode = b0 & 0x0F;
+            boolean masked = (b1 & 0x80) != 0;
+            long len = b1 & 0x7F;
+            if (len == 126) len = in.readUnsignedShort();
+            else if (len == 127) len = in.readLong();
+            if (len < 0 || len > MAX_MESSAGE) throw new IOException("Frame too large: " + len);
+            byte[] mask = new byte[4];
+            if (masked) in.readFully(mask);
+            byte[] payload = new byte[(int) len];
+            in.readFully(payload);
+            if (masked) {
+                for (int i = 0; i < payload.length; i++) payload[i] ^= mask[i & 3];
+            }
+
+            switch (opcode) {
+                case 0x8: // close
+                    peer.close();
+                    return;
+                case 0x9: // ping
+                    peer.control(0xA, payload);
+                    continue;
+                case 0xA: // pong
+                    continue;
+                case 0x0: // continuation
+                    break;
+                default:
+                    messageOpcode = opcode;
+                    fragments.reset();
+            }
+            fragments.write(payload);
+            if (fragments.size() > MAX_MESSAGE) throw new IOException("Message too large");
+            if (fin) {
+                if (messageOpcode == 0x1) {
+                    onMessage.accept(peer, fragments.toString(StandardCharsets.UTF_8));
+                }
+                fragments.reset();
+                messageOpcode = -1;
+            }
+        }
+    }
+
+    private static String accept(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        for (Peer peer : peers) {
+            peer.close();
+        }
+        peers.clear();
+    }
+}
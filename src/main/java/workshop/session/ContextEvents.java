@@ -0,0 +1,94 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.BiDi;
+import org.openqa.selenium.bidi.Event;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.log.ConsoleLogEntry;
+import org.openqa.selenium.bidi.log.Log;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Event-driven waits for a single browsing context, used instead of fixed {@code Thread.sleep} pacing.
+ *
+ * Subscriptions are scoped to the context on the browser side, but Selenium dispatches every event of a
+ * given method to every Java listener on the connection, so each listener here also checks the event's
+ * context. Listeners are removed by id on {@link #close()}; the module-level {@code close()} methods
+ * (LogInspector, Network) cannot do that because they look listeners up by a fresh {@link Event} instance.
+ */
+public final class ContextEvents implements AutoCloseable {
+
+    /** network.responseCompleted, mapped the same way Selenium's Network module does. */
+    public static final String RESPONSE_COMPLETED = "network.responseCompleted";
+
+    private final BiDi bidi;
+    private final String contextId;
+    private final Set<String> contexts;
+    private final List<Long> listenerIds = Collections.synchronizedList(new ArrayList<>());
+
+    public ContextEvents(WebDriver driver, String contextId) {
+        this.bidi = ((HasBiDi) driver).getBiDi();
+        this.contextId = contextId;
+        this.contexts = Collections.singleton(contextId);
+    }
+
+    public String contextId() { return contextId; }
+
+    /** Call {@code handler} for every console entry logged by this context. */
+    public void onConsoleEntry(Consumer<ConsoleLogEntry> handler) {
+        listen(Log.entryAdded(), entry -> entry.getConsoleLogEntry()
+                .filter(this::fromThisContext)
+                .ifPresent(handler));
+    }
+
+    /** Completes with the first console entry from this context that matches. */
+    public CompletableFuture<ConsoleLogEntry> nextConsoleEntry(Predicate<ConsoleLogEntry> match) {
+        CompletableFuture<ConsoleLogEntry> next = new CompletableFuture<>();
+        onConsoleEntry(entry -> {
+            if (!next.isDone() && match.test(entry)) next.complete(entry);
+        });
+        return next;
+    }
+
+    /** Completes with the first network.responseCompleted in this context that matches. */
+    public CompletableFuture<ResponseDetails> nextResponse(Predicate<ResponseDetails> match) {
+        CompletableFuture<ResponseDetails> next = new CompletableFuture<>();
+        listen(new Event<>(RESPONSE_COMPLETED, ResponseDetails::fromJsonMap), details -> {
+            if (!next.isDone() && contextId.equals(details.getBrowsingContextId()) && match.test(details)) {
+                next.complete(details);
+            }
+        });
+        return next;
+    }
+
+    private <X> void listen(Event<X> event, Consumer<X> handler) {
+        listenerIds.add(bidi.addListener(contexts, event, handler));
+    }
+
+    private boolean fromThisContext(ConsoleLogEntry entry) {
+        return entry.getSource() != null
+                && entry.getSource().getBrowsingContext().map(contextId::equals).orElse(false);
+    }
+
+    @Override
+    public void close() {
+        synchronized (listenerIds) {
+            for (Long id : listenerIds) {
+                try {
+                    bidi.removeListener(id);
+                } catch (RuntimeException ignored) {
+                    // Connection already gone; nothing left to remove.
+                }
+            }
+            listenerIds.clear();
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package workshop.session;
+
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds BiDi-ready Chrome and Firefox sessions tuned for start-up time, and launches them in parallel.
+ *
+ * What "tuned" means here:
+ * <ul>
+ *   <li>headless (default on);</li>
+ *   <li>background services off: first-run and default-browser checks, component and extension
+ *       updates, sync, background networking, telemetry (Chrome flags, Firefox prefs);</li>
+ *   <li>optionally a pre-seeded profile: {@link #seedTemplate} runs the browser once against a directory
+ *       so first-run work (profile creation, component registration) is already done, and every launch
+ *       starts from a private copy of it. Copies are deleted when their session closes.</li>
+ * </ul>
+ * Each {@link Launched} session reports the time until the driver returned and until its first browsing
+ * context finished a BiDi navigation to about:blank, which is when scenario code can really start.
+ * {@link #launchAll} starts several at once and summarises those times.
+ *
+ * Usage:
+ * <pre>{@code
+ * try (DriverFactory factory = new DriverFactory(DriverFactory.Browser.CHROME).profileTemplate(template)) {
+ *     factory.seedTemplate();
+ *     try (SessionPool pool = new SessionPool(4, factory::newDriver)) { ... }
+ * }
+ * }</pre>
+ */
+public class DriverFactory implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DriverFactory.class);
+
+    public enum Browser { CHROME, FIREFOX }
+
+    /** Chrome switches that keep background work from competing with start-up. */
+    static final List<String> CHROME_QUIET_ARGS = List.of(
+            "--no-first-run",
+            "--no-default-browser-check",
+            "--disable-background-networking",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--disable-extensions",
+            "--disable-sync",
+            "--disable-breakpad",
+            "--disable-domain-reliability",
+            "--disable-client-side-phishing-detection",
+            "--disable-features=Translate,OptimizationHints,MediaRouter,AutofillServerCommunication",
+            "--metrics-recording-only",
+            "--password-store=basic",
+            "--use-mock-keychain",
+            // Background tabs keep full timer and rendering priority; the workshop drives many at once.
+            "--disable-background-timer-throttling",
+            "--disable-renderer-backgrounding",
+            "--disable-backgrounding-occluded-windows");
+
+    /** Firefox prefs with the same intent. */
+    static final Map<String, Object> FIREFOX_QUIET_PREFS = Map.ofEntries(
+            Map.entry("app.update.enabled", false),
+            Map.entry("app.normandy.enabled", false),
+            Map.entry("browser.shell.checkDefaultBrowser", false),
+            Map.entry("browser.startup.homepage_override.mstone", "ignore"),
+            Map.entry("browser.aboutwelcome.enabled", false),
+            Map.entry("datareporting.policy.dataSubmissionEnabled", false),
+            Map.entry("datareporting.healthreport.uploadEnabled", false),
+            Map.entry("toolkit.telemetry.enabled", false),
+            Map.entry("extensions.update.enabled", false),
+            Map.entry("browser.safebrowsing.update.enabled", false),
+            Map.entry("network.captive-portal-service.enabled", false),
+            Map.entry("network.connectivity-service.enabled", false),
+            Map.entry("browser.newtabpage.enabled", false));
+
+    /** Lock files a running browser leaves in its profile; copying them would make the copy look in use. */
+    private static final Set<String> PROFILE_LOCKS = Set.of("SingletonLock", "SingletonSocket", "SingletonCookie",
+            "lock", ".parentlock", "parent.lock");
+
+    /** One started session and how long it took to become usable. */
+    public static final class Launched implements AutoCloseable {
+        private final WebDriver driver;
+        private final Path profile;
+        private final long millisToDriver;
+        private final long millisToFirstContext;
+
+        Launched(WebDriver driver, Path profile, long millisToDriver, long millisToFirstContext) {
+            this.driver = driver;
+            this.profile = profile;
+            this.millisToDriver = millisToDriver;
+            this.millisToFirstContext = millisToFirstContext;
+        }
+
+        public WebDriver driver() { return driver; }
+        /** Until the driver constructor returned (session created, BiDi socket open). */
+        public long getMillisToDriver() { return millisToDriver; }
+        /** Until the first browsing context completed a BiDi navigation. */
+        public long getMillisToFirstContext() { return millisToFirstContext; }
+
+        /** Quit the browser and delete its profile copy, if any. */
+        @Override
+        public void close() {
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                logger.error("Error closing WebDriver session", e);
+            }
+            deleteQuietly(profile);
+        }
+    }
+
+    private final Browser browser;
+    private boolean headless = true;
+    private boolean quiet = true;
+    private Path profileTemplate;
+    private final List<String> extraArgs = new ArrayList<>();
+    private final List<Path> profileCopies = new CopyOnWriteArrayList<>();
+
+    public DriverFactory(Browser browser) {
+        this.browser = browser;
+    }
+
+    public DriverFactory headless(boolean headless) {
+        this.headless = headless;
+        return this;
+    }
+
+    /** Turn the background-service switches and prefs on or off (default on). */
+    public DriverFactory quiet(boolean quiet) {
+        this.quiet = quiet;
+        return this;
+    }
+
+    /** Start every session from a copy of this profile directory (see {@link #seedTemplate()}). */
+    public DriverFactory profileTemplate(Path template) {
+        this.profileTemplate = template;
+        return this;
+    }
+
+    /** Extra browser arguments, appended after the factory's own. */
+    public DriverFactory argument(String argument) {
+        extraArgs.add(argument);
+        return this;
+    }
+
+    /** Options for one session; {@code profile} (may be null) is the user data directory to use. */
+    public MutableCapabilities options(Path profile) {
+        if (browser == Browser.CHROME) {
+            ChromeOptions options = new ChromeOptions();
+            options.setCapability("webSocketUrl", true);
+            if (headless) options.addArguments("--headless=new");
+            if (quiet) options.addArguments(CHROME_QUIET_ARGS);
+            if (profile != null) options.addArguments("--user-data-dir=" + profile.toAbsolutePath());
+            options.addArguments(extraArgs);
+            return options;
+        }
+        FirefoxOptions options = new FirefoxOptions();
+        options.setCapability("webSocketUrl", true);
+        if (headless) options.addArguments("-headless");
+        if (quiet) FIREFOX_QUIET_PREFS.forEach(options::addPreference);
+        if (profile != null) options.addArguments("-profile", profile.toAbsolutePath().toString());
+        options.addArguments(extraArgs);
+        return options;
+    }
+
+    /**
+     * Run the browser once with the template directory as its profile, so later copies skip first-run
+     * work. Does nothing if the template already has content. Requires {@link #profileTemplate}.
+     */
+    public void seedTemplate() {
+        if (profileTemplate == null) throw new IllegalStateException("No profile template configured");
+        try {
+            Files.createDirectories(profileTemplate);
+            try (var entries = Files.list(profileTemplate)) {
+                if (entries.findAny().isPresent()) return;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare profile template " + profileTemplate, e);
+        }
+        long start = System.nanoTime();
+        WebDriver driver = start(profileTemplate);
+        try {
+            new BrowsingContext(driver, driver.getWindowHandle()).navigate("about:blank", ReadinessState.COMPLETE);
+        } finally {
+            driver.quit();
+        }
+        logger.info("Seeded {} profile template {} in {} ms", browser, profileTemplate.toAbsolutePath(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * A new session as a plain WebDriver, e.g. as a {@link SessionPool} factory. Its profile copy (if any)
+     * is deleted when this factory closes.
+     */
+    public WebDriver newDriver() {
+        return start(copyTemplate());
+    }
+
+    /** Start one session and measure it. */
+    public Launched launch() {
+        Path profile = copyTemplate();
+        if (profile != null) profileCopies.remove(profile); // owned by the Launched from here on
+        long start = System.nanoTime();
+        WebDriver driver;
+        try {
+            driver = start(profile);
+        } catch (RuntimeException e) {
+            deleteQuietly(profile);
+            throw e;
+        }
+        long toDriver = System.nanoTime() - start;
+        try {
+            new BrowsingContext(driver, driver.getWindowHandle()).navigate("about:blank", ReadinessState.COMPLETE);
+        } catch (RuntimeException e) {
+            new Launched(driver, profile, 0, 0).close();
+            throw e;
+        }
+        long toContext = System.nanoTime() - start;
+        return new Launched(driver, profile, toDriver / 1_000_000, toContext / 1_000_000);
+    }
+
+    /**
+     * Start {@code count} sessions in parallel. If any fails, the ones that started are closed and the
+     * first failure is thrown. The spread of start-up times is logged.
+     */
+    public List<Launched> launchAll(int count) {
+        ExecutorService starter = Executors.newFixedThreadPool(count);
+        long start = System.nanoTime();
+        List<Launched> launched = new ArrayList<>();
+        Throwable failure = null;
+        try {
+            List<Future<Launched>> starting = new ArrayList<>();
+            for (int i = 0; i < count; i++) starting.add(starter.submit(this::launch));
+            for (Future<Launched> f : starting) {
+                try {
+                    launched.add(f.get());
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = e.getCause();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } finally {
+            starter.shutdownNow();
+        }
+        if (failure != null) {
+            launched.forEach(Launched::close);
+            throw new IllegalStateException("Failed to launch " + count + " " + browser + " sessions", failure);
+        }
+        LatencyHistogram toDriver = new LatencyHistogram();
+        LatencyHistogram toContext = new LatencyHistogram();
+        for (Launched l : launched) {
+            toDriver.recordMillis(l.getMillisToDriver());
+            toContext.recordMillis(l.getMillisToFirstContext());
+        }
+        logger.info("{} {} sessions (headless={}, quiet={}, template={}) in {} ms; to driver {}; to first context {}",
+                count, browser, headless, quiet, profileTemplate != null, (System.nanoTime() - start) / 1_000_000,
+                toDriver.snapshot(), toContext.snapshot());
+        return launched;
+    }
+
+    private WebDriver start(Path profile) {
+        MutableCapabilities options = options(profile);
+        return browser == Browser.CHROME ? new ChromeDriver((ChromeOptions) options) : new FirefoxDriver((FirefoxOptions) options);
+    }
+
+    /** A private copy of the template, or null without one. */
+    private Path copyTemplate() {
+        if (profileTemplate == null) return null;
+        try {
+            Path copy = Files.createTempDirectory("workshop-profile-");
+            profileCopies.add(copy);
+            Files.walkFileTree(profileTemplate, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(copy.resolve(profileTemplate.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (attrs.isRegularFile() && !PROFILE_LOCKS.contains(file.getFileName().toString())) {
+                        Files.copy(file, copy.resolve(profileTemplate.relativize(file).toString()),
+                                StandardCopyOption.COPY_ATTRIBUTES);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return copy;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not copy profile template " + profileTemplate, e);
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (dir == null || !Files.exists(dir)) return;
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.deleteIfExists(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException e) throws IOException {
+                    Files.deleteIfExists(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            logger.debug("Could not delete profile copy {}", dir, e);
+        }
+    }
+
+    /** Delete profile copies handed out by {@link #newDriver()}; quit those drivers first. */
+    @Override
+    public void close() {
+        for (Path copy : profileCopies) deleteQuietly(copy);
+        profileCopies.clear();
+    }
+}
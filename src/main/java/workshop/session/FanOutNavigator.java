@@ -0,0 +1,254 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.Command;
+import org.openqa.selenium.bidi.Connection;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.NavigationResult;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import workshop.network.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Navigates many URLs at once, one new browsing context per URL, without a thread per navigation.
+ *
+ * {@link #navigateAll} returns one {@code CompletableFuture<NavigationResult>} per URL straight away.
+ * Each URL gets a background tab (browsingContext.create) and a browsingContext.navigate that waits
+ * for the configured {@link #readiness} (INTERACTIVE finishes at DOMContentLoaded, COMPLETE at load).
+ * Commands go out through the BiDi connection's asynchronous send, so waiting costs no threads; at most
+ * {@link #maxConcurrent} navigations are in flight, the rest queue in order. Use one navigator per
+ * browser, since the cap is what keeps a single browser from being flooded with tabs.
+ *
+ * After a navigation the optional {@link #onLoaded} hook runs with the context id (e.g. to read the
+ * title or check for console errors); the context is then closed unless {@link #keepContexts} is set.
+ * Futures fail with the BiDi error, a {@link java.util.concurrent.TimeoutException} after
+ * {@link #timeout}, or whatever the hook threw. Continuations run on the navigator's own pool, never on
+ * the WebSocket reader.
+ */
+public class FanOutNavigator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(FanOutNavigator.class);
+
+    private final Connection connection;
+    private final ExecutorService executor;
+    private ReadinessState readiness = ReadinessState.COMPLETE;
+    private int maxConcurrent = 8;
+    private Duration timeout = Duration.ofSeconds(60);
+    private boolean keepContexts;
+    private BiConsumer<String, NavigationResult> onLoaded;
+
+    private final Deque<Runnable> queue = new ArrayDeque<>();
+    private final Set<CompletableFuture<NavigationResult>> pending = ConcurrentHashMap.newKeySet();
+    private int inFlight;
+    private int maxInFlight;
+    private final List<String> keptContexts = Collections.synchronizedList(new ArrayList<>());
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public FanOutNavigator(WebDriver driver) {
+        this.connection = ScopedSubscription.connectionOf(((HasBiDi) driver).getBiDi());
+        AtomicInteger n = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fan-out-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** When a navigation counts as done (default COMPLETE). */
+    public FanOutNavigator readiness(ReadinessState readiness) {
+        this.readiness = readiness;
+        return this;
+    }
+
+    /** Navigations (and their tabs) in flight at once (default 8). */
+    public FanOutNavigator maxConcurrent(int maxConcurrent) {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be >= 1: " + maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        return this;
+    }
+
+    /** Limit for creating the context plus navigating (default 60 s). */
+    public FanOutNavigator timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /** Leave each context open after its navigation (default false: close it, freeing the tab). */
+    public FanOutNavigator keepContexts(boolean keep) {
+        this.keepContexts = keep;
+        return this;
+    }
+
+    /** Run {@code hook(contextId, result)} after each successful navigation, before the context closes. */
+    public FanOutNavigator onLoaded(BiConsumer<String, NavigationResult> hook) {
+        this.onLoaded = hook;
+        return this;
+    }
+
+    /** Start navigating every URL; the futures are in the order of {@code urls}. */
+    public List<CompletableFuture<NavigationResult>> navigateAll(List<String> urls) {
+        List<CompletableFuture<NavigationResult>> results = new ArrayList<>(urls.size());
+        synchronized (queue) {
+            for (String url : urls) {
+                CompletableFuture<NavigationResult> result = new CompletableFuture<>();
+                result.whenComplete((nav, failure) -> pending.remove(result));
+                pending.add(result);
+                results.add(result);
+                queue.add(() -> start(url, result));
+            }
+        }
+        pump();
+        return results;
+    }
+
+    private void pump() {
+        List<Runnable> ready = new ArrayList<>();
+        synchronized (queue) {
+            while (inFlight < maxConcurrent && !queue.isEmpty()) {
+                inFlight++;
+                maxInFlight = Math.max(maxInFlight, inFlight);
+                ready.add(queue.poll());
+            }
+        }
+        ready.forEach(Runnable::run);
+    }
+
+    private void start(String url, CompletableFuture<NavigationResult> result) {
+        long start = System.nanoTime();
+        AtomicReference<String> context = new AtomicReference<>();
+        CompletableFuture<String> created;
+        try {
+            created = connection.send(createTab());
+        } catch (RuntimeException e) {
+            created = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<String> tab = created;
+        tab
+                .thenComposeAsync(id -> {
+                    context.set(id);
+                    return connection.send(navigate(id, url));
+                }, executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApplyAsync(nav -> {
+                    if (onLoaded != null) onLoaded.accept(context.get(), nav);
+                    return nav;
+                }, executor)
+                .whenCompleteAsync((nav, failure) -> {
+                    if (failure == null) {
+                        succeeded.increment();
+                        latency.recordMicros((System.nanoTime() - start) / 1000);
+                        result.complete(nav);
+                    } else {
+                        failed.increment();
+                        logger.debug("Navigation to {} failed", url, failure);
+                        result.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                                ? failure.getCause() : failure);
+                    }
+                    if (context.get() == null && !keepContexts) {
+                        // Timed out before the tab existed: close it whenever it turns up.
+                        tab.thenAccept(this::closeContext);
+                    }
+                    finish(context.get());
+                }, executor);
+    }
+
+    /** Close (or keep) the context, then hand its slot to the next queued URL. */
+    private void finish(String context) {
+        CompletableFuture<?> closed;
+        if (context == null) {
+            closed = CompletableFuture.completedFuture(null);
+        } else if (keepContexts) {
+            keptContexts.add(context);
+            closed = CompletableFuture.completedFuture(null);
+        } else {
+            closed = closeContext(context).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        closed.whenCompleteAsync((ignored, failure) -> {
+            if (failure != null) logger.debug("Could not close context {}", context, failure);
+            synchronized (queue) {
+                inFlight--;
+            }
+            pump();
+        }, executor);
+    }
+
+    private CompletableFuture<Map<String, Object>> closeContext(String context) {
+        return connection.send(new Command<>("browsingContext.close", Map.of("context", context), Json.MAP_TYPE));
+    }
+
+    private static Command<String> createTab() {
+        return new Command<>("browsingContext.create", Map.of("type", "tab", "background", true), input -> {
+            Map<String, Object> result = input.read(Json.MAP_TYPE);
+            return String.valueOf(result.get("context"));
+        });
+    }
+
+    private Command<NavigationResult> navigate(String context, String url) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("context", context);
+        params.put("url", url);
+        params.put("wait", readiness.toString());
+        return new Command<>("browsingContext.navigate", params, NavigationResult::fromJson);
+    }
+
+    /** Contexts left open because of {@link #keepContexts}. */
+    public List<String> keptContexts() {
+        synchronized (keptContexts) {
+            return List.copyOf(keptContexts);
+        }
+    }
+
+    public long succeededCount() { return succeeded.sum(); }
+
+    public long failedCount() { return failed.sum(); }
+
+    public int maxInFlight() {
+        synchronized (queue) {
+            return maxInFlight;
+        }
+    }
+
+    /** Per-URL time from dequeue to result (context creation plus navigation plus hook), successes only. */
+    public LatencyHistogram.Snapshot latency() { return latency.snapshot(); }
+
+    public String summary() {
+        return String.format("%d navigations ok, %d failed (wait=%s, max %d in flight); per page %s",
+                succeededCount(), failedCount(), readiness, maxInFlight(), latency());
+    }
+
+    /** Stop the navigator's threads; navigations still queued or in flight are failed. */
+    @Override
+    public void close() {
+        synchronized (queue) {
+            queue.clear();
+        }
+        List<CompletableFuture<NavigationResult>> unfinished = List.copyOf(pending);
+        unfinished.forEach(f -> f.completeExceptionally(new IllegalStateException("FanOutNavigator closed")));
+        if (!unfinished.isEmpty()) logger.warn("{} unfinished navigations failed on close", unfinished.size());
+        executor.shutdown();
+        logger.info("{}", summary());
+    }
+}
@@ -0,0 +1,11 @@
+package workshop.session;
+
+/**
+ * How a {@link SessionLease} is isolated from other work on the same pooled browser.
+ */
+public enum Isolation {
+    /** A new tab in the default user context. Cheap; cookies are cleared on release, other storage is shared. */
+    TAB,
+    /** A new tab in a fresh user context (browser.createUserContext). Cookies, storage and cache are private. */
+    USER_CONTEXT
+}
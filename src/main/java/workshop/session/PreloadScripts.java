@@ -0,0 +1,72 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.module.Script;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helper functions registered once per driver session as BiDi preload scripts.
+ *
+ * script.addPreloadScript runs a function in every new document before the page's own scripts, so a
+ * helper installed that way (e.g. {@code window.__workshopFillRow = ...}) is already defined after every
+ * navigation. Scenario code then calls it with a one-line script.callFunction instead of sending, and
+ * having the browser parse, the whole helper each time. Keep one registry per session and reuse it across
+ * scenario iterations: {@link #install} with a source it already registered is a map lookup.
+ *
+ * The registry belongs to whoever created it: {@link #close()} removes its scripts from the browser and
+ * closes its Script module. Nothing else holds on to it or to the driver.
+ *
+ * Preload scripts apply to documents created after registration: install before navigating.
+ */
+public final class PreloadScripts implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PreloadScripts.class);
+
+    private final Script script;
+    private final Map<String, String> idsBySource = new LinkedHashMap<>();
+
+    public PreloadScripts(WebDriver driver) {
+        this.script = new Script(driver);
+    }
+
+    /**
+     * Register {@code functionDeclaration} as a preload script unless this registry already has it.
+     * Returns the preload script id.
+     */
+    public synchronized String install(String functionDeclaration) {
+        String id = idsBySource.get(functionDeclaration);
+        if (id == null) {
+            id = script.addPreloadScript(functionDeclaration);
+            idsBySource.put(functionDeclaration, id);
+            logger.debug("Preload script {} registered ({} chars)", id, functionDeclaration.length());
+        }
+        return id;
+    }
+
+    public synchronized int size() {
+        return idsBySource.size();
+    }
+
+    /** Remove every script this registry registered. */
+    @Override
+    public void close() {
+        List<String> ids;
+        synchronized (this) {
+            ids = new ArrayList<>(idsBySource.values());
+            idsBySource.clear();
+        }
+        for (String id : ids) {
+            try {
+                script.removePreloadScript(id);
+            } catch (RuntimeException e) {
+                logger.debug("Could not remove preload script {}", id, e);
+            }
+        }
+        script.close();
+    }
+}
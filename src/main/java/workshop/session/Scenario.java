@@ -0,0 +1,16 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+
+/**
+ * One workshop flow, written against a driver and the browsing context it should use.
+ *
+ * Scenarios must only touch their own context, so the same flow can run on a fresh driver
+ * (as the workshop main classes do) or on a leased context from a {@link SessionPool}.
+ */
+@FunctionalInterface
+public interface Scenario {
+
+    void run(WebDriver driver, BrowsingContext context) throws Exception;
+}
@@ -0,0 +1,35 @@
+package workshop.session;
+
+/**
+ * Outcome of one scenario run by {@link ScenarioRunner}.
+ */
+public final class ScenarioResult {
+    private final String name;
+    private final String contextId;
+    private final long durationMillis;
+    private final Throwable failure;
+
+    ScenarioResult(String name, String contextId, long durationMillis, Throwable failure) {
+        this.name = name;
+        this.contextId = contextId;
+        this.durationMillis = durationMillis;
+        this.failure = failure;
+    }
+
+    public String getName() { return name; }
+
+    public String getContextId() { return contextId; }
+
+    public long getDurationMillis() { return durationMillis; }
+
+    public boolean isSuccess() { return failure == null; }
+
+    /** The exception thrown by the scenario, or {@code null} on success. */
+    public Throwable getFailure() { return failure; }
+
+    @Override
+    public String toString() {
+        return name + " [" + contextId + "] " + durationMillis + " ms"
+                + (failure == null ? "" : " FAILED: " + failure);
+    }
+}
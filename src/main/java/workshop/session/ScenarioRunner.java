@@ -0,0 +1,126 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.CreateContextParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many {@link Scenario}s at once over one shared BiDi driver, one browsing context each.
+ *
+ * Each scenario gets its own background tab and its own thread. Scenarios wait on BiDi events
+ * (see {@link ContextEvents}) instead of sleeping, and only use context-addressed BiDi commands,
+ * so a batch takes roughly as long as its slowest scenario rather than the sum of all of them.
+ *
+ * Threads are virtual when the JVM supports them (JDK 21+) and pooled platform threads otherwise;
+ * scenarios spend nearly all their time blocked on the BiDi socket either way.
+ */
+public class ScenarioRunner implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioRunner.class);
+
+    private final WebDriver driver;
+    private final ExecutorService executor;
+
+    public ScenarioRunner(WebDriver driver) {
+        this.driver = driver;
+        this.executor = newScenarioExecutor();
+    }
+
+    /**
+     * Run every scenario {@code copies} times concurrently and wait for all of them
+     * (or until {@code timeout} has elapsed for the batch).
+     */
+    public List<ScenarioResult> runAll(Map<String, Scenario> scenarios, int copies, Duration timeout)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        List<String> names = new ArrayList<>();
+        List<Future<ScenarioResult>> running = new ArrayList<>();
+        for (int copy = 0; copy < copies; copy++) {
+            for (Map.Entry<String, Scenario> scenario : scenarios.entrySet()) {
+                String name = copies == 1 ? scenario.getKey() : scenario.getKey() + "#" + copy;
+                names.add(name);
+                running.add(executor.submit(() -> runOne(name, scenario.getValue())));
+            }
+        }
+
+        long deadline = start + timeout.toNanos();
+        List<ScenarioResult> results = new ArrayList<>();
+        for (int i = 0; i < running.size(); i++) {
+            Future<ScenarioResult> f = running.get(i);
+            try {
+                results.add(f.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                f.cancel(true);
+                results.add(new ScenarioResult(names.get(i), null, timeout.toMillis(), e));
+            } catch (ExecutionException e) {
+                results.add(new ScenarioResult(names.get(i), null, 0, e.getCause()));
+            }
+        }
+
+        long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long sumMs = results.stream().mapToLong(ScenarioResult::getDurationMillis).sum();
+        long slowestMs = results.stream().mapToLong(ScenarioResult::getDurationMillis).max().orElse(0);
+        long failed = results.stream().filter(r -> !r.isSuccess()).count();
+        logger.info("Ran {} scenarios in {} ms wall-clock (slowest {} ms, sum {} ms, {} failed)",
+                results.size(), wallMs, slowestMs, sumMs, failed);
+        return results;
+    }
+
+    private ScenarioResult runOne(String name, Scenario scenario) {
+        long start = System.nanoTime();
+        BrowsingContext context = null;
+        Throwable failure = null;
+        try {
+            context = new BrowsingContext(driver, new CreateContextParameters(WindowType.TAB).background(true));
+            scenario.run(driver, context);
+        } catch (Throwable t) {
+            failure = t;
+            logger.error("Scenario {} failed", name, t);
+        } finally {
+            if (context != null) {
+                try {
+                    context.close();
+                } catch (Exception e) {
+                    logger.warn("Error closing context for scenario {}", name, e);
+                }
+            }
+        }
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new ScenarioResult(name, context != null ? context.getId() : null, ms, failure);
+    }
+
+    /** Virtual-thread-per-task executor on JDK 21+, cached daemon platform threads on older JDKs. */
+    static ExecutorService newScenarioExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException unsupported) {
+            AtomicInteger n = new AtomicInteger();
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(r, "scenario-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
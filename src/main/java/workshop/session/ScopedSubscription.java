@@ -0,0 +1,186 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.BiDi;
+import org.openqa.selenium.bidi.Command;
+import org.openqa.selenium.bidi.Connection;
+import org.openqa.selenium.bidi.Event;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * One browser-side subscription for a fixed set of events and browsing contexts, torn down on close.
+ *
+ * Selenium's {@code BiDi.addListener} sends a new session.subscribe for every listener and never
+ * unsubscribes when the listener is removed; the module {@code close()} methods unsubscribe by event
+ * name, which drops everybody's subscription to that event. Events therefore keep flowing for tabs
+ * nobody listens to, and every one of them is parsed on the client. This class sends a single
+ * session.subscribe for exactly the events and contexts given, keeps the subscription id it returns,
+ * and on {@link #close()} removes its listeners and sends session.unsubscribe for that id only:
+ * <pre>{@code
+ * try (ScopedSubscription sub = ScopedSubscription.open(driver, List.of(formTab), "log.entryAdded")) {
+ *     sub.on(Log.entryAdded(), entry -> ...);
+ *     ...
+ * } // browser stops sending log.entryAdded for formTab here
+ * }</pre>
+ *
+ * Listeners are attached to the connection directly, so adding one sends nothing. Other subscriptions
+ * on the same connection (e.g. a global LogInspector) still dispatch their events to these listeners,
+ * so events whose context is known and not in scope are dropped before they are mapped.
+ * An empty context list subscribes globally, which is useful as the "before" case in measurements.
+ */
+public final class ScopedSubscription implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ScopedSubscription.class);
+
+    private final BiDi bidi;
+    private final Connection connection;
+    private final List<String> events;
+    private final Set<String> contexts;
+    private final String subscriptionId;
+    private final List<Long> listenerIds = Collections.synchronizedList(new ArrayList<>());
+    private final LongAdder received = new LongAdder();
+    private final LongAdder outOfScope = new LongAdder();
+    private volatile boolean closed;
+
+    private ScopedSubscription(BiDi bidi, Connection connection, List<String> events, Set<String> contexts,
+                               String subscriptionId) {
+        this.bidi = bidi;
+        this.connection = connection;
+        this.events = events;
+        this.contexts = contexts;
+        this.subscriptionId = subscriptionId;
+    }
+
+    /**
+     * Subscribe to {@code events} (event names like "log.entryAdded", or module names like "network")
+     * for the given top-level contexts; an empty collection means all contexts.
+     */
+    public static ScopedSubscription open(WebDriver driver, Collection<String> contexts, String... events) {
+        if (events.length == 0) throw new IllegalArgumentException("At least one event is required");
+        BiDi bidi = ((HasBiDi) driver).getBiDi();
+        Connection connection = connectionOf(bidi);
+        List<String> eventList = List.of(events);
+        Set<String> contextSet = Set.copyOf(contexts);
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("events", eventList);
+        if (!contextSet.isEmpty()) params.put("contexts", List.copyOf(contextSet));
+        String id = bidi.send(new Command<>("session.subscribe", params, input -> {
+            Map<String, Object> result = input.read(Json.MAP_TYPE);
+            Object subscription = result.get("subscription");
+            return subscription == null ? null : String.valueOf(subscription);
+        }));
+        logger.debug("Subscribed {} for {} as {}", eventList, contextSet.isEmpty() ? "all contexts" : contextSet, id);
+        return new ScopedSubscription(bidi, connection, eventList, contextSet, id);
+    }
+
+    /** Browser-side subscription id, or null if the browser predates subscription ids. */
+    public String id() { return subscriptionId; }
+
+    public Set<String> contexts() { return contexts; }
+
+    /** Events delivered to this subscription's listeners. */
+    public long receivedCount() { return received.sum(); }
+
+    /** Events dropped because they belong to a context outside this subscription (sent for someone else). */
+    public long outOfScopeCount() { return outOfScope.sum(); }
+
+    /**
+     * Call {@code handler} for every {@code event} in scope. The event must be one of (or belong to a
+     * module of) the subscribed events, since adding a listener does not widen the subscription.
+     * Returns the listener id.
+     */
+    public <X> long on(Event<X> event, Consumer<X> handler) {
+        if (closed) throw new IllegalStateException("Subscription is closed");
+        if (!covers(event.getMethod())) {
+            throw new IllegalArgumentException(event.getMethod() + " is not part of subscription " + events);
+        }
+        Event<Map<String, Object>> raw = new Event<>(event.getMethod(), params -> params);
+        long id = connection.addListener(raw, params -> {
+            if (!inScope(params)) {
+                outOfScope.increment();
+                return;
+            }
+            received.increment();
+            handler.accept(event.getMapper().apply(params));
+        });
+        listenerIds.add(id);
+        return id;
+    }
+
+    private boolean covers(String method) {
+        for (String e : events) {
+            if (method.equals(e) || (method.startsWith(e) && method.charAt(e.length()) == '.')) return true;
+        }
+        return false;
+    }
+
+    private boolean inScope(Map<String, Object> params) {
+        if (contexts.isEmpty()) return true;
+        String context = contextOf(params);
+        return context == null || contexts.contains(context);
+    }
+
+    /** The browsing context of an event: params.context (browsingContext, network) or params.source.context (log, script). */
+    public static String contextOf(Map<String, Object> params) {
+        Object context = params.get("context");
+        if (context == null && params.get("source") instanceof Map) {
+            context = ((Map<?, ?>) params.get("source")).get("context");
+        }
+        return context == null ? null : String.valueOf(context);
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        synchronized (listenerIds) {
+            for (Long id : listenerIds) {
+                connection.removeListener(id);
+            }
+            listenerIds.clear();
+        }
+        try {
+            if (subscriptionId != null) {
+                bidi.send(new Command<>("session.unsubscribe", Map.of("subscriptions", List.of(subscriptionId)), Map.class));
+            } else {
+                // Browsers without subscription ids unsubscribe by attributes.
+                Map<String, Object> params = new LinkedHashMap<>();
+                params.put("events", events);
+                if (!contexts.isEmpty()) params.put("contexts", List.copyOf(contexts));
+                bidi.send(new Command<>("session.unsubscribe", params, Map.class));
+            }
+        } catch (RuntimeException e) {
+            // Connection already gone; nothing left to unsubscribe.
+            logger.debug("Could not unsubscribe {}", subscriptionId, e);
+        }
+        logger.debug("Unsubscribed {} after {} events ({} out of scope)", subscriptionId, receivedCount(), outOfScopeCount());
+    }
+
+    /**
+     * The connection behind {@link BiDi}. It is not exposed, and going through {@code BiDi.addListener}
+     * would send another (unscoped, never removed) session.subscribe for every listener.
+     */
+    static Connection connectionOf(BiDi bidi) {
+        try {
+            Field field = BiDi.class.getDeclaredField("connection");
+            field.setAccessible(true);
+            return (Connection) field.get(bidi);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Cannot reach the BiDi connection of this Selenium version", e);
+        }
+    }
+}
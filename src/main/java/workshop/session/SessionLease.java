@@ -0,0 +1,41 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+
+import java.util.Optional;
+
+/**
+ * Exclusive use of one pooled, BiDi-enabled driver plus a fresh {@link BrowsingContext}.
+ *
+ * The driver's classic WebDriver commands are already switched to the leased context.
+ * Closing the lease resets the browser and hands the driver back to the {@link SessionPool}.
+ */
+public final class SessionLease implements AutoCloseable {
+    private final SessionPool pool;
+    private final SessionPool.PooledSession session;
+    private final BrowsingContext context;
+    private final String userContext;
+    private boolean released;
+
+    SessionLease(SessionPool pool, SessionPool.PooledSession session, BrowsingContext context, String userContext) {
+        this.pool = pool;
+        this.session = session;
+        this.context = context;
+        this.userContext = userContext;
+    }
+
+    public WebDriver driver() { return session.driver; }
+
+    public BrowsingContext context() { return context; }
+
+    /** The user context id when leased with {@link Isolation#USER_CONTEXT}. */
+    public Optional<String> userContext() { return Optional.ofNullable(userContext); }
+
+    @Override
+    public void close() {
+        if (released) return;
+        released = true;
+        pool.release(session, this);
+    }
+}
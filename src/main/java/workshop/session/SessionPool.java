@@ -0,0 +1,231 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.CreateContextParameters;
+import org.openqa.selenium.bidi.module.Browser;
+import org.openqa.selenium.bidi.module.Storage;
+import org.openqa.selenium.bidi.storage.CookieFilter;
+import org.openqa.selenium.bidi.storage.DeleteCookiesParameters;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pool of warm, BiDi-enabled browser sessions.
+ *
+ * Starting a ChromeDriver with webSocketUrl=true costs far more than most workshop scenarios.
+ * The pool starts N drivers up front (in parallel), and every {@link #lease} hands out one of them
+ * together with a new browsing context (tab or user context). Releasing the lease closes that context,
+ * clears cookies and BiDi listeners, and returns the driver, so the next task starts clean without
+ * paying for a new session. A driver that fails to reset is quit and replaced.
+ *
+ * Usage:
+ * <pre>{@code
+ * try (SessionPool pool = new SessionPool(4);
+ *      SessionLease lease = pool.lease(Isolation.USER_CONTEXT)) {
+ *     lease.context().navigate(url, ReadinessState.COMPLETE);
+ * }
+ * }</pre>
+ */
+public class SessionPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SessionPool.class);
+
+    private final Supplier<WebDriver> driverFactory;
+    private final BlockingQueue<PooledSession> idle = new LinkedBlockingQueue<>();
+    private final List<PooledSession> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder replacements = new LongAdder();
+
+    static final class PooledSession {
+        final WebDriver driver;
+        final String homeHandle;
+
+        PooledSession(WebDriver driver) {
+            this.driver = driver;
+            this.homeHandle = driver.getWindowHandle();
+        }
+    }
+
+    /** Pool of {@code size} Chrome sessions built from {@link #bidiOptions()}. */
+    public SessionPool(int size) {
+        this(size, () -> new ChromeDriver(bidiOptions()));
+    }
+
+    public SessionPool(int size, Supplier<WebDriver> driverFactory) {
+        if (size < 1) throw new IllegalArgumentException("size must be >= 1: " + size);
+        this.driverFactory = driverFactory;
+
+        long start = System.nanoTime();
+        ExecutorService starter = Executors.newFixedThreadPool(size);
+        try {
+            List<Future<PooledSession>> starting = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                starting.add(starter.submit(this::newSession));
+            }
+            // Collect every started session first so a partial failure doesn't leak browsers.
+            Throwable failure = null;
+            for (Future<PooledSession> f : starting) {
+                try {
+                    PooledSession s = f.get();
+                    sessions.add(s);
+                    idle.add(s);
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = e.getCause();
+                }
+            }
+            if (failure != null) {
+                close();
+                throw new IllegalStateException("Failed to start session pool", failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while starting session pool", e);
+        } finally {
+            starter.shutdownNow();
+        }
+        logger.info("Session pool ready: {} sessions in {} ms", size,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** ChromeOptions with the BiDi bridge enabled, as used throughout the workshop. */
+    public static ChromeOptions bidiOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setCapability("webSocketUrl", true);
+        return options;
+    }
+
+    private PooledSession newSession() {
+        WebDriver driver = driverFactory.get();
+        if (!(driver instanceof HasBiDi) || ((HasBiDi) driver).maybeGetBiDi().isEmpty()) {
+            driver.quit();
+            throw new IllegalStateException("Pooled drivers must have BiDi enabled (webSocketUrl=true)");
+        }
+        return new PooledSession(driver);
+    }
+
+    /** Wait as long as needed for a free session. */
+    public SessionLease lease(Isolation isolation) throws InterruptedException {
+        return open(idle.take(), isolation);
+    }
+
+    public SessionLease lease(Isolation isolation, Duration timeout) throws InterruptedException, TimeoutException {
+        PooledSession session = idle.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (session == null) {
+            throw new TimeoutException("No pooled session became free within " + timeout);
+        }
+        return open(session, isolation);
+    }
+
+    private SessionLease open(PooledSession session, Isolation isolation) {
+        if (closed.get()) {
+            throw new IllegalStateException("Session pool is closed");
+        }
+        String userContext = null;
+        BrowsingContext context = null;
+        try {
+            CreateContextParameters params = new CreateContextParameters(WindowType.TAB);
+            if (isolation == Isolation.USER_CONTEXT) {
+                userContext = new Browser(session.driver).createUserContext();
+                params.userContext(userContext);
+            }
+            context = new BrowsingContext(session.driver, params);
+            // Classic commands (findElement, sendKeys, ...) follow the leased context.
+            session.driver.switchTo().window(context.getId());
+            leases.increment();
+            return new SessionLease(this, session, context, userContext);
+        } catch (RuntimeException e) {
+            // Don't lose the slot: reset (or replace) the session before surfacing the error, removing
+            // whatever was created before the failure so it doesn't leak in the browser.
+            recycle(session, context, userContext);
+            throw e;
+        }
+    }
+
+    void release(PooledSession session, SessionLease lease) {
+        recycle(session, lease.context(), lease.userContext().orElse(null));
+    }
+
+    private void recycle(PooledSession session, BrowsingContext context, String userContext) {
+        if (closed.get()) {
+            quit(session);
+            return;
+        }
+        try {
+            ((HasBiDi) session.driver).getBiDi().clearListeners();
+            if (userContext != null) {
+                // Removing the user context also closes every tab in it.
+                new Browser(session.driver).removeUserContext(userContext);
+            } else {
+                if (context != null) {
+                    context.close();
+                }
+                new Storage(session.driver).deleteCookies(new DeleteCookiesParameters(new CookieFilter()));
+            }
+            session.driver.switchTo().window(session.homeHandle);
+            idle.add(session);
+        } catch (RuntimeException e) {
+            logger.warn("Pooled session failed to reset, replacing it", e);
+            sessions.remove(session);
+            quit(session);
+            try {
+                PooledSession fresh = newSession();
+                sessions.add(fresh);
+                idle.add(fresh);
+                replacements.increment();
+            } catch (RuntimeException startFailure) {
+                logger.error("Could not replace pooled session; pool shrinks to {}", sessions.size(), startFailure);
+            }
+        }
+    }
+
+    public int size() { return sessions.size(); }
+
+    public int idleCount() { return idle.size(); }
+
+    public long leaseCount() { return leases.sum(); }
+
+    /** Sessions that had to be restarted because they failed to reset. */
+    public long replacementCount() { return replacements.sum(); }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        for (PooledSession s : sessions) {
+            quit(s);
+        }
+        sessions.clear();
+        idle.clear();
+        logger.info("Session pool closed after {} leases ({} replacements)", leaseCount(), replacementCount());
+    }
+
+    private static void quit(PooledSession session) {
+        try {
+            session.driver.quit();
+        } catch (Exception e) {
+            logger.error("Error closing pooled WebDriver session", e);
+        }
+    }
+}
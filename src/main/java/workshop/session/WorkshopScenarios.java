@@ -0,0 +1,92 @@
+package workshop.session;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.browsingcontext.NavigationResult;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.log.ConsoleLogEntry;
+import org.openqa.selenium.bidi.module.Script;
+import org.openqa.selenium.bidi.script.LocalValue;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The workshop main classes expressed as {@link Scenario}s (solution versions).
+ *
+ * The fixed demo pauses are replaced by waits on BiDi events, and every command is addressed to the
+ * scenario's own context, so these can run side by side on one shared driver.
+ */
+public final class WorkshopScenarios {
+
+    private WorkshopScenarios() {
+    }
+
+    /** EnablingBiDi: navigate a data: page via BiDi and wait for COMPLETE (instead of sleeping 30 s). */
+    public static Scenario enablingBiDi() {
+        return (driver, context) -> {
+            NavigationResult nav = context.navigate(
+                    "data:text/html,<title>BiDi Enabled</title><h1>WebDriver BiDi is ON</h1>",
+                    ReadinessState.COMPLETE);
+            if (nav.getUrl() == null) {
+                throw new IllegalStateException("Navigation did not report a URL");
+            }
+        };
+    }
+
+    /** ConsoleEventsSubscription: subscribe for the context, click #consoleError, await the entry. */
+    public static Scenario consoleEvents() {
+        return (driver, context) -> {
+            try (ContextEvents events = new ContextEvents(driver, context.getId())) {
+                CompletableFuture<ConsoleLogEntry> first = events.nextConsoleEntry(entry -> true);
+
+                context.navigate("https://www.selenium.dev/selenium/web/bidi/logEntryAdded.html",
+                        ReadinessState.COMPLETE);
+                click(driver, context.getId(), "consoleError");
+                first.get(5, TimeUnit.SECONDS);
+            }
+        };
+    }
+
+    /** NetworkEvents: wait for the document's responseCompleted event (instead of sleeping 1500 ms). */
+    public static Scenario networkEvents() {
+        return (driver, context) -> {
+            String url = "https://www.selenium.dev/";
+            try (ContextEvents events = new ContextEvents(driver, context.getId())) {
+                CompletableFuture<ResponseDetails> document =
+                        events.nextResponse(r -> url.equals(r.getRequest().getUrl()));
+
+                context.navigate(url, ReadinessState.COMPLETE);
+                ResponseDetails response = document.get(10, TimeUnit.SECONDS);
+                if (response.getResponseData().getStatus() >= 400) {
+                    throw new IllegalStateException("Document failed with status " + response.getResponseData().getStatus());
+                }
+            }
+        };
+    }
+
+    /** Every scenario above, by workshop class name. */
+    public static Map<String, Scenario> all() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("EnablingBiDi", enablingBiDi());
+        scenarios.put("ConsoleEventsSubscription", consoleEvents());
+        scenarios.put("NetworkEvents", networkEvents());
+        return scenarios;
+    }
+
+    /** Click an element by id inside the given context only (no classic window switching). */
+    static void click(WebDriver driver, String contextId, String elementId) {
+        try (Script script = new Script(contextId, driver)) {
+            script.callFunctionInBrowsingContext(contextId,
+                    "(id) => document.getElementById(id).click()",
+                    true,
+                    Optional.of(List.of(LocalValue.stringValue(elementId))),
+                    Optional.empty(),
+                    Optional.empty());
+        }
+    }
+}
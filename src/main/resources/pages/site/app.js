@@ -0,0 +1,7 @@
+fetch('data.json')
+    .then(r => r.json())
+    .then(data => {
+        document.getElementById('status').textContent = data.status;
+        console.log('APP_READY: ' + data.status);
+    })
+    .catch(e => console.error('APP_ERROR: ' + e));
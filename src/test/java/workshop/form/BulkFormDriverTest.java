@@ -0,0 +1,74 @@
+package workshop.form;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkFormDriverTest {
+    private static BulkFormDriver.RowResult outcome(String... lines) {
+        return outcome(List.of(), lines);
+    }
+
+    private static BulkFormDriver.RowResult outcome(List<String> missing, String... lines) {
+        List<Object> pairs = new ArrayList<>();
+        for (String line : lines) pairs.add(List.of("info", line));
+        return BulkFormDriver.outcome(Map.of("lines", pairs, "missing", missing), 42);
+    }
+
+    @Test
+    void lastValidationLinePerFieldIsItsOutcome() {
+        BulkFormDriver.RowResult result = outcome(
+                "VALIDATION_ERR: email — TYPE_MISMATCH (not an address)",
+                "VALIDATION_OK: name",
+                "VALIDATION_OK: email",
+                "VALIDATION_ERR: zip — PATTERN_MISMATCH (5 digits)",
+                "FORM_READY");
+
+        assertEquals(Map.of("email", "OK", "name", "OK", "zip", "PATTERN_MISMATCH"), result.getFields());
+        assertEquals(BulkFormDriver.RowResult.Status.INVALID, result.getStatus());
+        assertEquals("info: VALIDATION_OK: name", result.getConsole().get(1));
+        assertEquals(42, result.getMicros());
+        assertNull(result.getError());
+    }
+
+    @Test
+    void errorWithoutCodeIsStillAnError() {
+        BulkFormDriver.RowResult result = outcome("VALIDATION_ERR: name", "FORM_READY");
+
+        assertEquals(Map.of("name", "ERR"), result.getFields());
+        assertEquals(BulkFormDriver.RowResult.Status.INVALID, result.getStatus());
+    }
+
+    @Test
+    void readyNeedsFormReadyAndEveryFieldOk() {
+        assertEquals(BulkFormDriver.RowResult.Status.READY, outcome("VALIDATION_OK: name", "FORM_READY").getStatus());
+        assertEquals(BulkFormDriver.RowResult.Status.INVALID, outcome("VALIDATION_OK: name").getStatus());
+        assertEquals(BulkFormDriver.RowResult.Status.INVALID, outcome().getStatus());
+    }
+
+    @Test
+    void submittedBeatsBlockedBeatsReady() {
+        assertEquals(BulkFormDriver.RowResult.Status.SUBMITTED,
+                outcome("FORM_READY", "FORM_BLOCKED: server said no", "FORM_SUBMITTED").getStatus());
+        assertEquals(BulkFormDriver.RowResult.Status.BLOCKED,
+                outcome("FORM_READY", "FORM_BLOCKED: duplicate").getStatus());
+        assertEquals(BulkFormDriver.RowResult.Status.BLOCKED,
+                outcome("VALIDATION_ERR: name — VALUE_MISSING", "FORM_BLOCKED: invalid").getStatus());
+    }
+
+    @Test
+    void unrelatedLinesAndMissingColumnsAreKept() {
+        BulkFormDriver.RowResult result = outcome(List.of("nickname"),
+                "rendering", "FORM_READY_SOON", "VALIDATION_OK: name", "FORM_READY");
+
+        assertEquals(List.of("nickname"), result.getMissing());
+        assertEquals(Map.of("name", "OK"), result.getFields());
+        assertEquals(4, result.getConsole().size());
+        assertEquals(BulkFormDriver.RowResult.Status.READY, result.getStatus());
+    }
+}
@@ -0,0 +1,190 @@
+package workshop.network;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BodyStoreTest {
+    @TempDir
+    Path spill;
+
+    private static boolean put(BodyStore store, String key, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return store.store(key, bytes.length, buffer -> buffer.put(bytes));
+    }
+
+    private static boolean put(BodyStore store, String key, int size) {
+        return store.store(key, size, buffer -> {
+            while (buffer.hasRemaining()) buffer.put((byte) key.charAt(0));
+        });
+    }
+
+    private static Optional<String> text(BodyStore store, String key) {
+        return store.read(key, buffer -> StandardCharsets.UTF_8.decode(buffer).toString());
+    }
+
+    @Test
+    void sizeClassesArePowersOfTwoFromOneKilobyte() {
+        assertEquals(1024, BodyStore.classSize(1));
+        assertEquals(1024, BodyStore.classSize(1024));
+        assertEquals(2048, BodyStore.classSize(1025));
+        assertEquals(65536, BodyStore.classSize(40_000));
+    }
+
+    @Test
+    void storesAndReadsBackPooledAndSpilledBodies() {
+        try (BodyStore store = new BodyStore(1 << 20, 4096, spill)) {
+            assertTrue(put(store, "small", "{\"id\":1}"));
+            String large = "x".repeat(10_000);
+            assertTrue(put(store, "large", large));
+
+            assertEquals(Optional.of("{\"id\":1}"), text(store, "small"));
+            assertEquals(Optional.of(large), text(store, "large"));
+            assertEquals(10_000, store.size("large"));
+            assertEquals(1, store.spilledCount());
+            assertEquals(1024 + 10_000, store.usedBytes());
+            assertEquals(Optional.empty(), text(store, "missing"));
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedToStayWithinBudget() {
+        try (BodyStore store = new BodyStore(4096, 4096, spill)) {
+            for (String key : new String[] {"a", "b", "c", "d"}) assertTrue(put(store, key, 1000));
+            text(store, "a"); // a is now the most recently used
+
+            assertTrue(put(store, "e", 1000));
+
+            assertTrue(store.contains("a"));
+            assertFalse(store.contains("b"));
+            assertEquals(1, store.evictionCount());
+            assertEquals(4096, store.usedBytes());
+        }
+    }
+
+    @Test
+    void rejectsBodiesLargerThanTheBudget() {
+        try (BodyStore store = new BodyStore(4096, 1024, spill)) {
+            assertFalse(put(store, "huge", 5000));
+            assertEquals(1, store.rejectedCount());
+            assertEquals(0, store.usedBytes());
+        }
+    }
+
+    @Test
+    void pinnedBodiesAreNotEvictedAndTheNewBodyIsRejectedWhenTheyLeaveNoRoom() {
+        try (BodyStore store = new BodyStore(2048, 2048, spill)) {
+            assertTrue(put(store, "a", 1000));
+            assertTrue(put(store, "b", 1000));
+
+            boolean[] stored = new boolean[2];
+            store.read("a", buffer -> {
+                stored[0] = put(store, "c", 2000); // would need a, which is being read
+                stored[1] = put(store, "d", 1000); // fits once b is evicted
+                return null;
+            });
+
+            assertFalse(stored[0]);
+            assertTrue(stored[1]);
+            assertEquals(1, store.rejectedCount());
+            assertTrue(store.contains("a"));
+            assertFalse(store.contains("b"));
+            assertTrue(store.usedBytes() <= 2048);
+        }
+    }
+
+    @Test
+    void replacedBodyBeingReadIsReleasedWhenTheReaderReturns() {
+        try (BodyStore store = new BodyStore(4096, 4096, spill)) {
+            assertTrue(put(store, "a", "old"));
+            String seen = store.read("a", buffer -> {
+                assertTrue(put(store, "a", "new"));
+                assertEquals(2048, store.usedBytes()); // the old body is still charged while pinned
+                return StandardCharsets.UTF_8.decode(buffer).toString();
+            }).orElseThrow();
+
+            assertEquals("old", seen);
+            assertEquals(Optional.of("new"), text(store, "a"));
+            assertEquals(1024, store.usedBytes());
+        }
+    }
+
+    @Test
+    void freedSlotsAreReusedInsteadOfAllocatingMoreDirectMemory() {
+        try (BodyStore store = new BodyStore(2048, 4096, spill)) {
+            for (int i = 0; i < 100; i++) assertTrue(put(store, "k" + i, 900 + i));
+
+            assertEquals(2048, store.pooledBytes());
+            assertEquals(98, store.evictionCount());
+            assertEquals(Optional.of(999), store.read("k99", ByteBuffer::remaining));
+        }
+    }
+
+    @Test
+    void freeBuffersOfOtherSizeClassesCountAgainstTheBudget() {
+        int budget = 64 << 10;
+        try (BodyStore store = new BodyStore(budget, 64 << 10, spill)) {
+            int n = 0;
+            for (int classSize = 1024; classSize <= budget; classSize <<= 1) {
+                for (int i = 0; i < budget / classSize; i++) {
+                    assertTrue(put(store, "k" + n++, classSize));
+                    assertTrue(store.pooledBytes() <= budget);
+                    assertTrue(store.usedBytes() + store.freeBytes() <= budget);
+                }
+            }
+            assertEquals(1, store.entryCount()); // the last 64 KB body fills the budget on its own
+            assertEquals(budget, store.pooledBytes());
+            assertEquals(0, store.freeBytes());
+        }
+    }
+
+    @Test
+    void rejectedBodyEvictsNothing() {
+        try (BodyStore store = new BodyStore(4096, 4096, spill)) {
+            assertTrue(put(store, "a", 2000));
+            assertTrue(put(store, "b", 1000));
+            store.read("a", buffer -> {
+                assertFalse(put(store, "c", 4000));
+                return null;
+            });
+            assertTrue(store.contains("b"));
+            assertEquals(0, store.evictionCount());
+        }
+    }
+
+    @Test
+    void evictedSpillFilesAreDeletedAndCountedUntilUnmapped() throws Exception {
+        try (BodyStore store = new BodyStore(20_000, 1024, spill)) {
+            assertTrue(put(store, "a", 10_000));
+            assertTrue(put(store, "b", 10_000));
+            assertTrue(put(store, "c", 10_000)); // evicts a
+
+            try (Stream<Path> files = Files.list(spill)) {
+                assertEquals(2, files.count());
+            }
+            assertEquals(20_000, store.usedBytes());
+            assertTrue(store.unmappedBytes() <= 10_000);
+        }
+        try (Stream<Path> files = Files.list(spill)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void closedStoreRejectsNewBodies() {
+        BodyStore store = new BodyStore(4096, 4096, spill);
+        store.close();
+        assertFalse(put(store, "a", "late"));
+        assertEquals(0, store.entryCount());
+    }
+}